@@ -1,41 +1,257 @@
 package Bot;
 
 import java.util.List;
-import java.io.PrintWriter;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
+import indicators.IndicatorContext;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import indicators.IndicatorEngine;
 import interfaces.TradingStrategy;
 import interfaces.TradingTemplate;
 import models.Candle;
 import models.Order;
+import models.OrderFill;
 import models.Signal;
+import models.SymbolFilters;
 import commands.*;
+import tracing.TickEvents;
 
 public class Bot extends TradingTemplate {
     private BotConfig config = BotConfig.getInstance();
     private StrategySelector selector = new StrategySelector();
+    // Shared streaming indicators of this bot's candle stream
+    private final IndicatorEngine indicators = new IndicatorEngine();
     
-    // Balance Cache (To optimize API usage and avoid rate limits)
+    // Balance Cache (To optimize API usage and avoid rate limits); read and written
+    // on the bot's thread only, never by the order executor
     private double lastUsdtBalance = 0;
     private double lastBtcBalance = 0;
     private boolean isBalanceInitialized = false;
 
+    // Trading pair of this bot and its base asset (BTCUSDT -> BTC)
+    private final String symbol;
+    private final String baseAsset;
+    private static final String QUOTE_ASSET = "USDT";
+
+    // Executes Buy/Sell commands (Binance or local simulation)
+    private final OrderReceiver receiver;
+    // If set, commands run on this executor instead of the price loop's thread
+    private OrderExecutor executor;
+    // Last order handed to the executor, until the bot's thread has seen it settle
+    private CompletableFuture<Void> pendingOrder;
+    // If set, balances are read from this wallet only (backtests, no API calls)
+    private final models.Wallet wallet;
+    // Balance lookups on Binance, created on first use (only without a ledger)
+    private services.BinanceService binance;
+    // Local account balances kept current from fills (live trading)
+    private services.BalanceLedger ledger;
+    // Exchange LOT_SIZE and minimum notional of the symbol, null if unknown
+    private SymbolFilters filters;
+    // Console output and trades.csv journal
+    private boolean logging = true;
+    // Report the chosen strategy in the shared BotConfig (off for backtests)
+    private boolean configUpdates = true;
+    // Journal rows are written to; the shared trades.csv journal unless set
+    private storage.TradeJournal journal;
+    // Live events for the dashboard (signals, orders, fills, balances, rows); none unless set
+    private services.EventStream events;
+
+    // Metrics, looked up once: signals by type and order outcomes of this symbol
+    private final Counter[] signalCounts = new Counter[Signal.values().length];
+    private final Counter ordersFilled, ordersPartial, ordersRejected, ordersFailed, ordersRefused,
+            ordersSkippedInFlight, ordersSkippedDust;
+
+    public Bot() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param windowSize Number of candles kept in the sliding window (e.g. 500, up to 100k).
+     */
+    public Bot(int windowSize) {
+        this(windowSize, new OrderReceiver(), null);
+    }
+
+    /**
+     * Creates a bot with its own order receiver and wallet, e.g. a simulated exchange for backtests.
+     *
+     * @param windowSize Number of candles kept in the sliding window.
+     * @param receiver The receiver that executes Buy/Sell commands.
+     * @param wallet The wallet balances are read from, or null to use Binance/the global Wallet.
+     */
+    public Bot(int windowSize, OrderReceiver receiver, models.Wallet wallet) {
+        this("BTCUSDT", windowSize, receiver, wallet);
+    }
+
+    /**
+     * Creates a bot for one trading pair (quoted in USDT), e.g. one pipeline of a multi-symbol runtime.
+     *
+     * @param symbol The trading pair, e.g. ETHUSDT.
+     * @param windowSize Number of candles kept in the sliding window.
+     * @param receiver The receiver that executes Buy/Sell commands.
+     * @param wallet The wallet balances are read from, or null to use Binance/the global Wallet.
+     */
+    public Bot(String symbol, int windowSize, OrderReceiver receiver, models.Wallet wallet) {
+        super(windowSize);
+        this.symbol = symbol;
+        this.baseAsset = symbol.endsWith("USDT") ? symbol.substring(0, symbol.length() - 4) : symbol;
+        this.receiver = receiver;
+        this.wallet = wallet;
+
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        for (Signal signal : Signal.values()) {
+            signalCounts[signal.ordinal()] = registry.counter("bot_signals_total", "Signals evaluated, by type",
+                    "symbol", symbol, "signal", signal.name());
+        }
+        ordersFilled = orderCounter(registry, "filled");
+        ordersPartial = orderCounter(registry, "partial");
+        ordersRejected = orderCounter(registry, "rejected");
+        ordersFailed = orderCounter(registry, "failed");
+        ordersRefused = orderCounter(registry, "refused");
+        ordersSkippedInFlight = orderCounter(registry, "skipped_in_flight");
+        ordersSkippedDust = orderCounter(registry, "skipped_dust");
+    }
+
+    private Counter orderCounter(MetricsRegistry registry, String outcome) {
+        return registry.counter("bot_orders_total",
+                "Order outcomes: filled, partial, rejected (by the exchange), failed (no answer), "
+                        + "refused (executor full), skipped_in_flight, skipped_dust",
+                "symbol", symbol, "outcome", outcome);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Sends orders through an executor, so trade() returns without waiting for the
+     * exchange. Without one (e.g. backtests) orders are executed synchronously.
+     * While an order is in flight, new signals of this bot are skipped.
+     */
+    public void setOrderExecutor(OrderExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Reads balances from a local ledger instead of the account endpoint, and books
+     * this bot's fills into it. Only used with API keys; paper trading reads the wallet.
+     */
+    public void setBalanceLedger(services.BalanceLedger ledger) {
+        this.ledger = ledger;
+        if (ledger != null) {
+            ledger.track(QUOTE_ASSET);
+            ledger.track(baseAsset);
+        }
+    }
+
+    /**
+     * Sizes orders against the symbol's exchange filters (LOT_SIZE and minimum
+     * notional) instead of the 5 USDT dust threshold.
+     */
+    public void setSymbolFilters(SymbolFilters filters) {
+        this.filters = filters;
+    }
+
+    /**
+     * Writes this bot's rows to another journal (e.g. one file per symbol) instead of trades.csv.
+     */
+    public void setJournal(storage.TradeJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Publishes this bot's signals, orders, fills, balance changes, journal rows and
+     * strategy switches to an event stream (the dashboard's /api/stream).
+     */
+    public void setEventStream(services.EventStream events) {
+        this.events = events;
+        selector.setEventStream(events, symbol);
+    }
+
+    // True if events should be built: a stream is set and someone listens
+    private boolean streaming() {
+        return events != null && events.hasClients();
+    }
+
+    private storage.TradeJournal journal() {
+        if (journal == null) journal = storage.TradeJournal.getInstance();
+        return journal;
+    }
+
+    /**
+     * Turns console output and the trades.csv journal on or off.
+     */
+    public void setLogging(boolean logging) {
+        this.logging = logging;
+        selector.setLogging(logging);
+    }
+
+    /**
+     * Turns reporting the chosen strategy in the shared BotConfig on or off. Bots that
+     * do not trade live (backtests) turn it off, so the API keeps showing the live choice.
+     */
+    public void setConfigUpdates(boolean enabled) {
+        this.configUpdates = enabled;
+    }
+
+    @Override
+    public void setMetricsEnabled(boolean enabled) {
+        super.setMetricsEnabled(enabled);
+        selector.setMetricsEnabled(enabled);
+    }
+
+    /**
+     * Fills the candle window with the newest candles of an archive, without trading,
+     * so indicators are ready on the first live tick.
+     *
+     * @param archive The stored history of the symbol/interval this bot trades.
+     */
+    public void warmUp(storage.CandleArchive archive) {
+        archive.copyLatestTo(data);
+    }
+
+    /**
+     * Adds candles to the window without trading (startup backfill, missed candles after a disconnect).
+     * Candles are matched by openTime like live ones, so the newest bar may be among them.
+     *
+     * @param candles The candles, oldest first.
+     */
+    public void warmUp(models.CandleSeries candles) {
+        Candle candle = new Candle(0, 0, 0, 0, 0, 0, 0);
+        for (int i = 0; i < candles.size(); i++) {
+            fetchData(candles.load(i, candle));
+        }
+    }
+
     /**
      * Ingests a new candle into the bot's data stream.
-     * Keeps a sliding window of the last 500 candles to manage memory.
+     * Keeps a sliding window of the last N candles (500 by default) in a ring buffer,
+     * so the oldest candle is overwritten instead of shifting the list.
+     * A candle with the same openTime as the newest one is a new snapshot of that bar
+     * and replaces it in place; older candles are ignored.
      * 
      * @param candle The new market data point.
-     * @return The updated list of historical candles.
+     * @return A List view of the historical candles.
      */
     @Override
     protected List<Candle> fetchData(Candle candle) {
-        data.add(candle);
-        // Keep memory usage in check (keep last 500 candles roughly)
-        if (data.size() > 500) {
-            data.remove(0);
+        long lastOpenTime = data.lastOpenTime();
+        if (!data.isEmpty() && candle.openTime == lastOpenTime) {
+            data.updateLast(candle);
+        } else if (data.isEmpty() || candle.openTime > lastOpenTime) {
+            data.append(candle);
         }
-        return data; 
+        return data.asList(); 
+    }
+
+    /**
+     * Updates the window with a snapshot of the forming bar without evaluating the strategies.
+     *
+     * @param candle The latest snapshot of the current bar (or a new bar).
+     */
+    public void update(Candle candle) {
+        fetchData(candle);
     }
 
     /**
@@ -48,31 +264,77 @@ public class Bot extends TradingTemplate {
     @Override
     protected Signal evaluateData(List<Candle> candles) {
          if (candles.isEmpty()) return Signal.HOLD;
+         TickEvents.StrategyEvaluation trace = new TickEvents.StrategyEvaluation();
+         trace.begin();
+
+         // One context per tick: selector, strategy and decorators share indicator values
+         IndicatorContext context = indicators.tick(candles);
          
          // Dynamic Strategy Selection
-         TradingStrategy bestStrategy = selector.determineStrategy(candles);
+         TradingStrategy bestStrategy = selector.determineStrategy(candles, context);
          
-         // Update Config (or just use local variable)
-         if (config.strategy != bestStrategy) {
+         // Update Config (shown by the API); the signal comes from this bot's own choice,
+         // since bots of other symbols write the shared config concurrently
+         if (configUpdates && config.strategy != bestStrategy) {
               config.strategy = bestStrategy;
          }
          
-         return config.strategy.generateSignal(candles);
+         Signal signal = bestStrategy.generateSignal(candles, context);
+         if (metricsEnabled) signalCounts[signal.ordinal()].increment();
+         if (streaming()) {
+              events.publish("signal", "{\"symbol\":\"" + symbol + "\",\"signal\":\"" + signal
+                      + "\",\"strategy\":" + services.EventStream.quote(bestStrategy.getName())
+                      + ",\"price\":" + data.lastClose() + "}");
+         }
+         if (trace.shouldCommit()) {
+              trace.stamp();
+              trace.symbol = symbol;
+              trace.strategy = bestStrategy.getName();
+              trace.signal = signal.name();
+              trace.commit();
+         }
+         return signal;
     }
 
-    // Updates wallet balance from Binance API or Local Simulation Wallet
+    // Updates wallet balance from the ledger, Binance API or Local Simulation Wallet
     private void updateBalance() {
-        if (services.BinanceConfig.isConfigured()) {
-            services.BinanceService service = new services.BinanceService();
-            models.WalletBalance balance = service.getWalletBalance();
+        double previousUsdt = lastUsdtBalance;
+        double previousBtc = lastBtcBalance;
+        TickEvents.BalanceRefresh trace = new TickEvents.BalanceRefresh();
+        trace.begin();
+        String source;
+        if (wallet != null) {
+            source = "wallet";
+            lastUsdtBalance = wallet.getUsdtBalance();
+            lastBtcBalance = wallet.getBtcBalance();
+        } else if (ledger != null && services.BinanceConfig.isConfigured()) {
+            source = "ledger";
+            lastUsdtBalance = ledger.getFree(QUOTE_ASSET);
+            lastBtcBalance = ledger.getFree(baseAsset);
+        } else if (services.BinanceConfig.isConfigured()) {
+            source = "exchange";
+            if (binance == null) binance = new services.BinanceService();
+            models.WalletBalance balance = binance.getWalletBalance(baseAsset);
             lastUsdtBalance = balance.usdt;
             lastBtcBalance = balance.btc;
         } else {
+            source = "simulation";
             models.Wallet wallet = models.Wallet.getInstance();
             lastUsdtBalance = wallet.getUsdtBalance();
             lastBtcBalance = wallet.getBtcBalance();
         }
         isBalanceInitialized = true;
+        if (trace.shouldCommit()) {
+            trace.stamp();
+            trace.symbol = symbol;
+            trace.source = source;
+            trace.commit();
+        }
+
+        if ((lastUsdtBalance != previousUsdt || lastBtcBalance != previousBtc) && streaming()) {
+            events.publish("balance", "{\"symbol\":\"" + symbol + "\",\"asset\":\"" + baseAsset
+                    + "\",\"usdt\":" + lastUsdtBalance + ",\"base\":" + lastBtcBalance + "}");
+        }
     }
 
     /**
@@ -84,16 +346,23 @@ public class Bot extends TradingTemplate {
      */
     @Override
     protected Order createOrder(Signal signal) {
-        String symbol = "BTCUSDT";
-        
         if (signal == Signal.HOLD) {
-            if (!isBalanceInitialized) updateBalance();
+            // After an order settled, so the dashboard sees the new balance without waiting for a trade
+            if (!isBalanceInitialized || orderSettled()) updateBalance();
             return new Order(symbol, "HOLD", 0);
         }
 
+        // Sizing needs the balance after the previous order's fill
+        if (pendingOrder != null && !pendingOrder.isDone()) {
+            if (logging) System.out.println("Previous " + symbol + " order still in flight. Skipping " + signal + ".");
+            if (metricsEnabled) ordersSkippedInFlight.increment();
+            return new Order(symbol, "HOLD", 0);
+        }
+        pendingOrder = null;
+
         updateBalance();
 
-        double currentPrice = data.isEmpty() ? 0 : data.get(data.size() - 1).close;
+        double currentPrice = data.lastClose();
         if (currentPrice == 0) return new Order(symbol, "HOLD", 0);
 
         String side = "HOLD";
@@ -104,28 +373,28 @@ public class Bot extends TradingTemplate {
                 // High confidence: Use 98% of available USDT (leaving small buffer)
                 side = "BUY";
                 quantity = (lastUsdtBalance * 0.98) / currentPrice;
-                System.out.println(">>> STRONG_BUY: All In! (" + String.format("%.2f", lastUsdtBalance * 0.98) + " USDT)");
+                if (logging) System.out.println(">>> STRONG_BUY: All In! (" + String.format("%.2f", lastUsdtBalance * 0.98) + " USDT)");
                 break;
                 
             case BUY:
                 // Normal confidence: Use 40% of available USDT
                 side = "BUY";
                 quantity = (lastUsdtBalance * 0.40) / currentPrice;
-                System.out.println(">>> BUY: Standard Entry (" + String.format("%.2f", lastUsdtBalance * 0.40) + " USDT)");
+                if (logging) System.out.println(">>> BUY: Standard Entry (" + String.format("%.2f", lastUsdtBalance * 0.40) + " USDT)");
                 break;
 
             case STRONG_SELL:
                 // High risk/crash: Sell ALL BTC immediately
                 side = "SELL";
                 quantity = lastBtcBalance; 
-                System.out.println(">>> STRONG_SELL: Panic Sell (All BTC)");
+                if (logging) System.out.println(">>> STRONG_SELL: Panic Sell (All BTC)");
                 break;
 
             case SELL:
                 // Take profit/weak sell: Sell 50% of BTC holdings
                 side = "SELL";
                 quantity = lastBtcBalance * 0.50;
-                System.out.println(">>> SELL: Take Profit (50% BTC)");
+                if (logging) System.out.println(">>> SELL: Take Profit (50% BTC)");
                 break;
                 
             default:
@@ -134,9 +403,14 @@ public class Bot extends TradingTemplate {
                 break;
         }
         
-        // Filter out dust orders (too small to be accepted by exchange)
-        if (!side.equals("HOLD") && (quantity * currentPrice < 5.0)) { 
-             System.out.println("Order quantity too small (" + String.format("%.2f", quantity * currentPrice) + " USDT). Skipping.");
+        // Filter out dust orders (too small to be accepted by exchange): the symbol's
+        // LOT_SIZE and minimum notional if known, 5 USDT otherwise
+        boolean dust = filters != null
+                ? filters.check(quantity, currentPrice) != null
+                : quantity * currentPrice < 5.0;
+        if (!side.equals("HOLD") && dust) {
+             if (logging) System.out.println("Order quantity too small (" + String.format("%.2f", quantity * currentPrice) + " USDT). Skipping.");
+             if (metricsEnabled) ordersSkippedDust.increment();
              return new Order(symbol, "HOLD", 0);
         }
 
@@ -145,7 +419,7 @@ public class Bot extends TradingTemplate {
 
     /**
      * Executes the order using the Command Pattern.
-     * Dispatches Buy or Sell commands to the OrderReceiver.
+     * Dispatches Buy or Sell commands to the OrderReceiver, through the order executor if one is set.
      * 
      * @param order The order to execute.
      */
@@ -153,8 +427,7 @@ public class Bot extends TradingTemplate {
     protected void executeOrder(Order order) {
         if (order.side.equals("HOLD")) return;
 
-        OrderReceiver receiver = new OrderReceiver();
-        double currentPrice = data.isEmpty() ? 0 : data.get(data.size() - 1).close;
+        double currentPrice = data.lastClose();
 
         OrderCommand command = null;
 
@@ -164,36 +437,107 @@ public class Bot extends TradingTemplate {
             command = new SellCommand(receiver, order, currentPrice);
         }
 
-        if (command != null) {
-            command.execute();
+        if (command == null) return;
+
+        if (streaming()) {
+            events.publish("order", "{\"symbol\":\"" + symbol + "\",\"side\":\"" + order.side
+                    + "\",\"quantity\":" + order.quantity + ",\"price\":" + currentPrice + "}");
+        }
+
+        if (executor == null) {
+            OrderFill fill = null;
+            RuntimeException error = null;
+            try {
+                fill = command.execute();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            applyFill(order, fill, error);
             updateBalance();
+            if (error != null) throw error;
+            return;
+        }
+        // The executor's thread only books the fill (ledger, counters, events); pendingOrder
+        // completes after that, and the bot's thread then refreshes its balance in createOrder()
+        pendingOrder = executor.submit(command).handle((fill, error) -> {
+            applyFill(order, fill, error);
+            return null;
+        });
+    }
+
+    // Books the result of an order into the ledger; may run on the executor's thread
+    private void applyFill(Order order, OrderFill fill, Throwable error) {
+        if (streaming()) publishFill(order, fill, error);
+        if (metricsEnabled) countOutcome(fill, error);
+        if (error instanceof java.util.concurrent.RejectedExecutionException) {
+            // Never left (queue full); nothing changed, and this runs on the price loop's thread
+            System.err.println("Order " + order + " refused: " + error.getMessage());
+            return;
+        }
+        if (error != null) {
+            System.err.println("Order " + order + " failed: " + error.getMessage());
+            // Unknown whether the exchange executed it
+            if (ledger != null) ledger.suspectDrift();
+        } else {
+            if (logging && executor != null) System.out.println(fill);
+            if (ledger != null && fill != null) ledger.apply(fill, baseAsset, QUOTE_ASSET);
+        }
+    }
+
+    // True once the order handed to the executor has been booked (then forgets it)
+    private boolean orderSettled() {
+        if (pendingOrder == null || !pendingOrder.isDone()) return false;
+        pendingOrder = null;
+        return true;
+    }
+
+    private void countOutcome(OrderFill fill, Throwable error) {
+        if (error instanceof java.util.concurrent.RejectedExecutionException) {
+            ordersRefused.increment();
+        } else if (error != null || fill == null) {
+            ordersFailed.increment();
+        } else if (!fill.isFilled()) {
+            ordersRejected.increment();
+        } else if ("FILLED".equals(fill.status)) {
+            ordersFilled.increment();
+        } else {
+            ordersPartial.increment();
         }
     }
 
+    private void publishFill(Order order, OrderFill fill, Throwable error) {
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"symbol\":\"").append(symbol).append("\",\"side\":\"").append(order.side).append('"');
+        if (fill != null) {
+            json.append(",\"status\":").append(services.EventStream.quote(fill.status))
+                .append(",\"orderId\":").append(fill.orderId)
+                .append(",\"executedQty\":").append(fill.executedQty)
+                .append(",\"quoteQty\":").append(fill.quoteQty)
+                .append(",\"error\":").append(services.EventStream.quote(fill.error));
+        } else {
+            json.append(",\"status\":\"FAILED\",\"error\":")
+                .append(services.EventStream.quote(error == null ? null : error.getMessage()));
+        }
+        events.publish("fill", json.append('}').toString());
+    }
+
     @Override
     protected void logResult(Order order) {
+        if (!logging) return;
+
         if (!order.side.equals("HOLD")) {
             System.out.println(order.toString());
             System.out.println(String.format(java.util.Locale.US, "Balance: %.2f USDT | %.5f BTC", lastUsdtBalance, lastBtcBalance));
         }
         
-        double currentPrice = data.isEmpty() ? 0 : data.get(data.size() - 1).close;
-
-        synchronized (services.LockService.fileLock) {
-            try (PrintWriter out = new PrintWriter(new FileWriter("trades.csv", true))) {
-                String timestamp = java.time.LocalDateTime.now().toString();
-                out.println(String.format(java.util.Locale.US, "%s,%s,%s,%s,%.2f,%.2f,%.6f", 
-                    timestamp, 
-                    order.symbol, 
-                    order.side, 
-                    order.quantity,
-                    currentPrice,
-                    lastUsdtBalance, 
-                    lastBtcBalance
-                ));
-            } catch (IOException e) {
-                System.err.println("Error writing to CSV: " + e.getMessage());
-            }
+        // Queued for the journal's writer thread; no file I/O on the trading thread
+        journal().record(order.symbol, order.side, order.quantity, data.lastClose(), lastUsdtBalance, lastBtcBalance);
+        if (streaming()) {
+            // Same fields as an /api/trades row, so the dashboard can append it
+            events.publish("trade", "{\"timestamp\":\"" + java.time.LocalDateTime.now() + "\",\"symbol\":\"" + order.symbol
+                    + "\",\"side\":\"" + order.side + "\",\"quantity\":\"" + order.quantity
+                    + "\",\"price\":" + data.lastClose() + ",\"usdt\":" + lastUsdtBalance
+                    + ",\"btc\":" + lastBtcBalance + "}");
         }
     }
 }
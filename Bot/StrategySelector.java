@@ -1,9 +1,15 @@
 package Bot;
 
 import java.util.List;
+import indicators.Adx;
+import indicators.IndicatorContext;
+import indicators.IndicatorEngine;
+import metrics.Counter;
+import metrics.MetricsRegistry;
 import models.Candle;
 import interfaces.TradingStrategy;
 import TradingStrategies.*;
+import tracing.TickEvents;
 
 public class StrategySelector {
     
@@ -13,13 +19,25 @@ public class StrategySelector {
     private TradingStrategy riskManagementStrategy; // Default/Crash Protection (For uncertainty)
     
     // Market Condition Indicators
-    private AdxStrategy adxAnalyzer;
+    private final int adxPeriod = 14;
+    // Own indicators, used when called without a shared per-tick context
+    private final IndicatorEngine indicators = new IndicatorEngine();
     
     private int cooldown = 0;
     private final int COOLDOWN_PERIOD = 5; // Minimum candles to wait before switching strategy again
     
     // The currently active strategy
     private TradingStrategy currentStrategy;
+
+    // Print strategy switches to the console
+    private boolean logging = true;
+    // Switches per target strategy (strategy_switches_total), looked up once
+    private final Counter toTrend, toMeanReversion, toRiskManagement;
+    private boolean metricsEnabled = true;
+
+    // Strategy switches are published here (with the bot's symbol), if set
+    private services.EventStream events;
+    private String symbol;
     
     public StrategySelector() {
         // Initialize Strategies
@@ -29,8 +47,16 @@ public class StrategySelector {
         
         // Initial Strategy
         this.currentStrategy = this.riskManagementStrategy;
-        
-        this.adxAnalyzer = new AdxStrategy(); 
+
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        this.toTrend = switchCounter(registry, trendStrategy);
+        this.toMeanReversion = switchCounter(registry, meanReversionStrategy);
+        this.toRiskManagement = switchCounter(registry, riskManagementStrategy);
+    }
+
+    private static Counter switchCounter(MetricsRegistry registry, TradingStrategy to) {
+        return registry.counter("strategy_switches_total", "Strategy switches made by the selector, by new strategy",
+                "to", to.getName());
     }
     
     /**
@@ -42,6 +68,32 @@ public class StrategySelector {
      * @return The chosen TradingStrategy.
      */
     public TradingStrategy determineStrategy(List<Candle> candles) {
+        return determineStrategy(candles, indicators.tick(candles));
+    }
+
+    /**
+     * Same as determineStrategy(candles), reading the ADX from the shared per-tick context
+     * (the same instance the ADX strategy and decorators use).
+     *
+     * @param candles The historical price data.
+     * @param context The indicator context of the current tick.
+     * @return The chosen TradingStrategy.
+     */
+    public TradingStrategy determineStrategy(List<Candle> candles, IndicatorContext context) {
+        TickEvents.StrategySelection trace = new TickEvents.StrategySelection();
+        trace.begin();
+        TradingStrategy previous = currentStrategy;
+        TradingStrategy chosen = select(candles, context);
+        if (trace.shouldCommit()) {
+            trace.stamp();
+            trace.strategy = chosen.getName();
+            trace.switched = chosen != previous;
+            trace.commit();
+        }
+        return chosen;
+    }
+
+    private TradingStrategy select(List<Candle> candles, IndicatorContext context) {
         if (candles.size() < 30) return riskManagementStrategy; // Not enough data
         
         if (cooldown > 0) {
@@ -50,7 +102,7 @@ public class StrategySelector {
         }
         
         // Analyze Market Conditions
-        double adxValue = calculateAdxValue(candles);
+        double adxValue = calculateAdxValue(context);
         
         TradingStrategy newStrategy = currentStrategy;
         
@@ -69,7 +121,16 @@ public class StrategySelector {
         
         // Hysteresis / Cooldown
         if (newStrategy != currentStrategy) {
-            System.out.println("SWITCHING STRATEGY: " + currentStrategy.getName() + " -> " + newStrategy.getName() + " (ADX: " + String.format("%.2f", adxValue) + ")");
+            if (logging) System.out.println("SWITCHING STRATEGY: " + currentStrategy.getName() + " -> " + newStrategy.getName() + " (ADX: " + String.format("%.2f", adxValue) + ")");
+            if (events != null && events.hasClients()) {
+                events.publish("strategy", "{\"symbol\":\"" + symbol + "\",\"name\":" + services.EventStream.quote(newStrategy.getName())
+                        + ",\"previous\":" + services.EventStream.quote(currentStrategy.getName())
+                        + ",\"adx\":" + adxValue + ",\"source\":\"selector\"}");
+            }
+            if (metricsEnabled) {
+                (newStrategy == trendStrategy ? toTrend
+                        : newStrategy == meanReversionStrategy ? toMeanReversion : toRiskManagement).increment();
+            }
             currentStrategy = newStrategy;
             cooldown = COOLDOWN_PERIOD;
         }
@@ -77,45 +138,29 @@ public class StrategySelector {
         return currentStrategy;
     }
     
-    // Copying simplified ADX Logic for Selector decision
-    private double calculateAdxValue(List<Candle> data) {
-        int period = 14;
-        if(data.size() < period * 2) return 0;
-        return calculateADX(data, data.size()-1, period);
+    public void setLogging(boolean logging) {
+        this.logging = logging;
+        trendStrategy.setLogging(logging);
+        meanReversionStrategy.setLogging(logging);
+        riskManagementStrategy.setLogging(logging);
     }
-    
-    // Stateless ADX Calculation duplicate (Helper)
-    private double calculateADX(List<Candle> data, int endIndex, int period) {
 
-        double sumTR = 0, sumPlusDM = 0, sumMinusDM = 0;
+    public void setMetricsEnabled(boolean enabled) {
+        this.metricsEnabled = enabled;
+    }
 
-        for (int i = 0; i < period; i++) {
-            int idx = endIndex - i;
-            if (idx <= 0) break;
-            Candle curr = data.get(idx);
-            Candle prev = data.get(idx - 1);
-            
-            double tr1 = curr.high - curr.low;
-            double tr2 = Math.abs(curr.high - prev.close);
-            double tr3 = Math.abs(curr.low - prev.close);
-            double trueRange = Math.max(tr1, Math.max(tr2, tr3));
-            
-            double upMove = curr.high - prev.high;
-            double downMove = prev.low - curr.low;
-            
-            double pdm = 0, mdm = 0;
-            if (upMove > downMove && upMove > 0) pdm = upMove;
-            if (downMove > upMove && downMove > 0) mdm = downMove;
-            
-            sumTR += trueRange;
-            sumPlusDM += pdm;
-            sumMinusDM += mdm;
-        }
-        if (sumTR == 0) sumTR = 1;
-        double smoothedPlusDI = 100 * (sumPlusDM/sumTR);
-        double smoothedMinusDI = 100 * (sumMinusDM/sumTR);
-        double dx = 100 * Math.abs(smoothedPlusDI - smoothedMinusDI) / (smoothedPlusDI + smoothedMinusDI + 0.0001);
-        
-        return dx; 
+    /**
+     * @param events Stream strategy switches are published to, or null.
+     * @param symbol Symbol of the bot this selector chooses for.
+     */
+    public void setEventStream(services.EventStream events, String symbol) {
+        this.events = events;
+        this.symbol = symbol;
+    }
+
+    private double calculateAdxValue(IndicatorContext context) {
+        Adx adx = context.adx(adxPeriod);
+        if (!adx.isReady()) return 0;
+        return adx.value();
     }
 }
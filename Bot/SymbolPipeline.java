@@ -0,0 +1,260 @@
+package Bot;
+
+import java.io.IOException;
+
+import PriceObservers.ObserverMailbox;
+import PriceObservers.PriceListener;
+import PriceObservers.PriceSubject;
+import commands.OrderExecutor;
+import commands.OrderReceiver;
+import interfaces.Observer;
+import models.BarEvent;
+import models.Candle;
+import models.CandleSeries;
+import models.Wallet;
+import services.BinanceService;
+import services.CandlePoller;
+import services.EventStream;
+import storage.CandleArchive;
+
+/**
+ * Everything that trades one symbol/interval: its own candle archive, PriceSubject,
+ * PriceListener and Bot (with its own window, indicators and strategy selector).
+ * Pipelines share nothing but the BinanceService (and the non-blocking EventStream),
+ * so they can run on separate threads.
+ *
+ * With asynchronous dispatch the bot is notified through a mailbox on its own thread
+ * (newest snapshot kept on overflow, closes never dropped), so a bot waiting for a
+ * balance or an order does not hold up the next poll.
+ *
+ * Also keeps per-symbol counters: polls handled, bar closes and close-to-signal lag.
+ */
+public class SymbolPipeline implements CandlePoller.Listener, Observer {
+    private final String symbol;
+    private final String interval;
+    private final long intervalMillis;
+    private final BinanceService binance;
+    private final CandleArchive archive; // Null if the archive could not be opened
+    private final Bot bot;
+    private final PriceSubject subject = new PriceSubject();
+    private ObserverMailbox mailbox; // The bot's mailbox, null with synchronous dispatch (set by create)
+    private final EventStream events = EventStream.getInstance();
+
+    private long lastOpenTime = 0; // Newest bar seen so far
+
+    // Counters (written by the pipeline's thread, read by reporters)
+    private volatile long ticks = 0;
+    private volatile long closes = 0;
+    private volatile long lastLagMillis = -1; // Bar close -> signal evaluated
+    private volatile long maxLagMillis = 0;
+
+    /**
+     * Creates a pipeline that notifies its bot on the polling thread.
+     *
+     * @param wallet The wallet used without API keys (paper trading), or null for the shared one.
+     * @param orders Executes the bot's orders off the polling thread, or null to execute them inline.
+     */
+    public static SymbolPipeline create(String symbol, String interval, BinanceService binance, Wallet wallet,
+                                        OrderExecutor orders) {
+        return create(symbol, interval, binance, wallet, orders, false);
+    }
+
+    /**
+     * @param asyncDispatch True to notify the bot on its own thread (through a mailbox)
+     *                      instead of on the polling thread.
+     */
+    public static SymbolPipeline create(String symbol, String interval, BinanceService binance, Wallet wallet,
+                                        OrderExecutor orders, boolean asyncDispatch) {
+        SymbolPipeline pipeline = new SymbolPipeline(symbol, interval, binance, wallet, orders);
+        // Once constructed: the observers may run on other threads (mailbox) right away
+        pipeline.registerObservers(asyncDispatch);
+        return pipeline;
+    }
+
+    private SymbolPipeline(String symbol, String interval, BinanceService binance, Wallet wallet, OrderExecutor orders) {
+        this.symbol = symbol;
+        this.interval = interval;
+        this.intervalMillis = BinanceService.intervalMillis(interval);
+        this.binance = binance;
+        this.archive = openArchive(symbol, interval);
+
+        OrderReceiver receiver = wallet != null ? new OrderReceiver(wallet) : new OrderReceiver();
+        this.bot = new Bot(symbol, Bot.DEFAULT_WINDOW, receiver, wallet);
+        bot.setOrderExecutor(orders);
+        bot.setEventStream(events);
+
+        // Bars are closed by exchange time
+        subject.setClock(BinanceService::serverTime);
+    }
+
+    private void registerObservers(boolean asyncDispatch) {
+        // Candles for the dashboard first: publishing them never blocks
+        subject.register(this);
+        // The bot, and the close-to-signal lag once it has evaluated a closed bar
+        PriceListener listener = new PriceListener(bot);
+        Observer trader = (candle, event) -> {
+            listener.priceUpdated(candle, event);
+            if (event == BarEvent.BAR_CLOSE) recordClose(candle);
+        };
+        if (asyncDispatch) {
+            this.mailbox = subject.registerAsync(trader, symbol, ObserverMailbox.DEFAULT_CAPACITY,
+                    ObserverMailbox.WaitStrategy.BLOCKING, ObserverMailbox.Overflow.CONFLATE);
+        } else {
+            subject.register(trader);
+        }
+    }
+
+    /**
+     * Fills the bot window before the live loop starts: downloads the closed candles
+     * missing from the archive (at most one window), stores them, and loads the window.
+     */
+    public void backfill() {
+        int window = Bot.DEFAULT_WINDOW;
+        long now = BinanceService.serverTime();
+        long start = now - window * intervalMillis;
+        if (archive != null && !archive.isEmpty()) {
+            // Re-fetch the newest stored bar too: it may have been stored before it closed
+            start = Math.max(start, archive.openTime(archive.size() - 1));
+        }
+
+        long begin = System.nanoTime();
+        // Closed bars only: the forming bar arrives through the live loop
+        CandleSeries missed = binance.getCandles(symbol, interval, start, now - intervalMillis, window);
+        if (archive != null) {
+            archiveCandles(missed);
+            bot.warmUp(archive);
+        } else {
+            bot.warmUp(missed);
+        }
+        System.out.println(String.format(java.util.Locale.US, "%s: backfilled %d candles in %.0f ms",
+                symbol, missed.size(), (System.nanoTime() - begin) / 1e6));
+
+        if (!missed.isEmpty()) {
+            lastOpenTime = missed.lastOpenTime();
+        } else if (archive != null && !archive.isEmpty()) {
+            lastOpenTime = archive.openTime(archive.size() - 1);
+        }
+    }
+
+    @Override
+    public void onCandles(CandlePoller.Subscription subscription, CandleSeries latest) {
+        ticks++;
+        Candle currentCandle = latest.get(latest.size() - 1);
+        System.out.println("Updated candle (" + symbol + "): " + currentCandle);
+
+        // Candles were missed (e.g. network outage): load them before trading on this one
+        long firstOpenTime = latest.openTime(0);
+        if (lastOpenTime > 0 && firstOpenTime > lastOpenTime + intervalMillis) {
+            // From the last bar seen, so its final values replace the stale snapshot
+            fillGap(lastOpenTime, firstOpenTime - 1);
+        }
+        lastOpenTime = Math.max(lastOpenTime, currentCandle.openTime);
+
+        for (int i = 0; i < latest.size(); i++) {
+            Candle candle = latest.get(i);
+            // subject notifies the observers (BAR_UPDATE or BAR_CLOSE)
+            if (subject.publish(candle)) archiveCandle(candle);
+        }
+    }
+
+    @Override
+    public void priceUpdated(Candle candle, BarEvent event) {
+        if (events.hasClients()) publishCandle(candle, event);
+    }
+
+    // Called once the bot has evaluated a closed bar (on the bot's thread)
+    private void recordClose(Candle candle) {
+        closes++;
+        long lag = BinanceService.serverTime() - (candle.closeTime + 1);
+        lastLagMillis = lag;
+        if (lag > maxLagMillis) maxLagMillis = lag;
+    }
+
+    private void publishCandle(Candle candle, BarEvent event) {
+        events.publish("candle", "{\"symbol\":\"" + symbol + "\",\"interval\":\"" + interval
+                + "\",\"openTime\":" + candle.openTime + ",\"open\":" + candle.open + ",\"high\":" + candle.high
+                + ",\"low\":" + candle.low + ",\"close\":" + candle.close + ",\"volume\":" + candle.volume
+                + ",\"closed\":" + (event == BarEvent.BAR_CLOSE) + "}");
+    }
+
+    // Loads candles opened in [from, to] into the archive and the bot window, without trading on them
+    private void fillGap(long from, long to) {
+        int window = Bot.DEFAULT_WINDOW;
+        from = Math.max(from, to - window * intervalMillis);
+        CandleSeries missed = binance.getCandles(symbol, interval, from, to, window);
+        archiveCandles(missed);
+        // The bot's thread must be done with queued candles before its window is changed here
+        if (mailbox != null) mailbox.awaitIdle();
+        bot.warmUp(missed);
+        System.out.println(symbol + ": filled gap of " + missed.size() + " candles");
+    }
+
+    // Opens (or creates) data/<symbol>-<interval>.candles; the bot still runs without it
+    private static CandleArchive openArchive(String symbol, String interval) {
+        try {
+            return CandleArchive.openForAppend(CandleArchive.defaultPath(symbol, interval), symbol, interval);
+        } catch (IOException e) {
+            System.err.println("Candle archive unavailable for " + symbol + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void archiveCandle(Candle candle) {
+        if (archive == null) return;
+        try {
+            archive.append(candle);
+        } catch (IOException e) {
+            System.err.println("Error writing candle archive: " + e.getMessage());
+        }
+    }
+
+    private void archiveCandles(CandleSeries candles) {
+        if (archive == null) return;
+        try {
+            archive.appendAll(candles);
+        } catch (IOException e) {
+            System.err.println("Error writing candle archive: " + e.getMessage());
+        }
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getInterval() {
+        return interval;
+    }
+
+    public Bot getBot() {
+        return bot;
+    }
+
+    /**
+     * @return The bot's mailbox, or null with synchronous dispatch.
+     */
+    public ObserverMailbox getMailbox() {
+        return mailbox;
+    }
+
+    /**
+     * @return Polls handled so far.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getCloses() {
+        return closes;
+    }
+
+    /**
+     * @return Time from the last bar close until its signal was evaluated, or -1 if none yet.
+     */
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+}
@@ -0,0 +1,251 @@
+package Bot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import PriceObservers.ObserverMailbox;
+import commands.OrderExecutor;
+import indicators.IndicatorEngine;
+import metrics.MetricsRegistry;
+import models.SymbolFilters;
+import models.Wallet;
+import services.BalanceLedger;
+import services.BinanceConfig;
+import services.BinanceService;
+import services.CandlePoller;
+import services.EventStream;
+import storage.TradeJournal;
+
+/**
+ * Runs one SymbolPipeline per configured symbol from a single JVM.
+ *
+ * A single scheduler thread keeps the close-aligned polling schedule of every
+ * symbol; each poll (HTTP call, parsing, strategy evaluation) runs on its own virtual
+ * thread, so hundreds of symbols closing at the same boundary are processed in
+ * parallel across cores. Polls of one symbol never overlap, so each pipeline is
+ * only ever touched by one thread at a time.
+ *
+ * By default each bot is notified through its own mailbox (asynchronous dispatch):
+ * the poll hands the candle over and is done, and the bot evaluates it on its own
+ * thread, one candle at a time.
+ *
+ * Orders go to a shared OrderExecutor, so a slow exchange delays fills but not
+ * the polling of any symbol. With API keys, all bots book their fills into one
+ * BalanceLedger, which re-reads the account in the background only when due.
+ */
+public class TradingRuntime {
+    public static final String DEFAULT_INTERVAL = "15m";
+    private static final long REPORT_SECONDS = 60;
+    private static final long LEDGER_CHECK_SECONDS = 10;
+
+    private final BinanceService binance;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final CandlePoller poller;
+    private final OrderExecutor orders = new OrderExecutor();
+    private final BalanceLedger ledger; // Null when paper trading
+    private final List<SymbolPipeline> pipelines = new CopyOnWriteArrayList<>();
+    private boolean asyncDispatch = true;
+
+    // Tick counts at the previous report, for the tick rate
+    private final Map<SymbolPipeline, Long> reportedTicks = new HashMap<>();
+    private long reportedAt = System.nanoTime();
+
+    public TradingRuntime(BinanceService binance) {
+        this.binance = binance;
+        this.poller = new CandlePoller(scheduler, workers, binance);
+        this.ledger = BinanceConfig.isConfigured() ? new BalanceLedger(binance) : null;
+    }
+
+    /**
+     * @param asyncDispatch True (default) to run each bot on its own mailbox thread, false to
+     *                      evaluate on the polling thread. Takes effect for pipelines created by start().
+     */
+    public void setAsyncDispatch(boolean asyncDispatch) {
+        this.asyncDispatch = asyncDispatch;
+    }
+
+    /**
+     * Reads the symbol list: one "SYMBOL [interval]" per line, '#' starts a comment.
+     * Symbols without an interval use DEFAULT_INTERVAL.
+     *
+     * @return Interval per symbol, in file order.
+     */
+    public static Map<String, String> loadSymbols(Path path) throws IOException {
+        Map<String, String> symbols = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(path)) {
+            int comment = line.indexOf('#');
+            if (comment != -1) line = line.substring(0, comment);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            String[] parts = line.split("\\s+");
+            symbols.put(parts[0].toUpperCase(Locale.ROOT), parts.length > 1 ? parts[1] : DEFAULT_INTERVAL);
+        }
+        return symbols;
+    }
+
+    /**
+     * Creates the pipelines, backfills them in parallel and starts polling.
+     *
+     * @param symbols Interval per symbol.
+     */
+    public void start(Map<String, String> symbols) {
+        // Paper trading: several symbols cannot share one BTC wallet, so each gets its own
+        boolean ownWallets = !BinanceConfig.isConfigured() && symbols.size() > 1;
+        // LOT_SIZE and minimum notional of every symbol in one exchangeInfo request
+        Map<String, SymbolFilters> filters = binance.loadSymbolFilters(symbols.keySet());
+
+        for (Map.Entry<String, String> entry : symbols.entrySet()) {
+            Wallet wallet = ownWallets ? new Wallet(1000.0, 0.0) : null;
+            SymbolPipeline pipeline = SymbolPipeline.create(entry.getKey(), entry.getValue(), binance, wallet, orders,
+                    asyncDispatch);
+            pipeline.getBot().setBalanceLedger(ledger);
+            pipeline.getBot().setSymbolFilters(filters.get(entry.getKey()));
+            pipelines.add(pipeline);
+        }
+        if (ledger != null) {
+            // One account read for all symbols before trading; later only when due or drifted
+            ledger.resync();
+            scheduler.scheduleWithFixedDelay(() -> workers.execute(ledger::resyncIfNeeded),
+                    LEDGER_CHECK_SECONDS, LEDGER_CHECK_SECONDS, TimeUnit.SECONDS);
+        }
+
+        long begin = System.nanoTime();
+        List<Future<?>> backfills = new ArrayList<>();
+        for (SymbolPipeline pipeline : pipelines) {
+            backfills.add(workers.submit(pipeline::backfill));
+        }
+        for (Future<?> backfill : backfills) {
+            try {
+                backfill.get();
+            } catch (Exception e) {
+                System.err.println("Backfill failed: " + e.getMessage());
+            }
+        }
+        System.out.println(String.format(Locale.US, "Backfilled %d symbols in %.0f ms",
+                pipelines.size(), (System.nanoTime() - begin) / 1e6));
+
+        for (SymbolPipeline pipeline : pipelines) {
+            poller.subscribe(pipeline.getSymbol(), pipeline.getInterval(), pipeline);
+        }
+        scheduler.scheduleAtFixedRate(this::report, REPORT_SECONDS, REPORT_SECONDS, TimeUnit.SECONDS);
+        registerGauges();
+    }
+
+    // Queue depths and totals the components already count, read when /api/metrics is scraped
+    private void registerGauges() {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.gauge("runtime_symbols", "Symbols traded by this runtime", pipelines::size);
+        registry.gauge("order_queue_depth", "Orders waiting for an executor worker", orders::getQueueDepth);
+        registry.gauge("order_ack_max_seconds", "Slowest order acknowledgement so far",
+                () -> orders.getMaxAckMillis() / 1000);
+        TradeJournal journal = TradeJournal.getInstance();
+        registry.gauge("journal_queue_depth", "Journal rows waiting for the writer", journal::getQueueDepth);
+        registry.gauge("journal_dropped_rows", "Journal rows dropped because the ring was full", journal::getDropped);
+        registry.gauge("indicator_cache_hits", "Indicator lookups served from the per-tick cache",
+                IndicatorEngine::getTotalHits);
+        registry.gauge("indicator_cache_misses", "Indicator lookups that had to sync the indicator",
+                IndicatorEngine::getTotalMisses);
+        EventStream events = EventStream.getInstance();
+        registry.gauge("stream_clients", "Connected /api/stream clients", events::getClientCount);
+        registry.gauge("stream_dropped_events", "Events dropped for slow stream clients", events::getDropped);
+        if (ledger != null) {
+            registry.gauge("balance_resyncs", "Account re-reads of the balance ledger", ledger::getResyncs);
+            registry.gauge("balance_drift_events", "Ledger balances found off from the exchange", ledger::getDriftEvents);
+        }
+        for (SymbolPipeline pipeline : pipelines) {
+            registry.gauge("close_to_signal_lag_seconds", "Time from the last bar close until its signal was evaluated",
+                    () -> pipeline.getLastLagMillis() / 1000.0, "symbol", pipeline.getSymbol());
+            ObserverMailbox mailbox = pipeline.getMailbox();
+            if (mailbox == null) continue;
+            registry.gauge("bot_mailbox_depth", "Candles waiting for the bot's thread", mailbox::getDepth,
+                    "symbol", pipeline.getSymbol());
+            registry.gauge("bot_mailbox_conflated", "Candle snapshots replaced by a newer one before the bot saw them",
+                    mailbox::getConflated, "symbol", pipeline.getSymbol());
+        }
+    }
+
+    public List<SymbolPipeline> getPipelines() {
+        return pipelines;
+    }
+
+    public CandlePoller getPoller() {
+        return poller;
+    }
+
+    public OrderExecutor getOrderExecutor() {
+        return orders;
+    }
+
+    /**
+     * @return The shared balance ledger, or null when paper trading.
+     */
+    public BalanceLedger getBalanceLedger() {
+        return ledger;
+    }
+
+    // Prints tick rate and close-to-signal lag: totals plus the slowest symbols
+    private void report() {
+        long now = System.nanoTime();
+        double seconds = (now - reportedAt) / 1e9;
+        reportedAt = now;
+
+        long ticks = 0;
+        List<SymbolPipeline> byLag = new ArrayList<>(pipelines);
+        for (SymbolPipeline pipeline : pipelines) {
+            long total = pipeline.getTicks();
+            Long previous = reportedTicks.put(pipeline, total);
+            ticks += total - (previous == null ? 0 : previous);
+        }
+        byLag.sort((a, b) -> Long.compare(b.getLastLagMillis(), a.getLastLagMillis()));
+
+        StringBuilder line = new StringBuilder(String.format(Locale.US,
+                "Runtime: %d symbols, %.2f ticks/s", pipelines.size(), ticks / seconds));
+        for (int i = 0; i < Math.min(3, byLag.size()); i++) {
+            SymbolPipeline pipeline = byLag.get(i);
+            if (pipeline.getLastLagMillis() < 0) break;
+            line.append(String.format(Locale.US, "%s %s lag=%dms (max %dms)",
+                    i == 0 ? " | slowest:" : ",", pipeline.getSymbol(),
+                    pipeline.getLastLagMillis(), pipeline.getMaxLagMillis()));
+        }
+        if (orders.getSubmitted() > 0 || orders.getRefused() > 0) {
+            line.append(String.format(Locale.US, " | orders: %d queued, %d done, %d refused, ack avg %.0fms (max %.0fms)",
+                    orders.getQueueDepth(), orders.getCompleted(), orders.getRefused(),
+                    orders.getAverageAckMillis(), orders.getMaxAckMillis()));
+        }
+        if (ledger != null) {
+            line.append(String.format(Locale.US, " | balances: %d resyncs, %d drifts",
+                    ledger.getResyncs(), ledger.getDriftEvents()));
+        }
+        long queued = 0, conflated = 0;
+        for (SymbolPipeline pipeline : pipelines) {
+            ObserverMailbox mailbox = pipeline.getMailbox();
+            if (mailbox == null) continue;
+            queued += mailbox.getDepth();
+            conflated += mailbox.getConflated();
+        }
+        if (queued > 0 || conflated > 0) {
+            line.append(String.format(Locale.US, " | bot mailboxes: %d queued, %d conflated", queued, conflated));
+        }
+        EventStream events = EventStream.getInstance();
+        if (events.getClientCount() > 0 || events.getDropped() > 0) {
+            line.append(String.format(Locale.US, " | stream: %d clients, %d events, %d dropped",
+                    events.getClientCount(), events.getPublished(), events.getDropped()));
+        }
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,371 @@
+package PriceObservers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import interfaces.Observer;
+import models.BarEvent;
+import models.Candle;
+import tracing.Tick;
+
+/**
+ * Delivers a subject's notifications to one observer on the observer's own thread.
+ *
+ * The subject's thread only copies the candle into the next slot of a preallocated
+ * ring (one producer, one consumer, in the style of the LMAX disruptor) and moves on;
+ * the mailbox's consumer thread calls the observer. So a slow observer (e.g. a bot
+ * waiting for a balance) delays neither the other observers nor the next poll, and
+ * notifying N observers costs N slot copies, with no locks and no allocation.
+ *
+ * Overflow, when the observer is a full ring behind:
+ * - BLOCK: the notifying thread waits for a free slot.
+ * - DROP: the notification is discarded (and counted). For sinks that may miss candles.
+ * - CONFLATE: the notification goes to a single overflow slot that keeps only the
+ *   newest candle, delivered after the ring. A BAR_UPDATE replaces the pending one;
+ *   a BAR_CLOSE is never replaced, the notifying thread waits for it to be taken.
+ *
+ * The wait strategy decides how the consumer waits for notifications (and a BLOCK
+ * producer for space): BLOCKING parks on a lock (cheapest, a few µs to wake up),
+ * SLEEPING spins, yields and then sleeps briefly, YIELDING spins and yields, BUSY_SPIN
+ * burns a core for the lowest latency. BLOCKING consumers run on virtual threads, the
+ * others on platform threads of their own.
+ *
+ * One thread at a time may notify a mailbox (as PriceSubject does). The candle passed
+ * to the observer lives in the ring: it is valid during the call and must be copied
+ * if kept. Notifications carry the tick id (see Tick) to the consumer's thread.
+ */
+public class ObserverMailbox implements Observer, AutoCloseable {
+
+    public enum WaitStrategy { BLOCKING, SLEEPING, YIELDING, BUSY_SPIN }
+
+    public enum Overflow { BLOCK, DROP, CONFLATE }
+
+    public static final int DEFAULT_CAPACITY = 64;
+    private static final int SPIN_TRIES = 100;
+    private static final long SLEEP_NANOS = 100_000;   // SLEEPING: 0.1 ms naps once spinning did not help
+    private static final long IDLE_POLL_NANOS = 1_000_000;
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    // One notification; reused for the lifetime of the mailbox
+    private static final class Slot {
+        final Candle candle = new Candle(0, 0, 0, 0, 0, 0, 0);
+        BarEvent event;
+        long tickId;
+        String symbol;
+
+        void fill(Candle from, BarEvent event) {
+            candle.openTime = from.openTime;
+            candle.open = from.open;
+            candle.high = from.high;
+            candle.low = from.low;
+            candle.close = from.close;
+            candle.volume = from.volume;
+            candle.closeTime = from.closeTime;
+            this.event = event;
+            this.tickId = Tick.id();
+            this.symbol = Tick.symbol();
+        }
+
+        void copyTo(Slot into) {
+            into.fill(candle, event);
+            into.tickId = tickId;
+            into.symbol = symbol;
+        }
+    }
+
+    private final Observer observer;
+    private final String name;
+    private final WaitStrategy waitStrategy;
+    private final Overflow overflow;
+    private final Slot[] ring;
+    private final int mask;
+    private final Thread consumer;
+
+    private volatile long cursor = 0;   // Slots published (producer)
+    private volatile long consumed = 0; // Slots delivered and free again (consumer)
+
+    // CONFLATE overflow slot, guarded by lock; 'conflating' is set while it holds a notification
+    private final Slot latest = new Slot();
+    private final Slot taken = new Slot(); // Consumer's copy of 'latest'
+    private volatile boolean conflating = false;
+
+    // BLOCKING waits
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private volatile boolean consumerWaiting = false;
+    private volatile boolean producerWaiting = false;
+
+    private volatile boolean running = true;
+
+    // Counters
+    private volatile long accepted = 0;  // Notifications that will be delivered (producer)
+    private volatile long delivered = 0; // Notifications delivered (consumer)
+    private volatile long dropped = 0;
+    private volatile long conflated = 0; // Snapshots replaced by a newer one before delivery
+
+    /**
+     * @param observer Receives the notifications on the mailbox's thread.
+     * @param name Used for the thread name and metrics labels.
+     * @param capacity Notifications buffered (rounded up to a power of two).
+     */
+    public ObserverMailbox(Observer observer, String name, int capacity, WaitStrategy waitStrategy, Overflow overflow) {
+        this.observer = observer;
+        this.name = name;
+        this.waitStrategy = waitStrategy;
+        this.overflow = overflow;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) ring[i] = new Slot();
+
+        String threadName = "mailbox-" + name + "-" + NEXT_ID.incrementAndGet();
+        Thread.Builder builder = waitStrategy == WaitStrategy.BLOCKING
+                ? Thread.ofVirtual().name(threadName)
+                : Thread.ofPlatform().name(threadName).daemon(true);
+        // Started once assigned: the consumer's own waits read the field
+        this.consumer = builder.unstarted(this::consume);
+        consumer.start();
+    }
+
+    /**
+     * Queues the notification for the observer. Returns at once, except for the BLOCK
+     * policy on a full ring and CONFLATE behind an undelivered BAR_CLOSE.
+     */
+    @Override
+    public void priceUpdated(Candle candle, BarEvent event) {
+        if (!running) return;
+        if (!conflating && tryPublish(candle, event)) return;
+
+        switch (overflow) {
+            case DROP:
+                dropped++;
+                break;
+            case BLOCK:
+                int spins = 0;
+                while (!tryPublish(candle, event)) {
+                    if (!running) return; // Closed, or the consumer is gone
+                    awaitSpace(false, spins++);
+                }
+                break;
+            case CONFLATE:
+                conflate(candle, event);
+                break;
+        }
+    }
+
+    // Copies the notification into the next free slot; false if the ring is full
+    private boolean tryPublish(Candle candle, BarEvent event) {
+        long sequence = cursor;
+        if (sequence - consumed >= ring.length) return false;
+        ring[(int) (sequence & mask)].fill(candle, event);
+        accepted++;
+        cursor = sequence + 1;
+        if (consumerWaiting) signal(notEmpty);
+        return true;
+    }
+
+    private void conflate(Candle candle, BarEvent event) {
+        int spins = 0;
+        while (running) {
+            lock.lock();
+            try {
+                if (!conflating) {
+                    // The consumer may have caught up in the meantime
+                    if (tryPublish(candle, event)) return;
+                    latest.fill(candle, event);
+                    accepted++;
+                    conflating = true;
+                    notEmpty.signal();
+                    return;
+                }
+                if (latest.event != BarEvent.BAR_CLOSE) {
+                    latest.fill(candle, event);
+                    conflated++;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // A close is pending: never replaced, wait until the consumer has taken it
+            awaitSpace(true, spins++);
+        }
+    }
+
+    private void consume() {
+        long next = 0;
+        int spins = 0;
+        try {
+            while (true) {
+                long available = cursor;
+                if (next < available) {
+                    do {
+                        deliver(ring[(int) (next & mask)]);
+                        consumed = ++next;
+                    } while (next < available);
+                    if (producerWaiting) signal(notFull);
+                    spins = 0;
+                    continue;
+                }
+                if (conflating && takeLatest(next)) {
+                    deliver(taken);
+                    if (producerWaiting) signal(notFull);
+                    spins = 0;
+                    continue;
+                }
+                if (!running) return;
+                awaitWork(next, spins++);
+            }
+        } finally {
+            // However the consumer ends, a producer waiting for space must not wait forever
+            running = false;
+            signal(notFull);
+        }
+    }
+
+    // Copies the overflow slot once the ring slots published before it are delivered
+    private boolean takeLatest(long next) {
+        lock.lock();
+        try {
+            // Set after the ring was filled: if the ring looked empty before, read it again
+            if (cursor != next || !conflating) return false;
+            latest.copyTo(taken);
+            conflating = false;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deliver(Slot slot) {
+        Tick.resume(slot.tickId, slot.symbol);
+        try {
+            observer.priceUpdated(slot.candle, slot.event);
+        } catch (Throwable e) {
+            // Errors too: the consumer thread must outlive a failing observer
+            System.err.println("Observer " + name + " failed: " + e);
+        } finally {
+            Tick.end();
+            delivered++;
+        }
+    }
+
+    // Consumer: waits for a notification
+    private void awaitWork(long next, int spins) {
+        if (waitStrategy != WaitStrategy.BLOCKING) {
+            pause(spins);
+            return;
+        }
+        lock.lock();
+        try {
+            consumerWaiting = true;
+            while (running && cursor == next && !conflating) notEmpty.await();
+        } catch (InterruptedException e) {
+            running = false;
+        } finally {
+            consumerWaiting = false;
+            lock.unlock();
+        }
+    }
+
+    // Producer: waits for a free slot, or for the pending close to be taken
+    private void awaitSpace(boolean close, int spins) {
+        if (!consumer.isAlive()) {
+            running = false; // Nobody will free a slot
+            return;
+        }
+        if (waitStrategy != WaitStrategy.BLOCKING) {
+            pause(spins);
+            return;
+        }
+        lock.lock();
+        try {
+            producerWaiting = true;
+            // Timed, so a consumer that died without signalling is noticed
+            while (running && consumer.isAlive() && (close ? conflating : cursor - consumed >= ring.length)) {
+                notFull.awaitNanos(IDLE_POLL_NANOS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        } finally {
+            producerWaiting = false;
+            lock.unlock();
+        }
+    }
+
+    // One step of a non-blocking wait; 'spins' counts the steps taken so far
+    private void pause(int spins) {
+        if (waitStrategy == WaitStrategy.BUSY_SPIN || spins < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (waitStrategy == WaitStrategy.YIELDING || spins < 2 * SPIN_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(SLEEP_NANOS);
+        }
+    }
+
+    private void signal(Condition condition) {
+        lock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the observer has handled every queued notification, e.g. before the
+     * notifying thread touches the observer's state itself. Call from the notifying thread.
+     */
+    public void awaitIdle() {
+        while (running && delivered != accepted && consumer.isAlive()) {
+            LockSupport.parkNanos(IDLE_POLL_NANOS);
+        }
+    }
+
+    /**
+     * Stops accepting notifications; the queued ones are still delivered.
+     */
+    @Override
+    public void close() {
+        running = false;
+        signal(notEmpty);
+        signal(notFull);
+    }
+
+    public Observer getObserver() {
+        return observer;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Notifications queued but not delivered yet.
+     */
+    public long getDepth() {
+        return Math.max(0, accepted - delivered);
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * @return Notifications discarded by the DROP policy.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * @return Snapshots replaced by a newer candle before delivery (CONFLATE policy).
+     */
+    public long getConflated() {
+        return conflated;
+    }
+}
@@ -1,14 +1,39 @@
 package PriceObservers;
 
 import interfaces.*;
+import models.BarEvent;
 import models.Candle;
 import Bot.Bot;
 
 public class PriceListener implements Observer{
-    Bot bot = new Bot();
+    Bot bot;
+    // Run the strategies on every snapshot of the forming bar, not only on closes
+    private boolean evaluateOnUpdate = false;
+
+    public PriceListener() {
+        this(new Bot());
+    }
+
+    public PriceListener(Bot bot) {
+        this.bot = bot;
+    }
+
+    /**
+     * @param evaluateOnUpdate True to trade on intra-bar updates too (e.g. crash protection),
+     *                         false to evaluate strategies on bar closes only.
+     */
+    public void setEvaluateOnUpdate(boolean evaluateOnUpdate) {
+        this.evaluateOnUpdate = evaluateOnUpdate;
+    }
+
     @Override
-    public void priceUpdated(Candle candle) {
-        bot.trade(candle);
+    public void priceUpdated(Candle candle, BarEvent event) {
+        if (event == BarEvent.BAR_CLOSE || evaluateOnUpdate) {
+            bot.trade(candle);
+        } else {
+            // Keep the window current without running the strategies
+            bot.update(candle);
+        }
     }
     
 }
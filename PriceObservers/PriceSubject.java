@@ -1,40 +1,166 @@
 package PriceObservers;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
 
 import interfaces.Observer;
+import metrics.Counter;
+import metrics.MetricsRegistry;
 import interfaces.Subject;
-import models.Price;
+import models.BarEvent;
+import models.Candle;
+import tracing.TickEvents;
 
+/**
+ * Candle feed of one symbol/interval.
+ * Polled candles are matched to their bar by openTime: a snapshot of the bar that is
+ * still forming is published as BAR_UPDATE, and each bar is published once as
+ * BAR_CLOSE when it closes. Repeated or out-of-date candles are dropped.
+ *
+ * Observers are called on the publishing thread, in registration order, unless they
+ * are registered with registerAsync(): then they get their own mailbox and thread,
+ * and a slow one no longer holds up the others (see ObserverMailbox).
+ * The observer list is copied on write, so observers can be registered and removed
+ * from any thread, also while a notification is running.
+ */
 public class PriceSubject implements Subject{
-    List<Observer> observers = new ArrayList<>();
+    private volatile Observer[] observers = new Observer[0];
     models.Candle candle;
+    BarEvent event = BarEvent.BAR_UPDATE;
+
+    // Newest bar seen so far and the last bar published as closed
+    private final Candle current = new Candle(0, 0, 0, 0, 0, 0, 0);
+    private boolean hasCurrent = false;
+    private long closedOpenTime = Long.MIN_VALUE;
+    // Exchange time, used to tell whether a bar has closed
+    private LongSupplier clock = System::currentTimeMillis;
+
+    // Notifications sent, per BarEvent (shared by all subjects)
+    private static final Counter[] NOTIFICATIONS = new Counter[BarEvent.values().length];
+    static {
+        for (BarEvent event : BarEvent.values()) {
+            NOTIFICATIONS[event.ordinal()] = MetricsRegistry.getInstance().counter("price_notifications_total",
+                    "Candles delivered to observers, by bar event", "event", event.name());
+        }
+    }
     
     @Override
-    public void register(Observer o) {
-        observers.add(o);
+    public synchronized void register(Observer o) {
+        Observer[] current = observers;
+        Observer[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = o;
+        observers = updated;
         System.out.println("Observer added succesfully");
     }
 
+    /**
+     * Registers an observer that is notified on its own thread, through a mailbox.
+     *
+     * @param name Names the mailbox's thread and metrics.
+     * @param capacity Notifications the mailbox buffers (ObserverMailbox.DEFAULT_CAPACITY).
+     * @return The mailbox (exposes its depth and drop counters).
+     */
+    public ObserverMailbox registerAsync(Observer o, String name, int capacity,
+                                         ObserverMailbox.WaitStrategy waitStrategy, ObserverMailbox.Overflow overflow) {
+        ObserverMailbox mailbox = new ObserverMailbox(o, name, capacity, waitStrategy, overflow);
+        register(mailbox);
+        return mailbox;
+    }
+
+    /**
+     * Removes an observer (registered directly or through registerAsync, whose mailbox is closed).
+     */
     @Override
-    public void remove(Observer o) {
-        if(observers.remove(o)){
-            System.out.println("Observer removed succesfully");
-        }else{
-            System.out.println("Observer couldn'd removed!!");
+    public synchronized void remove(Observer o) {
+        Observer[] current = observers;
+        for (int i = 0; i < current.length; i++) {
+            Observer registered = current[i];
+            ObserverMailbox mailbox = registered instanceof ObserverMailbox ? (ObserverMailbox) registered : null;
+            if (registered == o || (mailbox != null && mailbox.getObserver() == o)) {
+                Observer[] updated = new Observer[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                observers = updated;
+                if (mailbox != null) mailbox.close();
+                System.out.println("Observer removed succesfully");
+                return;
+            }
         }
+        System.out.println("Observer couldn'd removed!!");
     }
 
     @Override
     public void notifyObservers() {
-        for(int i = 0; i <observers.size(); i++){
-            observers.get(i).priceUpdated(candle);
+        TickEvents.ObserverDispatch dispatch = new TickEvents.ObserverDispatch();
+        dispatch.begin();
+        // The observers at the start of this notification; registrations apply to the next one
+        Observer[] current = observers;
+        for (Observer observer : current) {
+            observer.priceUpdated(candle, event);
         }
-        System.out.println("Observers Notified!!");
+        if (dispatch.shouldCommit()) {
+            dispatch.stamp();
+            dispatch.barEvent = event.name();
+            dispatch.observers = current.length;
+            dispatch.commit();
+        }
+        NOTIFICATIONS[event.ordinal()].increment();
     }
     public void setPrice(models.Candle candle){
+        setPrice(candle, BarEvent.BAR_UPDATE);
+    }
+
+    public void setPrice(models.Candle candle, BarEvent event){
         this.candle = candle;
+        this.event = event;
+    }
+
+    /**
+     * @param clock Source of the current exchange time in ms (e.g. local time plus the server offset).
+     */
+    public void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Publishes a polled candle with the matching event.
+     * If a newer bar shows up before the previous one was seen closed, the last snapshot
+     * of the previous bar is published as BAR_CLOSE first.
+     *
+     * @param candle The candle as returned by the exchange.
+     * @return False if the candle was dropped (older bar, or a bar already closed).
+     */
+    public boolean publish(Candle candle) {
+        if (hasCurrent && candle.openTime < current.openTime) return false;
+
+        if (hasCurrent && candle.openTime > current.openTime && closedOpenTime != current.openTime) {
+            closedOpenTime = current.openTime;
+            setPrice(copy(current, new Candle(0, 0, 0, 0, 0, 0, 0)), BarEvent.BAR_CLOSE);
+            notifyObservers();
+        }
+        if (candle.openTime == closedOpenTime) return false;
+
+        copy(candle, current);
+        hasCurrent = true;
+
+        if (clock.getAsLong() > candle.closeTime) {
+            closedOpenTime = candle.openTime;
+            setPrice(candle, BarEvent.BAR_CLOSE);
+        } else {
+            setPrice(candle, BarEvent.BAR_UPDATE);
+        }
+        notifyObservers();
+        return true;
+    }
+
+    private static Candle copy(Candle from, Candle into) {
+        into.openTime = from.openTime;
+        into.open = from.open;
+        into.high = from.high;
+        into.low = from.low;
+        into.close = from.close;
+        into.volume = from.volume;
+        into.closeTime = from.closeTime;
+        return into;
     }
-    
 }
@@ -1,9 +1,13 @@
 import Bot.BotConfig;
-import PriceObservers.PriceListener;
-import PriceObservers.PriceSubject;
+import Bot.TradingRuntime;
 
 import TradingStrategies.TrendFollowing;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class Program {
     public static void main(String[] args) {
         //initializing the tradebot
@@ -15,14 +19,9 @@ public class Program {
             0.01 
         );
 
-        //init the subject
-        PriceSubject subject = new PriceSubject();
-
-        //init the observer
-        PriceListener observer = new PriceListener();
-
-        //register observer to subject
-        subject.register(observer);
+        // Symbols to trade: "SYMBOL [interval]" per line (default: BTCUSDT on 15m)
+        Path symbolFile = Path.of(args.length > 0 ? args[0] : "symbols.txt");
+        Map<String, String> symbols = loadSymbols(symbolFile);
 
         // Initialize API Service
         services.ApiService apiService = new services.ApiService();
@@ -30,34 +29,28 @@ public class Program {
 
         // Initialize Binance Service
         services.BinanceService binanceService = new services.BinanceService();
-        String symbol = "BTCUSDT";
-
-        System.out.println("Starting Trading Bot with Binance Data (" + symbol + ")...");
+        // Open the keep-alive connection before the first tick
+        binanceService.warmUp();
 
-        // Real-time data loop
-        while(true){
-            // Fetch new candle from Binance
-            models.Candle currentCandle = binanceService.getCandle(symbol, "15m");
+        System.out.println("Starting Trading Bot with Binance Data (" + String.join(", ", symbols.keySet()) + ")...");
 
-            if (currentCandle != null) {
-                System.out.println("Updated candle (" + symbol + "): " + currentCandle);
-                subject.setPrice(currentCandle);
+        // One pipeline (archive, subject, listener, bot) per symbol; polled right after each
+        // candle close on virtual threads. The runtime's threads keep the JVM alive.
+        TradingRuntime runtime = new TradingRuntime(binanceService);
+        runtime.start(symbols);
+    }    
 
-                // subject notify the observers 
-                subject.notifyObservers();
-            } else {
-                System.out.println("Failed to fetch candle.");
+    private static Map<String, String> loadSymbols(Path path) {
+        if (Files.exists(path)) {
+            try {
+                Map<String, String> symbols = TradingRuntime.loadSymbols(path);
+                if (!symbols.isEmpty()) return symbols;
+            } catch (java.io.IOException e) {
+                System.err.println("Error reading " + path + ": " + e.getMessage());
             }
-
-            // one second wait API limit safe
-            waitOneSecond();
-        }
-    }    
-    public static void waitOneSecond(){
-        try {
-            Thread.sleep(1000); // 1000 ms = 1 second
-        } catch (InterruptedException e) {
-            e.printStackTrace();
         }
+        Map<String, String> symbols = new LinkedHashMap<>();
+        symbols.put("BTCUSDT", TradingRuntime.DEFAULT_INTERVAL);
+        return symbols;
     }
 }
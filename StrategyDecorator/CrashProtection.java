@@ -1,6 +1,8 @@
 package StrategyDecorator;
 
 import java.util.List;
+import indicators.IndicatorContext;
+import indicators.Rsi;
 import interfaces.TradingStrategy;
 import models.Candle;
 import models.Signal;
@@ -19,9 +21,9 @@ public class CrashProtection extends StrategyDecorator {
     }
 
     @Override
-    public Signal generateSignal(List<Candle> candles) {
+    public Signal generateSignal(List<Candle> candles, IndicatorContext context) {
         if (candles.size() < 15) {
-            return wrappedStrategy.generateSignal(candles);
+            return wrappedStrategy.generateSignal(candles, context);
         }
 
         Candle current = candles.get(candles.size() - 1);
@@ -29,37 +31,20 @@ public class CrashProtection extends StrategyDecorator {
         Candle old = candles.get(candles.size() - lookback);
 
         double change = (current.close - old.close) / old.close;
-        double rsi = calculateRSI(candles, 14);
+        Rsi rsi14 = context.rsi(14);
+        double rsi = rsi14.isReady() ? rsi14.value() : 50;
 
         if (change < -dropThreshold) {
             if (rsi < 25) {
-                System.out.println("CRASH PROTECTION: Drop but RSI Oversold. HOLDING.");
+                if (logging) System.out.println("CRASH PROTECTION: Drop but RSI Oversold. HOLDING.");
                 return Signal.HOLD; 
             }
             
             // If there is a drop and RSI is not oversold -> PANIC SELL!
-            System.out.println("CRASH PROTECTION ENABLED: Panic Sell! (Drop: " + String.format("%.2f%%", change * 100) + ")");
+            if (logging) System.out.println("CRASH PROTECTION ENABLED: Panic Sell! (Drop: " + String.format("%.2f%%", change * 100) + ")");
             return Signal.STRONG_SELL;
         }
 
-        return wrappedStrategy.generateSignal(candles);
-    }
-
-    private double calculateRSI(List<Candle> data, int period) {
-        if (data.size() <= period) return 50;
-        
-        double avgGain = 0, avgLoss = 0;
-        for (int i = 1; i <= period; i++) {
-            int idx = data.size() - 1 - period + i;
-            double change = data.get(idx).close - data.get(idx - 1).close;
-            if (change > 0) avgGain += change;
-            else avgLoss += Math.abs(change);
-        }
-        avgGain /= period;
-        avgLoss /= period;
-
-        if (avgLoss == 0) return 100;
-        double rs = avgGain / avgLoss;
-        return 100 - (100 / (1 + rs));
+        return wrappedStrategy.generateSignal(candles, context);
     }
 }
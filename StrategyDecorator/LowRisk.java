@@ -1,6 +1,11 @@
 package StrategyDecorator;
 
 import java.util.List;
+import indicators.Ema;
+import indicators.IndicatorContext;
+import indicators.Macd;
+import indicators.PriceField;
+import indicators.Rsi;
 import interfaces.TradingStrategy;
 import models.Candle;
 import models.Signal;
@@ -19,8 +24,8 @@ public class LowRisk extends StrategyDecorator {
     }
 
     @Override
-    public Signal generateSignal(List<Candle> candles) {
-        Signal baseSignal = super.generateSignal(candles);
+    public Signal generateSignal(List<Candle> candles, IndicatorContext context) {
+        Signal baseSignal = super.generateSignal(candles, context);
         if (baseSignal != Signal.HOLD) {
             return baseSignal;
         }
@@ -31,7 +36,6 @@ public class LowRisk extends StrategyDecorator {
 
         double highestHigh = Double.NEGATIVE_INFINITY;
         double lowestLow = Double.MAX_VALUE;
-        double totalVolume = 0;
 
         int endIndex = candles.size() - 2; 
         int startIndex = endIndex - period + 1;
@@ -42,93 +46,53 @@ public class LowRisk extends StrategyDecorator {
             Candle c = candles.get(i);
             if (c.high > highestHigh) highestHigh = c.high;
             if (c.low < lowestLow) lowestLow = c.low;
-            totalVolume += c.volume;
         }
 
-        double averageVolume = totalVolume / period;
+        // Average volume of the 'period' candles before the current one
+        double averageVolume = context.sma(period, PriceField.VOLUME).value(1);
         Candle currentCandle = candles.get(candles.size() - 1);
         double currentClose = currentCandle.close;
         double currentVolume = currentCandle.volume;
 
-        double sma50 = calculateSMA(candles, 50);
-
         if (currentClose > highestHigh) {
-            boolean trendUp = currentClose > sma50;
+            boolean trendUp = currentClose > context.sma(50).value();
             boolean volumeUp = currentVolume > averageVolume;
 
-            double macdValue = calculateMACD(candles);
-            double rsiValue = calculateRSI(candles, 14);
+            Macd macd = context.macd(12, 26, 9);
+            Rsi rsi14 = context.rsi(14);
+            double macdValue = Double.isNaN(macd.macdLine()) ? 0 : macd.macdLine();
+            double rsiValue = rsi14.isReady() ? rsi14.value() : 50;
 
             if (trendUp && volumeUp) {
                 if (macdValue > 0 && rsiValue < 70) {
-                    System.out.println("LowRisk: Breakout + Vol + Trend UP + MACD(+) -> STRONG_BUY");
+                    if (logging) System.out.println("LowRisk: Breakout + Vol + Trend UP + MACD(+) -> STRONG_BUY");
                     return Signal.STRONG_BUY;
                 } else {
-                    System.out.println("LowRisk: Breakout but RSI/MACD not optimal. Waiting.");
+                    if (logging) System.out.println("LowRisk: Breakout but RSI/MACD not optimal. Waiting.");
                 }
             } else if (trendUp) {
                 if (macdValue > 0 && rsiValue < 60) {
-                    System.out.println("LowRisk: Breakout + Trend UP + MACD(+) -> BUY");
+                    if (logging) System.out.println("LowRisk: Breakout + Trend UP + MACD(+) -> BUY");
                     return Signal.BUY;
                 }
             } else {
-                 System.out.println("LowRisk: Breakout but Counter-Trend -> IGNORE");
+                 if (logging) System.out.println("LowRisk: Breakout but Counter-Trend -> IGNORE");
             }
         } 
         else if (currentClose < lowestLow) {
-            System.out.println("LowRisk: Support Broken -> SELL");
+            if (logging) System.out.println("LowRisk: Support Broken -> SELL");
             return Signal.SELL;
         }
 
-        double ema20 = calculateEMA(candles, 20);
-        if (currentClose > ema20 * 1.012) {
-             System.out.println("LowRisk: PUMP DETECTED! (Price > EMA20 + 1.2%) -> TAKE PROFIT NOW");
+        Ema ema20 = context.ema(20);
+        if (ema20.isReady() && currentClose > ema20.value() * 1.012) {
+             if (logging) System.out.println("LowRisk: PUMP DETECTED! (Price > EMA20 + 1.2%) -> TAKE PROFIT NOW");
              return Signal.SELL;
         }
 
         return Signal.HOLD;
     }
 
-    private double calculateSMA(List<Candle> candles, int period) {
-        double sum = 0;
-        for (int i = 0; i < period; i++) {
-            sum += candles.get(candles.size() - 1 - i).close;
-        }
-        return sum / period;
-    }
-
-    private double calculateMACD(List<Candle> data) {
-        if (data.size() < 26) return 0;
-        double ema12 = calculateEMA(data, 12);
-        double ema26 = calculateEMA(data, 26);
-        return ema12 - ema26;
-    }
-
-    private double calculateEMA(List<Candle> data, int period) {
-        double k = 2.0 / (period + 1);
-        double ema = data.get(data.size() - period).close; 
-        for (int i = data.size() - period + 1; i < data.size(); i++) {
-            ema = data.get(i).close * k + ema * (1 - k);
-        }
-        return ema;
-    }
-
-    private double calculateRSI(List<Candle> data, int period) {
-        if (data.size() <= period) return 50;
-        double avgGain = 0, avgLoss = 0;
-        int start = Math.max(0, data.size() - period - 1);
-        for (int i = start + 1; i < data.size(); i++) {
-            double change = data.get(i).close - data.get(i - 1).close;
-            if (change > 0) avgGain += change;
-            else avgLoss += Math.abs(change);
-        }
-        avgGain /= period;
-        avgLoss /= period;
-        if (avgLoss == 0) return 100;
-        double rs = avgGain / avgLoss;
-        return 100 - (100 / (1 + rs));
-    }
-
     @Override
     public String getName() {
         return "LowRisk (Vol + SMA50 Filter) + " + wrappedStrategy.getName();
@@ -1,6 +1,8 @@
 package StrategyDecorator;
 
 import java.util.List;
+import indicators.IndicatorContext;
+import indicators.IndicatorEngine;
 import interfaces.TradingStrategy;
 import models.Candle;
 import models.Signal;
@@ -9,19 +11,38 @@ import models.Signal;
  * Abstract base class for Strategy Decorators.
  * Follows the Decorator Pattern to add dynamic behaviors (Risk Management, Filters) 
  * to existing Trading Strategies without modifying them.
+ * The per-tick IndicatorContext is passed down the chain so decorators and the
+ * wrapped strategy share the same indicator values.
  */
 public abstract class StrategyDecorator implements TradingStrategy {
 
     protected TradingStrategy wrappedStrategy;
 
+    // Print the decorator's decisions to the console
+    protected boolean logging = true;
+
+    // Own indicators, used when called without a shared per-tick context
+    private final IndicatorEngine indicators = new IndicatorEngine();
+
     public StrategyDecorator(TradingStrategy strategy) {
         this.wrappedStrategy = strategy;
     }
 
     @Override
     public Signal generateSignal(List<Candle> candles) {
-        return wrappedStrategy.generateSignal(candles);
+        return generateSignal(candles, indicators.tick(candles));
+    }
+
+    @Override
+    public Signal generateSignal(List<Candle> candles, IndicatorContext context) {
+        return wrappedStrategy.generateSignal(candles, context);
+    }
+    @Override
+    public void setLogging(boolean logging) {
+        this.logging = logging;
+        wrappedStrategy.setLogging(logging);
     }
+
     @Override
     public String getName() {
         return this.getClass().getSimpleName() + " + " + wrappedStrategy.getName();
@@ -1,6 +1,8 @@
 package TradingStrategies;
 
 import java.util.List;
+import indicators.IndicatorContext;
+import indicators.IndicatorEngine;
 import interfaces.TradingStrategy;
 import models.Signal;
 import models.Candle;
@@ -17,6 +19,8 @@ public class DefaultStrategy implements TradingStrategy {
     private int atrPeriod = 14;
     // Multiplier for ATR to set the stop loss distance
     private double atrMultiplier = 2.0;
+    // Own indicators, used when called without a shared per-tick context
+    private final IndicatorEngine indicators = new IndicatorEngine();
 
     /**
      * Generates a trading signal based on risk management rules.
@@ -27,12 +31,17 @@ public class DefaultStrategy implements TradingStrategy {
      */
     @Override
     public Signal generateSignal(List<Candle> candles) {
+        return generateSignal(candles, indicators.tick(candles));
+    }
+
+    @Override
+    public Signal generateSignal(List<Candle> candles, IndicatorContext context) {
         if (candles.size() < atrPeriod + 1) {
             return Signal.HOLD;
         }
 
         double currentPrice = candles.get(candles.size() - 1).close;
-        double atr = calculateATR(candles, candles.size() - 1);
+        double atr = context.atr(atrPeriod).value();
         
         // TODO: Implement actual trailing stop logic using atrMultiplier
         
@@ -48,29 +57,6 @@ public class DefaultStrategy implements TradingStrategy {
         return Signal.HOLD;
     }
     
-    /**
-     * Calculates the Average True Range (ATR) to measure market volatility.
-     * 
-     * @param data The list of candles.
-     * @param endIndex The index to calculate ATR for.
-     * @return The ATR value.
-     */
-    private double calculateATR(List<Candle> data, int endIndex) {
-        double sumTr = 0;
-        for(int i=0; i<atrPeriod; i++) {
-            int idx = endIndex - i;
-            Candle curr = data.get(idx);
-            Candle prev = data.get(idx - 1);
-            
-            double tr1 = curr.high - curr.low;
-            double tr2 = Math.abs(curr.high - prev.close);
-            double tr3 = Math.abs(curr.low - prev.close);
-            double tr = Math.max(tr1, Math.max(tr2, tr3));
-            sumTr += tr;
-        }
-        return sumTr / atrPeriod;
-    }
-
     @Override
     public String getName() {
         return "Risk Manager (Default)";
@@ -1,6 +1,10 @@
 package TradingStrategies;
 
 import java.util.List;
+import indicators.IndicatorContext;
+import indicators.IndicatorEngine;
+import indicators.Rsi;
+import indicators.Sma;
 import interfaces.TradingStrategy;
 import models.Signal;
 import models.Candle;
@@ -13,16 +17,28 @@ import models.Candle;
 public class RsiStrategy implements TradingStrategy {
     private int period = 14;
 
+    // Own indicators, used when called without a shared per-tick context
+    private final IndicatorEngine indicators = new IndicatorEngine();
+
     @Override
     public Signal generateSignal(List<Candle> candles) {
+        return generateSignal(candles, indicators.tick(candles));
+    }
+
+    @Override
+    public Signal generateSignal(List<Candle> candles, IndicatorContext context) {
         if (candles.size() < period + 1) {
             return Signal.HOLD;
         }
 
-        double rsi = calculateRSI(candles, candles.size() - 1);
+        Rsi rsi = context.rsi(period);
+        if (!rsi.isReady()) {
+            return Signal.HOLD;
+        }
+        double rsiValue = rsi.value();
         
         // Identify Trend via simple SMA check (using 50 SMA)
-        boolean isUptrend = isUptrend(candles);
+        boolean isUptrend = isUptrend(candles, context);
 
         // Strategy Logic:
         // 1. Trend Filter: Use SMA 50 to determine the dominant market trend.
@@ -39,9 +55,9 @@ public class RsiStrategy implements TradingStrategy {
         double buyThreshold = isUptrend ? 45.0 : 30.0;
         double sellThreshold = isUptrend ? 80.0 : 70.0;
         
-        if (rsi < buyThreshold) {
+        if (rsiValue < buyThreshold) {
             return Signal.BUY;
-        } else if (rsi > sellThreshold) {
+        } else if (rsiValue > sellThreshold) {
             return Signal.SELL;
         }
 
@@ -51,40 +67,11 @@ public class RsiStrategy implements TradingStrategy {
     /**
      * Checks if the market is in an uptrend using a simple 50-period SMA.
      */
-    private boolean isUptrend(List<Candle> candles) {
+    private boolean isUptrend(List<Candle> candles, IndicatorContext context) {
         if (candles.size() < 50) return false;
-        double sma50 = 0;
-        for (int i = 0; i < 50; i++) {
-            sma50 += candles.get(candles.size() - 1 - i).close;
-        }
-        sma50 /= 50;
-        return candles.get(candles.size() - 1).close > sma50;
-    }
-
-    /**
-     * Calculates the Relative Strength Index (RSI).
-     * 
-     * @param data The historical candles.
-     * @param endIndex The index to calculate for.
-     * @return The RSI value (0-100).
-     */
-    private double calculateRSI(List<Candle> data, int endIndex) {
-        double avgGain = 0, avgLoss = 0;
-        
-        // Needs proper sequence calculation usually, simplified for length
-        for (int i = 1; i <= period; i++) {
-            int idx = endIndex - period + i;
-            double change = data.get(idx).close - data.get(idx - 1).close;
-            if (change > 0) avgGain += change;
-            else avgLoss += Math.abs(change);
-        }
-        
-        avgGain /= period;
-        avgLoss /= period;
-
-        if (avgLoss == 0) return 100;
-        double rs = avgGain / avgLoss;
-        return 100 - (100 / (1 + rs));
+        Sma sma50 = context.sma(50);
+        if (!sma50.isReady()) return false;
+        return candles.get(candles.size() - 1).close > sma50.value();
     }
 
     @Override
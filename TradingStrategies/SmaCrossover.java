@@ -1,6 +1,9 @@
 package TradingStrategies;
 
 import java.util.List;
+import indicators.IndicatorContext;
+import indicators.IndicatorEngine;
+import indicators.Sma;
 import interfaces.TradingStrategy;
 import models.Signal;
 import models.Candle;
@@ -13,6 +16,9 @@ public class SmaCrossover implements TradingStrategy {
     private int shortPeriod; // Fast moving average (e.g., 50 days)
     private int longPeriod;  // Slow moving average (e.g., 200 days)
 
+    // Own indicators, used when called without a shared per-tick context
+    private final IndicatorEngine indicators = new IndicatorEngine();
+
     /**
      * @param shortPeriod Period for the fast SMA.
      * @param longPeriod Period for the slow SMA.
@@ -29,16 +35,23 @@ public class SmaCrossover implements TradingStrategy {
      */
     @Override
     public Signal generateSignal(List<Candle> candles) {
+        return generateSignal(candles, indicators.tick(candles));
+    }
+
+    @Override
+    public Signal generateSignal(List<Candle> candles, IndicatorContext context) {
         if (candles.size() < longPeriod) {
             return Signal.HOLD;
         }
 
-         
-        double shortSmaCurrent = calculateSma(candles, shortPeriod, candles.size() - 1);
-        double longSmaCurrent = calculateSma(candles, longPeriod, candles.size() - 1);
+        Sma shortSma = context.sma(shortPeriod);
+        Sma longSma = context.sma(longPeriod);
+
+        double shortSmaCurrent = shortSma.value(0);
+        double longSmaCurrent = longSma.value(0);
         
-        double shortSmaPrev = calculateSma(candles, shortPeriod, candles.size() - 2);
-        double longSmaPrev = calculateSma(candles, longPeriod, candles.size() - 2);
+        double shortSmaPrev = shortSma.value(1);
+        double longSmaPrev = longSma.value(1);
         
         // Golden Cross: Short SMA crosses ABOVE Long SMA
         if (shortSmaPrev <= longSmaPrev && shortSmaCurrent > longSmaCurrent) {
@@ -54,19 +67,6 @@ public class SmaCrossover implements TradingStrategy {
         return Signal.HOLD;
     }
 
-    /**
-     * Calculates the Simple Moving Average.
-     */
-    private double calculateSma(List<Candle> candles, int window, int endIndex) {
-        if (endIndex < window - 1) return 0;
-        
-        double sum = 0;
-        for (int i = 0; i < window; i++) {
-            sum += candles.get(endIndex - i).close;
-        }
-        return sum / window;
-    }
-
     @Override
     public String getName() {
         return "SMA Crossover (" + shortPeriod + "/" + longPeriod + ")";
@@ -0,0 +1,33 @@
+package backtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import models.CandleSeries;
+import storage.CandleArchive;
+
+/**
+ * Converts a kline CSV into a binary candle archive (or appends it to an existing one),
+ * so later backtests and warm-ups read it without parsing.
+ *
+ * Usage: java -cp target/classes backtest.ArchiveImport candles.csv SYMBOL INTERVAL [archive]
+ */
+public class ArchiveImport {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: java backtest.ArchiveImport <candles.csv> <symbol> <interval> [archive]");
+            return;
+        }
+        String symbol = args[1];
+        String interval = args[2];
+        Path target = args.length > 3 ? Path.of(args[3]) : CandleArchive.defaultPath(symbol, interval);
+
+        CandleSeries candles = CandleCsvReader.read(args[0]);
+        try (CandleArchive archive = CandleArchive.openForAppend(target, symbol, interval)) {
+            int written = archive.appendAll(candles);
+            System.out.println("Wrote " + written + " of " + candles.size() + " candles to " + target
+                    + " (" + archive.size() + " stored)");
+        }
+    }
+}
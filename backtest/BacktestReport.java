@@ -0,0 +1,82 @@
+package backtest;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of a backtest run: equity curve, fills, fees, drawdown and throughput.
+ */
+public class BacktestReport {
+    public final double initialEquity;
+    public final double finalEquity;
+    public final double maxDrawdown;   // Largest peak-to-trough drop, as a fraction (0.25 = 25%)
+    public final double totalFees;
+    public final int rejectedOrders;
+    public final List<BacktestTrade> trades;
+    public final long[] times;         // Close time of each replayed candle
+    public final double[] equity;      // USDT + BTC * close after each candle
+    public final long candles;
+    public final long elapsedNanos;
+
+    public BacktestReport(double initialEquity, double finalEquity, double maxDrawdown, double totalFees,
+                          int rejectedOrders, List<BacktestTrade> trades, long[] times, double[] equity,
+                          long candles, long elapsedNanos) {
+        this.initialEquity = initialEquity;
+        this.finalEquity = finalEquity;
+        this.maxDrawdown = maxDrawdown;
+        this.totalFees = totalFees;
+        this.rejectedOrders = rejectedOrders;
+        this.trades = trades;
+        this.times = times;
+        this.equity = equity;
+        this.candles = candles;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public double getReturn() {
+        return initialEquity == 0 ? 0 : (finalEquity - initialEquity) / initialEquity;
+    }
+
+    public double getCandlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : candles * 1e9 / elapsedNanos;
+    }
+
+    public void print() {
+        System.out.println("===== Backtest Report =====");
+        System.out.println(String.format(Locale.US, "Candles        : %d", candles));
+        System.out.println(String.format(Locale.US, "Elapsed        : %.3f s", elapsedNanos / 1e9));
+        System.out.println(String.format(Locale.US, "Throughput     : %.0f candles/s", getCandlesPerSecond()));
+        System.out.println(String.format(Locale.US, "Initial equity : %.2f USDT", initialEquity));
+        System.out.println(String.format(Locale.US, "Final equity   : %.2f USDT (%.2f%%)", finalEquity, getReturn() * 100));
+        System.out.println(String.format(Locale.US, "Max drawdown   : %.2f%%", maxDrawdown * 100));
+        System.out.println(String.format(Locale.US, "Trades         : %d (rejected: %d)", trades.size(), rejectedOrders));
+        System.out.println(String.format(Locale.US, "Fees           : %.2f USDT", totalFees));
+    }
+
+    /**
+     * Writes time,equity rows.
+     */
+    public void writeEquityCurve(String path) throws IOException {
+        try (PrintWriter out = new PrintWriter(new FileWriter(path))) {
+            out.println("time,equity");
+            for (int i = 0; i < equity.length; i++) {
+                out.println(times[i] + "," + String.format(Locale.US, "%.4f", equity[i]));
+            }
+        }
+    }
+
+    /**
+     * Writes time,side,quantity,price,fee rows.
+     */
+    public void writeTrades(String path) throws IOException {
+        try (PrintWriter out = new PrintWriter(new FileWriter(path))) {
+            out.println("time,side,quantity,price,fee");
+            for (BacktestTrade trade : trades) {
+                out.println(trade.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package backtest;
+
+/**
+ * A simulated fill recorded during a backtest.
+ */
+public class BacktestTrade {
+    public final long time;      // Close time of the candle the order was filled on
+    public final String side;    // BUY or SELL
+    public final double quantity;
+    public final double price;
+    public final double fee;     // In USDT
+
+    public BacktestTrade(long time, String side, double quantity, double price, double fee) {
+        this.time = time;
+        this.side = side;
+        this.quantity = quantity;
+        this.price = price;
+        this.fee = fee;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.US, "%d,%s,%.6f,%.2f,%.4f", time, side, quantity, price, fee);
+    }
+}
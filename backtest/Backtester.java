@@ -0,0 +1,124 @@
+package backtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import Bot.Bot;
+import models.Candle;
+import models.CandleSeries;
+import models.Wallet;
+import storage.CandleArchive;
+
+/**
+ * Replays historical candles through the real Bot pipeline
+ * (fetchData -> evaluateData -> createOrder -> executeOrder -> logResult)
+ * against a simulated exchange. No network calls, no trades.csv, no console chatter.
+ *
+ * Usage: java -cp target/classes backtest.Backtester (candles.csv | history.candles) [feeRate] [initialUsdt] [windowSize]
+ */
+public class Backtester {
+    // Random access to the replayed candles (a CandleSeries in memory or a mapped CandleArchive)
+    private interface CandleSource {
+        Candle load(int index, Candle into);
+    }
+
+    private final double initialUsdt;
+    private final double feeRate;
+    private final int windowSize;
+
+    public Backtester(double initialUsdt, double feeRate, int windowSize) {
+        this.initialUsdt = initialUsdt;
+        this.feeRate = feeRate;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Runs the backtest over every candle of the history, oldest first.
+     *
+     * @param history The candles to replay.
+     * @return The report (equity curve, trades, fees, drawdown, throughput).
+     */
+    public BacktestReport run(CandleSeries history) {
+        return replay(history.size(), history::load);
+    }
+
+    /**
+     * Runs the backtest straight from a mapped archive (no copy into memory).
+     *
+     * @param history The stored candles to replay.
+     * @param from Index of the first candle to replay.
+     * @param to Index after the last candle to replay.
+     * @return The report (equity curve, trades, fees, drawdown, throughput).
+     */
+    public BacktestReport run(CandleArchive history, int from, int to) {
+        return replay(to - from, (index, into) -> history.load(from + index, into));
+    }
+
+    private BacktestReport replay(int n, CandleSource history) {
+        Wallet wallet = new Wallet(initialUsdt, 0);
+        SimulatedOrderReceiver receiver = new SimulatedOrderReceiver(wallet, feeRate);
+        Bot bot = new Bot(windowSize, receiver, wallet);
+        bot.setLogging(false);
+        // Replayed ticks would mix into the live metrics and the strategy shown by the API
+        bot.setMetricsEnabled(false);
+        bot.setConfigUpdates(false);
+
+        long[] times = new long[n];
+        double[] equity = new double[n];
+        double peak = initialUsdt;
+        double maxDrawdown = 0;
+
+        // Reused for every candle: the bot copies the values into its own window
+        Candle candle = new Candle(0, 0, 0, 0, 0, 0, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            history.load(i, candle);
+            receiver.setTime(candle.closeTime);
+            bot.trade(candle);
+
+            double value = wallet.getUsdtBalance() + wallet.getBtcBalance() * candle.close;
+            times[i] = candle.closeTime;
+            equity[i] = value;
+            if (value > peak) peak = value;
+            double drawdown = peak > 0 ? (peak - value) / peak : 0;
+            if (drawdown > maxDrawdown) maxDrawdown = drawdown;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double finalEquity = n == 0 ? initialUsdt : equity[n - 1];
+        return new BacktestReport(initialUsdt, finalEquity, maxDrawdown, receiver.getTotalFees(),
+                receiver.getRejectedOrders(), receiver.getTrades(), times, equity, n, elapsed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java backtest.Backtester <candles.csv | history.candles> [feeRate] [initialUsdt] [windowSize]");
+            return;
+        }
+        String path = args[0];
+        double feeRate = args.length > 1 ? Double.parseDouble(args[1]) : 0.001;
+        double initialUsdt = args.length > 2 ? Double.parseDouble(args[2]) : 1000.0;
+        int windowSize = args.length > 3 ? Integer.parseInt(args[3]) : Bot.DEFAULT_WINDOW;
+
+        BacktestReport report;
+        if (path.endsWith(".candles")) {
+            // Binary archive: replayed from the page cache, nothing to parse
+            try (CandleArchive archive = CandleArchive.open(Path.of(path))) {
+                System.out.println("Replaying " + archive.size() + " " + archive.symbol() + " " + archive.interval()
+                        + " candles from " + path);
+                report = new Backtester(initialUsdt, feeRate, windowSize).run(archive, 0, archive.size());
+            }
+        } else {
+            long loadStart = System.nanoTime();
+            CandleSeries history = CandleCsvReader.read(path);
+            System.out.println(String.format(java.util.Locale.US, "Loaded %d candles from %s in %.2f s",
+                    history.size(), path, (System.nanoTime() - loadStart) / 1e9));
+            report = new Backtester(initialUsdt, feeRate, windowSize).run(history);
+        }
+        report.print();
+        report.writeEquityCurve("backtest_equity.csv");
+        report.writeTrades("backtest_trades.csv");
+        System.out.println("Equity curve -> backtest_equity.csv, trades -> backtest_trades.csv");
+    }
+}
@@ -0,0 +1,68 @@
+package backtest;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+import models.CandleSeries;
+
+/**
+ * Loads kline CSV files (Binance data dump layout:
+ * openTime,open,high,low,close,volume,closeTime,...) into a CandleSeries.
+ * Header lines and extra columns are ignored.
+ */
+public class CandleCsvReader {
+
+    /**
+     * @param path Path of the CSV file.
+     * @return A series holding every candle of the file, oldest first.
+     */
+    public static CandleSeries read(String path) throws IOException {
+        // First pass only counts rows, so the columns are allocated once at the right size
+        int rows = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(path), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (isDataRow(line)) rows++;
+            }
+        }
+
+        CandleSeries series = new CandleSeries(Math.max(1, rows));
+        try (BufferedReader reader = new BufferedReader(new FileReader(path), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!isDataRow(line)) continue;
+                parseRow(line, series);
+            }
+        }
+        return series;
+    }
+
+    private static boolean isDataRow(String line) {
+        return !line.isEmpty() && Character.isDigit(line.charAt(0));
+    }
+
+    private static void parseRow(String line, CandleSeries series) {
+        int start = 0;
+        long openTime = 0;
+        long closeTime = 0;
+        double open = 0, high = 0, low = 0, close = 0, volume = 0;
+
+        for (int column = 0; column < 7; column++) {
+            int end = line.indexOf(',', start);
+            if (end == -1) end = line.length();
+            String field = line.substring(start, end);
+            switch (column) {
+                case 0: openTime = Long.parseLong(field); break;
+                case 1: open = Double.parseDouble(field); break;
+                case 2: high = Double.parseDouble(field); break;
+                case 3: low = Double.parseDouble(field); break;
+                case 4: close = Double.parseDouble(field); break;
+                case 5: volume = Double.parseDouble(field); break;
+                default: closeTime = end > start ? Long.parseLong(field) : openTime; break;
+            }
+            start = Math.min(end + 1, line.length());
+        }
+        series.append(openTime, open, high, low, close, volume, closeTime);
+    }
+}
@@ -0,0 +1,91 @@
+package backtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import commands.OrderReceiver;
+import models.Order;
+import models.OrderFill;
+import models.Wallet;
+
+/**
+ * OrderReceiver for backtests: fills market orders at the candle close against a
+ * private Wallet, charges a proportional fee and records every fill.
+ * Never touches the network or the shared Wallet instance.
+ */
+public class SimulatedOrderReceiver extends OrderReceiver {
+    private final Wallet wallet;
+    private final double feeRate; // e.g. 0.001 for 0.1% taker fee
+
+    private final List<BacktestTrade> trades = new ArrayList<>();
+    private double totalFees = 0;
+    private int rejectedOrders = 0;
+    private long currentTime = 0;
+
+    public SimulatedOrderReceiver(Wallet wallet, double feeRate) {
+        super(wallet);
+        this.wallet = wallet;
+        this.feeRate = feeRate;
+    }
+
+    /**
+     * Sets the simulated clock (close time of the candle being replayed).
+     */
+    public void setTime(long time) {
+        this.currentTime = time;
+    }
+
+    @Override
+    public OrderFill placeBuyOrder(Order order, double currentPrice) {
+        double cost = order.quantity * currentPrice;
+        double fee = cost * feeRate;
+
+        if (order.quantity <= 0 || wallet.getUsdtBalance() < cost + fee) {
+            rejectedOrders++;
+            return OrderFill.rejected(order, "Insufficient USDT");
+        }
+        wallet.withdrawUsdt(cost + fee);
+        wallet.depositBtc(order.quantity);
+        record("BUY", order.quantity, currentPrice, fee);
+        return fill(order, currentPrice, fee);
+    }
+
+    @Override
+    public OrderFill placeSellOrder(Order order, double currentPrice) {
+        double proceeds = order.quantity * currentPrice;
+        double fee = proceeds * feeRate;
+
+        if (order.quantity <= 0 || wallet.getBtcBalance() < order.quantity) {
+            rejectedOrders++;
+            return OrderFill.rejected(order, "Insufficient BTC");
+        }
+        wallet.withdrawBtc(order.quantity);
+        wallet.depositUsdt(proceeds - fee);
+        record("SELL", order.quantity, currentPrice, fee);
+        return fill(order, currentPrice, fee);
+    }
+
+    // Fee is charged in the quote asset, like the wallet booking above
+    private static OrderFill fill(Order order, double price, double fee) {
+        OrderFill fill = OrderFill.filled(order, price);
+        fill.executions.add(new OrderFill.Execution(price, order.quantity, fee, "USDT"));
+        return fill;
+    }
+
+    private void record(String side, double quantity, double price, double fee) {
+        totalFees += fee;
+        trades.add(new BacktestTrade(currentTime, side, quantity, price, fee));
+    }
+
+    public List<BacktestTrade> getTrades() {
+        return trades;
+    }
+
+    public double getTotalFees() {
+        return totalFees;
+    }
+
+    public int getRejectedOrders() {
+        return rejectedOrders;
+    }
+}
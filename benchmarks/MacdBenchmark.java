@@ -0,0 +1,112 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import TradingStrategies.MacdStrategy;
+import models.Candle;
+import models.CandleSeries;
+import models.Signal;
+
+/**
+ * Per-tick cost of MacdStrategy: the previous full recomputation (replayed EMAs for
+ * every MACD/signal point, three times per tick) versus the streaming indicator.
+ *
+ * Run: java -jar target/benchmarks.jar MacdBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MacdBenchmark {
+
+    @Param({"500"})
+    public int windowSize;
+
+    private SyntheticPrices prices;
+    private CandleSeries series;
+    private List<Candle> window;
+    private LegacyMacd legacy;
+    private MacdStrategy streaming;
+
+    @Setup
+    public void setup() {
+        prices = new SyntheticPrices(42);
+        series = prices.fill(windowSize, windowSize);
+        window = series.asList();
+        legacy = new LegacyMacd();
+        streaming = new MacdStrategy();
+        streaming.generateSignal(window);
+    }
+
+    @Benchmark
+    public Signal legacyRecomputation() {
+        prices.appendNext(series);
+        return legacy.generateSignal(window);
+    }
+
+    @Benchmark
+    public Signal streamingIndicator() {
+        prices.appendNext(series);
+        return streaming.generateSignal(window);
+    }
+
+    /**
+     * The MACD computation MacdStrategy used before the streaming indicators:
+     * calculateMACD() three times per tick, each replaying 9 fast/slow EMA pairs over
+     * up to 3 x period candles for a simple-average signal line.
+     */
+    static class LegacyMacd {
+        private final int fastPeriod = 12;
+        private final int slowPeriod = 26;
+        private final int signalPeriod = 9;
+
+        public Signal generateSignal(List<Candle> candles) {
+            if (candles.size() < slowPeriod + signalPeriod + 5) return Signal.HOLD;
+
+            double[] current = calculateMACD(candles, candles.size() - 1);
+            double[] previous = calculateMACD(candles, candles.size() - 2);
+            double previousPrev = calculateMACD(candles, candles.size() - 3)[2];
+
+            if (current[2] < 0 && current[2] > previous[2] && previous[2] < previousPrev) return Signal.BUY;
+            if (previous[0] < previous[1] && current[0] > current[1]) return Signal.BUY;
+            if (previous[0] > previous[1] && current[0] < current[1]) return Signal.SELL;
+            return Signal.HOLD;
+        }
+
+        // {macdLine, signalLine, histogram}
+        private double[] calculateMACD(List<Candle> data, int endIndex) {
+            double macdLine = calculateEMA(data, fastPeriod, endIndex) - calculateEMA(data, slowPeriod, endIndex);
+            double sum = 0;
+            for (int i = 0; i < signalPeriod; i++) {
+                sum += calculateEMA(data, fastPeriod, endIndex - i) - calculateEMA(data, slowPeriod, endIndex - i);
+            }
+            double signalLine = sum / signalPeriod;
+            return new double[] { macdLine, signalLine, macdLine - signalLine };
+        }
+
+        private double calculateEMA(List<Candle> data, int period, int endIndex) {
+            double k = 2.0 / (period + 1);
+            int start = Math.max(0, endIndex - (period * 3));
+            double ema = data.get(start).close;
+            for (int i = start + 1; i <= endIndex; i++) {
+                ema = data.get(i).close * k + ema * (1 - k);
+            }
+            return ema;
+        }
+    }
+}
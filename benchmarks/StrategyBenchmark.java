@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import StrategyDecorator.*;
+import TradingStrategies.*;
+import interfaces.TradingStrategy;
+import models.Candle;
+import models.CandleSeries;
+import models.Signal;
+
+/**
+ * Per-tick cost of generateSignal for every strategy and decorator stack.
+ * Each invocation appends one candle to a full sliding window and evaluates it,
+ * which is what Bot.evaluateData does on every tick.
+ *
+ * Run: java -jar target/benchmarks.jar StrategyBenchmark -prof gc
+ * (ns/op plus gc.alloc.rate.norm = bytes allocated per tick)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyBenchmark {
+
+    @Param({"50", "500", "10000", "100000"})
+    public int windowSize;
+
+    @Param({
+        "SmaCrossover", "RsiStrategy", "MacdStrategy", "AdxStrategy", "DefaultStrategy", "TrendFollowing",
+        "CrashProtection", "HighRisk", "LowRisk", "CrashProtection+HighRisk"
+    })
+    public String strategyName;
+
+    private SyntheticPrices prices;
+    private CandleSeries series;
+    private List<Candle> window;
+    private TradingStrategy strategy;
+
+    @Setup
+    public void setup() {
+        prices = new SyntheticPrices(42);
+        series = prices.fill(windowSize, windowSize);
+        window = series.asList();
+        strategy = create(strategyName);
+        strategy.generateSignal(window); // Initial replay is not part of the per-tick cost
+    }
+
+    @Benchmark
+    public Signal tick() {
+        prices.appendNext(series);
+        return strategy.generateSignal(window);
+    }
+
+    static TradingStrategy create(String name) {
+        switch (name) {
+            case "SmaCrossover": return new SmaCrossover(5, 10);
+            case "RsiStrategy": return new RsiStrategy();
+            case "MacdStrategy": return new MacdStrategy();
+            case "AdxStrategy": return new AdxStrategy();
+            case "DefaultStrategy": return new DefaultStrategy();
+            case "TrendFollowing": return new TrendFollowing();
+            case "CrashProtection": return new CrashProtection(new SmaCrossover(5, 10), 0.01);
+            case "HighRisk": return new HighRisk(new RsiStrategy());
+            case "LowRisk": return new LowRisk(new MacdStrategy());
+            case "CrashProtection+HighRisk": return new CrashProtection(new HighRisk(new SmaCrossover(5, 10)), 0.01);
+            default: throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package benchmarks;
+
+import java.util.Random;
+import models.Candle;
+import models.CandleSeries;
+
+/**
+ * Seeded random-walk candle generator, so every benchmark run sees the same prices.
+ */
+public class SyntheticPrices {
+    private final Random random;
+    private double price = 30000;
+    private long time = 0;
+
+    public SyntheticPrices(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Appends the next 1m candle of the walk to the series (no allocation).
+     */
+    public void appendNext(CandleSeries series) {
+        double open = price;
+        price = Math.max(1, price + random.nextGaussian() * 25);
+        double high = Math.max(open, price) + random.nextDouble() * 10;
+        double low = Math.min(open, price) - random.nextDouble() * 10;
+        series.append(time, open, high, low, price, 1 + random.nextDouble() * 50, time + 59_999);
+        time += 60_000;
+    }
+
+    /**
+     * @return A series of the given capacity, already filled with 'count' candles.
+     */
+    public CandleSeries fill(int capacity, int count) {
+        CandleSeries series = new CandleSeries(capacity);
+        for (int i = 0; i < count; i++) appendNext(series);
+        return series;
+    }
+
+    /**
+     * @return 'count' candles of the walk as objects (for List<Candle> based code).
+     */
+    public Candle[] candles(int count) {
+        CandleSeries series = fill(count, count);
+        Candle[] candles = new Candle[count];
+        for (int i = 0; i < count; i++) candles[i] = series.get(i);
+        return candles;
+    }
+}
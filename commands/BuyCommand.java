@@ -1,6 +1,7 @@
 package commands;
 
 import models.Order;
+import models.OrderFill;
 
 public class BuyCommand implements OrderCommand {
     private OrderReceiver receiver;
@@ -14,8 +15,8 @@ public class BuyCommand implements OrderCommand {
     }
 
     @Override
-    public void execute() {
-        receiver.placeBuyOrder(order, currentPrice);
+    public OrderFill execute() {
+        return receiver.placeBuyOrder(order, currentPrice);
     }
 
     @Override
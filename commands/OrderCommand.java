@@ -1,6 +1,11 @@
 package commands;
 
+import models.OrderFill;
+
 public interface OrderCommand {
-    void execute();
+    /**
+     * @return What was filled (the order may have been rejected, see OrderFill.error).
+     */
+    OrderFill execute();
     void undo();
 }
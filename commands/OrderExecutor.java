@@ -0,0 +1,190 @@
+package commands;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import models.OrderFill;
+import tracing.Tick;
+import tracing.TickEvents;
+
+/**
+ * Executes OrderCommands off the price loop.
+ *
+ * submit() only puts the command on a bounded queue and returns a future, so the
+ * thread that polls prices never waits for the exchange. A few worker threads
+ * (virtual threads: they spend their time waiting for HTTP responses) take commands
+ * from the queue, execute them and complete the futures with the fills.
+ *
+ * If the queue is full the command is refused right away (the future fails with
+ * RejectedExecutionException) instead of blocking the caller.
+ *
+ * Commands of different callers run concurrently; a caller that needs its orders in
+ * sequence waits for the previous future before submitting the next one (see Bot).
+ */
+public class OrderExecutor {
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final int DEFAULT_WORKERS = 4;
+
+    private final BlockingQueue<Pending> queue;
+    private volatile boolean running = true;
+
+    // Counters
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+    private final LongAdder totalAckNanos = new LongAdder();
+    private final AtomicLong maxAckNanos = new AtomicLong();
+    private volatile long lastAckNanos = -1;
+
+    // A queued command, when it was submitted and the tick it belongs to
+    private static final class Pending {
+        final OrderCommand command;
+        final CompletableFuture<OrderFill> future = new CompletableFuture<>();
+        final long submittedAt = System.nanoTime();
+        final long tickId = Tick.id();
+        final String symbol = Tick.symbol();
+
+        Pending(OrderCommand command) {
+            this.command = command;
+        }
+    }
+
+    public OrderExecutor() {
+        this(DEFAULT_CAPACITY, DEFAULT_WORKERS);
+    }
+
+    /**
+     * @param capacity Commands that may wait in the queue.
+     * @param workers Commands executed at the same time.
+     */
+    public OrderExecutor(int capacity, int workers) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < workers; i++) {
+            Thread.ofVirtual().name("order-executor-" + i).start(this::work);
+        }
+    }
+
+    /**
+     * Queues a command for execution. Never blocks.
+     *
+     * @return Completed with the fill once the exchange answered, or exceptionally if the
+     *         queue is full, the executor is shut down or the command threw.
+     */
+    public CompletableFuture<OrderFill> submit(OrderCommand command) {
+        Pending pending = new Pending(command);
+        if (!running || !queue.offer(pending)) {
+            refused.increment();
+            pending.future.completeExceptionally(new RejectedExecutionException(
+                    running ? "Order queue full (" + queue.size() + " waiting)" : "Order executor shut down"));
+            return pending.future;
+        }
+        submitted.increment();
+        return pending.future;
+    }
+
+    private void work() {
+        while (running || !queue.isEmpty()) {
+            Pending pending;
+            try {
+                // Timed, so workers notice a shutdown without being interrupted mid-order
+                pending = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (pending == null) continue;
+
+            // The order's trace events belong to the tick that submitted it
+            Tick.resume(pending.tickId, pending.symbol);
+            TickEvents.OrderExecution trace = new TickEvents.OrderExecution();
+            trace.begin();
+            long queueWait = System.nanoTime() - pending.submittedAt;
+            OrderFill fill = null;
+            try {
+                fill = pending.command.execute();
+                record(pending);
+                completed.increment();
+                pending.future.complete(fill);
+            } catch (Throwable e) {
+                // Errors too: the bot is waiting on the future, and the worker must stay alive
+                record(pending);
+                failed.increment();
+                pending.future.completeExceptionally(e);
+            } finally {
+                if (trace.shouldCommit()) {
+                    trace.stamp();
+                    trace.queueWait = queueWait;
+                    trace.status = fill != null ? fill.status : "FAILED";
+                    trace.commit();
+                }
+                Tick.end();
+            }
+        }
+    }
+
+    // Submit -> response latency
+    private void record(Pending pending) {
+        long nanos = System.nanoTime() - pending.submittedAt;
+        lastAckNanos = nanos;
+        totalAckNanos.add(nanos);
+        maxAckNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Stops accepting commands; the workers finish the ones already queued.
+     */
+    public void shutdown() {
+        running = false;
+    }
+
+    /**
+     * @return Commands waiting for a worker.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * @return Commands that threw while executing.
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return Commands refused because the queue was full or the executor was shut down.
+     */
+    public long getRefused() {
+        return refused.sum();
+    }
+
+    /**
+     * @return Submit-to-ack latency of the last executed command in ms, or -1 if none yet.
+     */
+    public double getLastAckMillis() {
+        long nanos = lastAckNanos;
+        return nanos < 0 ? -1 : nanos / 1e6;
+    }
+
+    public double getAverageAckMillis() {
+        long count = completed.sum() + failed.sum();
+        return count == 0 ? 0 : totalAckNanos.sum() / 1e6 / count;
+    }
+
+    public double getMaxAckMillis() {
+        return maxAckNanos.get() / 1e6;
+    }
+}
@@ -1,9 +1,11 @@
 package commands;
 
 import models.Order;
+import models.OrderFill;
 import models.Wallet;
 import services.BinanceConfig;
 import services.BinanceService;
+import tracing.TickEvents;
 
 /**
  * Receives and processes order execution requests.
@@ -11,6 +13,26 @@ import services.BinanceService;
  * Supports both Simulation (Paper Trading) and Real Execution modes.
  */
 public class OrderReceiver {
+    // Wallet used in simulation mode (no API keys)
+    private final Wallet wallet;
+    // Created on first real order; shares the pooled connection of BinanceHttpClient
+    private BinanceService service;
+
+    public OrderReceiver() {
+        this(Wallet.getInstance());
+    }
+
+    /**
+     * @param wallet The wallet simulated trades are booked against (e.g. one per symbol).
+     */
+    public OrderReceiver(Wallet wallet) {
+        this.wallet = wallet;
+    }
+
+    private BinanceService service() {
+        if (service == null) service = new BinanceService();
+        return service;
+    }
 
     /**
      * Executes a BUY order.
@@ -19,24 +41,33 @@ public class OrderReceiver {
      * 
      * @param order The order details.
      * @param currentPrice The current market price (used for simulation calculations).
+     * @return The fill (REJECTED if the order could not be placed).
      */
-    public void placeBuyOrder(Order order, double currentPrice) {
+    public OrderFill placeBuyOrder(Order order, double currentPrice) {
+        TickEvents.OrderSubmit trace = new TickEvents.OrderSubmit();
+        trace.begin();
+        OrderFill fill = buy(order, currentPrice);
+        commit(trace, order, "BUY", fill);
+        return fill;
+    }
+
+    private OrderFill buy(Order order, double currentPrice) {
         if (!BinanceConfig.isConfigured()) {
             // Simulation Mode: Deduct USDT, Add BTC
-            Wallet wallet = Wallet.getInstance();
             double cost = order.quantity * currentPrice;
 
             if (wallet.getUsdtBalance() >= cost) {
                 wallet.withdrawUsdt(cost);
                 wallet.depositBtc(order.quantity);
                 System.out.println("SIMULATION BUY | Cost: " + String.format("%.2f", cost) + " USDT");
+                return OrderFill.filled(order, currentPrice);
             } else {
                 System.out.println("SIMULATION BUY FAILED | Insufficient USDT");
+                return OrderFill.rejected(order, "Insufficient USDT");
             }
         } else {
             // Real Execution Mode: Call Binance API
-            BinanceService service = new BinanceService();
-            service.placeOrder(order.symbol, "BUY", order.quantity);
+            return service().placeOrder(order.symbol, "BUY", order.quantity);
         }
     }
 
@@ -47,24 +78,44 @@ public class OrderReceiver {
      * 
      * @param order The order details.
      * @param currentPrice The current market price (used for simulation calculations).
+     * @return The fill (REJECTED if the order could not be placed).
      */
-    public void placeSellOrder(Order order, double currentPrice) {
+    public OrderFill placeSellOrder(Order order, double currentPrice) {
+        TickEvents.OrderSubmit trace = new TickEvents.OrderSubmit();
+        trace.begin();
+        OrderFill fill = sell(order, currentPrice);
+        commit(trace, order, "SELL", fill);
+        return fill;
+    }
+
+    private OrderFill sell(Order order, double currentPrice) {
         if (!BinanceConfig.isConfigured()) {
             // Simulation Mode: Deduct BTC, Add USDT
-            Wallet wallet = Wallet.getInstance();
             double cost = order.quantity * currentPrice;
 
             if (wallet.getBtcBalance() >= order.quantity) {
                 wallet.withdrawBtc(order.quantity);
                 wallet.depositUsdt(cost);
                 System.out.println("SIMULATION SELL | Received: " + String.format("%.2f", cost) + " USDT");
+                return OrderFill.filled(order, currentPrice);
             } else {
                 System.out.println("SIMULATION SELL FAILED | Insufficient BTC");
+                return OrderFill.rejected(order, "Insufficient BTC");
             }
         } else {
             // Real Execution Mode: Call Binance API
-            BinanceService service = new BinanceService();
-            service.placeOrder(order.symbol, "SELL", order.quantity);
+            return service().placeOrder(order.symbol, "SELL", order.quantity);
         }
     }
+
+    private static void commit(TickEvents.OrderSubmit trace, Order order, String side, OrderFill fill) {
+        if (!trace.shouldCommit()) return;
+        trace.stamp();
+        trace.symbol = order.symbol;
+        trace.side = side;
+        trace.quantity = order.quantity;
+        trace.simulated = !BinanceConfig.isConfigured();
+        trace.status = fill == null ? null : fill.status;
+        trace.commit();
+    }
 }
@@ -1,6 +1,7 @@
 package commands;
 
 import models.Order;
+import models.OrderFill;
 
 public class SellCommand implements OrderCommand {
     private OrderReceiver receiver;
@@ -14,8 +15,8 @@ public class SellCommand implements OrderCommand {
     }
 
     @Override
-    public void execute() {
-        receiver.placeSellOrder(order, currentPrice);
+    public OrderFill execute() {
+        return receiver.placeSellOrder(order, currentPrice);
     }
 
     @Override
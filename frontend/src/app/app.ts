@@ -2,7 +2,7 @@ import { Component, OnInit, signal, ViewChild, ElementRef, AfterViewInit } from
 import { RouterOutlet } from '@angular/router';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
-import { TradeService, Trade } from './services/trade.service';
+import { TradeService, Trade, StreamEvent } from './services/trade.service';
 import { Chart, registerables } from 'chart.js';
 
 Chart.register(...registerables);
@@ -16,7 +16,11 @@ Chart.register(...registerables);
 })
 export class App implements OnInit, AfterViewInit {
   protected readonly title = signal('AI Trading Bot Dashboard');
+  // Symbol whose balances, chart and trades are shown; the stream carries every symbol
+  readonly symbol = 'BTCUSDT';
   trades: Trade[] = [];
+  // Newest journal rows (chart and balances), oldest first
+  recent: Trade[] = [];
   connected = signal(true);
 
   currentStrategy = signal('Loading...');
@@ -32,6 +36,8 @@ export class App implements OnInit, AfterViewInit {
   portfolioValue = signal(0);
   usdtBalance = signal(0);
   btcBalance = signal(0);
+  // Newest price of the symbol, for the portfolio value
+  lastPrice = 0;
 
   // Chart
   @ViewChild('priceChart') priceChart!: ElementRef;
@@ -40,10 +46,36 @@ export class App implements OnInit, AfterViewInit {
   constructor(private tradeService: TradeService) {}
 
   ngOnInit() {
-    this.fetchTrades();
-    this.fetchStrategy();
-    setInterval(() => this.fetchTrades(), 2000);
-    setInterval(() => this.fetchStrategy(), 5000);
+    // One snapshot on every (re)connect, then live updates from the event stream
+    this.tradeService.streamEvents().subscribe((event) => this.onEvent(event));
+  }
+
+  onEvent(event: StreamEvent) {
+    switch (event.type) {
+      case 'open':
+        this.connected.set(true);
+        this.fetchTrades();
+        this.fetchStrategy();
+        break;
+      case 'error':
+        this.connected.set(false);
+        break;
+      case 'trade':
+        if (event.data.symbol !== this.symbol) break;
+        this.recent = [...this.recent, event.data as Trade].slice(-50);
+        this.showRecent();
+        if (event.data.side !== 'HOLD') this.trades = [event.data as Trade, ...this.trades].slice(0, 200);
+        break;
+      case 'balance':
+        if (event.data.symbol !== this.symbol) break;
+        this.usdtBalance.set(event.data.usdt);
+        this.btcBalance.set(event.data.base);
+        this.updatePortfolioValue();
+        break;
+      case 'strategy':
+        this.setStrategyName(event.data.name);
+        break;
+    }
   }
 
   ngAfterViewInit() {
@@ -88,58 +120,66 @@ export class App implements OnInit, AfterViewInit {
   }
 
   fetchTrades() {
-    this.tradeService.getTrades().subscribe({
+    this.tradeService.getTrades(this.symbol).subscribe({
       next: (data) => {
-        if (data.length > 0) {
-          const latest = data[data.length - 1];
-          this.usdtBalance.set(latest.usdt || 1000);
-          this.btcBalance.set(latest.btc || 0);
-
-          const price = latest.price || 0;
-          this.portfolioValue.set(this.usdtBalance() + this.btcBalance() * price);
-
-          // Update Chart
-          if (this.chart) {
-            // Take last 50 points for better visualization
-            const recentData = data.slice(-50);
-            this.chart.data.labels = recentData.map((t) =>
-              new Date(t.timestamp).toLocaleTimeString()
-            );
-            this.chart.data.datasets[0].data = recentData.map((t) => t.price);
-            this.chart.update();
-          }
-        }
-
-        this.trades = data.filter((t) => t.side !== 'HOLD').reverse();
-        this.connected.set(true);
+        this.recent = data;
+        this.showRecent();
       },
       error: (err) => {
         console.error('Error fetching trades', err);
         this.connected.set(false);
       },
     });
+
+    this.tradeService.getOrders(this.symbol).subscribe({
+      next: (data) => (this.trades = data.reverse()),
+      error: (err) => console.error('Error fetching orders', err),
+    });
+  }
+
+  // Balances, portfolio value and chart from the newest journal rows
+  showRecent() {
+    if (this.recent.length === 0) return;
+    const latest = this.recent[this.recent.length - 1];
+    this.usdtBalance.set(latest.usdt || 1000);
+    this.btcBalance.set(latest.btc || 0);
+
+    this.lastPrice = latest.price || 0;
+    this.updatePortfolioValue();
+
+    // Update Chart (last 50 points for better visualization)
+    if (this.chart) {
+      this.chart.data.labels = this.recent.map((t) => new Date(t.timestamp).toLocaleTimeString());
+      this.chart.data.datasets[0].data = this.recent.map((t) => t.price);
+      this.chart.update();
+    }
+  }
+
+  updatePortfolioValue() {
+    this.portfolioValue.set(this.usdtBalance() + this.btcBalance() * this.lastPrice);
   }
 
   fetchStrategy() {
     if (!this.connected()) return;
     this.tradeService.getStrategy().subscribe({
-      next: (data) => {
-        const name = data.name;
-        this.currentStrategy.set(name);
-
-        if (name.includes('ADX')) this.selectedStrategy = 'ADX';
-        else if (name.includes('MACD')) this.selectedStrategy = 'MACD';
-        else if (name.includes('RSI')) this.selectedStrategy = 'RSI';
-        else if (name.includes('SMA') || name.includes('Sma'))
-          this.selectedStrategy = 'SmaCrossover';
-        else if (name.includes('Trend')) this.selectedStrategy = 'TrendFollowing';
-        else if (name.includes('Risk') || name.includes('Default'))
-          this.selectedStrategy = 'Default';
-      },
+      next: (data) => this.setStrategyName(data.name),
       error: (err) => console.error('Error fetching strategy', err),
     });
   }
 
+  setStrategyName(name: string) {
+    this.currentStrategy.set(name);
+
+    if (name.includes('ADX')) this.selectedStrategy = 'ADX';
+    else if (name.includes('MACD')) this.selectedStrategy = 'MACD';
+    else if (name.includes('RSI')) this.selectedStrategy = 'RSI';
+    else if (name.includes('SMA') || name.includes('Sma'))
+      this.selectedStrategy = 'SmaCrossover';
+    else if (name.includes('Trend')) this.selectedStrategy = 'TrendFollowing';
+    else if (name.includes('Risk') || name.includes('Default'))
+      this.selectedStrategy = 'Default';
+  }
+
   applyConfig() {
     this.tradeService.updateStrategy(this.selectedStrategy, this.selectedDecorator).subscribe({
       next: (res) => {
@@ -16,6 +16,16 @@ export interface StrategyConfig {
   name: string;
 }
 
+// Event types pushed by /api/stream
+export type StreamEventType = 'candle' | 'signal' | 'order' | 'fill' | 'strategy' | 'balance' | 'trade';
+
+export interface StreamEvent {
+  type: StreamEventType | 'open' | 'error';
+  data: any;
+}
+
+const STREAM_EVENT_TYPES: StreamEventType[] = ['candle', 'signal', 'order', 'fill', 'strategy', 'balance', 'trade'];
+
 @Injectable({
   providedIn: 'root'
 })
@@ -24,14 +34,36 @@ export class TradeService {
 
   constructor(private http: HttpClient) { }
 
-  getTrades(): Observable<Trade[]> {
-    return this.http.get<Trade[]>(`${this.baseUrl}/trades`);
+  // Newest journal rows of the symbol (HOLD included), oldest first
+  getTrades(symbol: string, limit = 50): Observable<Trade[]> {
+    return this.http.get<Trade[]>(`${this.baseUrl}/trades?symbol=${symbol}&limit=${limit}`);
+  }
+
+  // Executed orders of the symbol only
+  getOrders(symbol: string, limit = 200): Observable<Trade[]> {
+    return this.http.get<Trade[]>(`${this.baseUrl}/trades?symbol=${symbol}&side=BUY,SELL&limit=${limit}`);
   }
 
   getStrategy(): Observable<StrategyConfig> {
     return this.http.get<StrategyConfig>(`${this.baseUrl}/strategy`);
   }
 
+  // Live events; 'open' is emitted on every (re)connect, 'error' when the connection drops.
+  // The browser reconnects by itself, so the observable only ends on unsubscribe.
+  streamEvents(): Observable<StreamEvent> {
+    return new Observable<StreamEvent>((subscriber) => {
+      const source = new EventSource(`${this.baseUrl}/stream`);
+      source.onopen = () => subscriber.next({ type: 'open', data: null });
+      source.onerror = () => subscriber.next({ type: 'error', data: null });
+      for (const type of STREAM_EVENT_TYPES) {
+        source.addEventListener(type, (event) =>
+          subscriber.next({ type, data: JSON.parse((event as MessageEvent).data) })
+        );
+      }
+      return () => source.close();
+    });
+  }
+
   updateStrategy(strategy: string, decorator: string): Observable<any> {
     return this.http.post(`${this.baseUrl}/strategy`, { strategy, decorator });
   }
@@ -0,0 +1,150 @@
+package indicators;
+
+import models.Candle;
+
+/**
+ * Average Directional Index with +DI / -DI (Wilder).
+ * TR, +DM and -DM are Wilder-smoothed sums, DX is derived from the DIs and
+ * ADX is the Wilder average of DX. The primary value() is the ADX.
+ */
+public class Adx extends Indicator {
+    private final int period;
+
+    private double prevHigh = 0;
+    private double prevLow = 0;
+    private double prevClose = 0;
+    private double smoothTR = 0;
+    private double smoothPlusDM = 0;
+    private double smoothMinusDM = 0;
+    private double adx = 0;
+    private double plusDI = Double.NaN;
+    private double minusDI = Double.NaN;
+    private long count = 0; // Candles seen
+
+    // Checkpoint
+    private double savedPrevHigh, savedPrevLow, savedPrevClose;
+    private double savedSmoothTR, savedSmoothPlusDM, savedSmoothMinusDM;
+    private double savedAdx, savedPlusDI, savedMinusDI;
+    private long savedCount;
+
+    public Adx(int period) {
+        this.period = period;
+    }
+
+    @Override
+    protected double compute(Candle candle) {
+        count++;
+        if (count == 1) {
+            remember(candle);
+            return Double.NaN;
+        }
+
+        double tr = Atr.trueRange(candle, prevClose);
+        double upMove = candle.high - prevHigh;
+        double downMove = prevLow - candle.low;
+        double pdm = (upMove > downMove && upMove > 0) ? upMove : 0;
+        double mdm = (downMove > upMove && downMove > 0) ? downMove : 0;
+        remember(candle);
+
+        long moves = count - 1;
+        if (moves <= period) {
+            // Seed the smoothed sums with plain sums over the first period
+            smoothTR += tr;
+            smoothPlusDM += pdm;
+            smoothMinusDM += mdm;
+            if (moves < period) return Double.NaN;
+        } else {
+            smoothTR = smoothTR - (smoothTR / period) + tr;
+            smoothPlusDM = smoothPlusDM - (smoothPlusDM / period) + pdm;
+            smoothMinusDM = smoothMinusDM - (smoothMinusDM / period) + mdm;
+        }
+
+        double trBase = smoothTR == 0 ? 1 : smoothTR;
+        plusDI = 100 * (smoothPlusDM / trBase);
+        minusDI = 100 * (smoothMinusDM / trBase);
+        double diSum = plusDI + minusDI;
+        double dx = diSum == 0 ? 0 : 100 * Math.abs(plusDI - minusDI) / diSum;
+
+        // DX values number (moves - period + 1); ADX is seeded by their mean
+        long dxCount = moves - period + 1;
+        if (dxCount <= period) {
+            adx += dx;
+            if (dxCount < period) return Double.NaN;
+            adx /= period;
+        } else {
+            adx = (adx * (period - 1) + dx) / period;
+        }
+        return adx;
+    }
+
+    private void remember(Candle candle) {
+        prevHigh = candle.high;
+        prevLow = candle.low;
+        prevClose = candle.close;
+    }
+
+    /**
+     * @return The latest +DI (bullish directional indicator), NaN while warming up.
+     */
+    public double plusDI() {
+        return plusDI;
+    }
+
+    /**
+     * @return The latest -DI (bearish directional indicator), NaN while warming up.
+     */
+    public double minusDI() {
+        return minusDI;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= 2L * period;
+    }
+
+    @Override
+    protected void checkpoint() {
+        savedPrevHigh = prevHigh;
+        savedPrevLow = prevLow;
+        savedPrevClose = prevClose;
+        savedSmoothTR = smoothTR;
+        savedSmoothPlusDM = smoothPlusDM;
+        savedSmoothMinusDM = smoothMinusDM;
+        savedAdx = adx;
+        savedPlusDI = plusDI;
+        savedMinusDI = minusDI;
+        savedCount = count;
+    }
+
+    @Override
+    protected void rollback() {
+        prevHigh = savedPrevHigh;
+        prevLow = savedPrevLow;
+        prevClose = savedPrevClose;
+        smoothTR = savedSmoothTR;
+        smoothPlusDM = savedSmoothPlusDM;
+        smoothMinusDM = savedSmoothMinusDM;
+        adx = savedAdx;
+        plusDI = savedPlusDI;
+        minusDI = savedMinusDI;
+        count = savedCount;
+    }
+
+    @Override
+    protected void clear() {
+        prevHigh = 0;
+        prevLow = 0;
+        prevClose = 0;
+        smoothTR = 0;
+        smoothPlusDM = 0;
+        smoothMinusDM = 0;
+        adx = 0;
+        plusDI = Double.NaN;
+        minusDI = Double.NaN;
+        count = 0;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
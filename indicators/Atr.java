@@ -0,0 +1,83 @@
+package indicators;
+
+import models.Candle;
+
+/**
+ * Average True Range with Wilder's smoothing.
+ * True Range = max(high - low, |high - prevClose|, |low - prevClose|).
+ */
+public class Atr extends Indicator {
+    private final int period;
+
+    private double prevClose = 0;
+    private double atr = 0;
+    private long count = 0; // Candles seen (true ranges = count - 1)
+
+    // Checkpoint
+    private double savedPrevClose;
+    private double savedAtr;
+    private long savedCount;
+
+    public Atr(int period) {
+        this.period = period;
+    }
+
+    @Override
+    protected double compute(Candle candle) {
+        count++;
+        if (count == 1) {
+            prevClose = candle.close;
+            return Double.NaN;
+        }
+
+        double tr = trueRange(candle, prevClose);
+        prevClose = candle.close;
+        long ranges = count - 1;
+
+        if (ranges <= period) {
+            atr += tr;
+            if (ranges < period) return Double.NaN;
+            atr /= period;
+        } else {
+            atr = (atr * (period - 1) + tr) / period;
+        }
+        return atr;
+    }
+
+    static double trueRange(Candle curr, double prevClose) {
+        double tr1 = curr.high - curr.low;
+        double tr2 = Math.abs(curr.high - prevClose);
+        double tr3 = Math.abs(curr.low - prevClose);
+        return Math.max(tr1, Math.max(tr2, tr3));
+    }
+
+    @Override
+    public boolean isReady() {
+        return count > period;
+    }
+
+    @Override
+    protected void checkpoint() {
+        savedPrevClose = prevClose;
+        savedAtr = atr;
+        savedCount = count;
+    }
+
+    @Override
+    protected void rollback() {
+        prevClose = savedPrevClose;
+        atr = savedAtr;
+        count = savedCount;
+    }
+
+    @Override
+    protected void clear() {
+        prevClose = 0;
+        atr = 0;
+        count = 0;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
@@ -0,0 +1,82 @@
+package indicators;
+
+import models.Candle;
+
+/**
+ * Exponential Moving Average, seeded with the SMA of the first 'period' inputs.
+ */
+public class Ema extends Indicator {
+    private final int period;
+    private final double k; // Smoothing factor 2 / (period + 1)
+    private final PriceField source;
+
+    private double ema = 0;
+    private double seedSum = 0;
+    private long count = 0;
+
+    // Checkpoint
+    private double savedEma;
+    private double savedSeedSum;
+    private long savedCount;
+
+    public Ema(int period) {
+        this(period, PriceField.CLOSE);
+    }
+
+    public Ema(int period, PriceField source) {
+        this.period = period;
+        this.k = 2.0 / (period + 1);
+        this.source = source;
+    }
+
+    @Override
+    protected double compute(Candle candle) {
+        return next(source.of(candle));
+    }
+
+    // Folds a raw input value (also used by MACD for its signal line)
+    double next(double v) {
+        count++;
+        if (count < period) {
+            seedSum += v;
+            return Double.NaN;
+        }
+        if (count == period) {
+            seedSum += v;
+            ema = seedSum / period;
+            return ema;
+        }
+        ema += k * (v - ema);
+        return ema;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    protected void checkpoint() {
+        savedEma = ema;
+        savedSeedSum = seedSum;
+        savedCount = count;
+    }
+
+    @Override
+    protected void rollback() {
+        ema = savedEma;
+        seedSum = savedSeedSum;
+        count = savedCount;
+    }
+
+    @Override
+    protected void clear() {
+        ema = 0;
+        seedSum = 0;
+        count = 0;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
@@ -0,0 +1,214 @@
+package indicators;
+
+import java.util.List;
+import models.Candle;
+import models.CandleSeries;
+
+/**
+ * Base class for streaming (incremental) indicators.
+ * Each candle is folded into a running state in constant time, so a tick costs
+ * O(1) instead of a rescan of the whole lookback window.
+ *
+ * The newest candle can be revised (e.g. the in-progress bar of a live interval):
+ * the state is rolled back to the checkpoint taken before that candle and the
+ * revised values are applied again.
+ */
+public abstract class Indicator {
+    private static final int DEFAULT_HISTORY = 16;
+
+    private final ValueHistory history; // Recent outputs, newest first
+    private long bars = 0;              // Candles folded into the state so far
+
+    // List cursor: the last candle applied by sync(List)
+    private Candle lastCandle;
+    private long lastOpenTime;
+
+    // Series cursor: position in the CandleSeries used by sync(CandleSeries)
+    private CandleSeries boundSeries;
+    private long seriesNext;      // Sequence number of the next candle to apply
+    private long seriesRevisions; // series.revisions() at the last sync
+    private long seriesEpoch;     // series.epoch() at the last sync
+    private final Candle scratch = new Candle(0, 0, 0, 0, 0, 0, 0); // Reused to read columns
+
+    protected Indicator() {
+        this(DEFAULT_HISTORY);
+    }
+
+    /**
+     * @param historySize How many past outputs are kept for value(barsAgo) lookups.
+     */
+    protected Indicator(int historySize) {
+        this.history = new ValueHistory(historySize);
+    }
+
+    /**
+     * Appends a new candle.
+     *
+     * @param candle The candle that just opened/closed after the previous one.
+     */
+    public final void update(Candle candle) {
+        checkpoint();
+        bars++;
+        history.push(compute(candle));
+        lastCandle = candle;
+        lastOpenTime = candle.openTime;
+    }
+
+    /**
+     * Replaces the most recently applied candle with a newer version of the same bar.
+     *
+     * @param candle The revised candle.
+     */
+    public final void revise(Candle candle) {
+        if (bars == 0) {
+            update(candle);
+            return;
+        }
+        rollback();
+        history.set(compute(candle));
+        lastCandle = candle;
+        lastOpenTime = candle.openTime;
+    }
+
+    /**
+     * Brings the indicator up to date with a candle window.
+     * Only candles appended since the previous call are applied, so the usual cost is
+     * one update per tick. Falls back to a full replay if the window no longer contains
+     * the last candle seen (e.g. the indicator was handed a different series).
+     *
+     * @param candles The historical candles, oldest first, ordered by openTime.
+     */
+    public final void sync(List<Candle> candles) {
+        if (candles instanceof CandleSeries.View) {
+            sync(((CandleSeries.View) candles).series());
+            return;
+        }
+
+        int n = candles.size();
+        if (n == 0) return;
+
+        int from = 0;
+        if (lastCandle == null) {
+            // Fed from a series (or nothing) so far -> no usable cursor
+            if (bars > 0) reset();
+        } else {
+            int match = -1;
+            int sameBar = -1;
+            for (int i = n - 1; i >= 0; i--) {
+                Candle c = candles.get(i);
+                if (c == lastCandle) {
+                    match = i;
+                    break;
+                }
+                if (c.openTime < lastOpenTime) break;
+                if (c.openTime == lastOpenTime && sameBar == -1) sameBar = i;
+            }
+
+            if (match >= 0) {
+                from = match + 1;
+            } else if (sameBar >= 0) {
+                // Same bar delivered as a new instance -> treat it as a revision
+                revise(candles.get(sameBar));
+                from = sameBar + 1;
+            } else {
+                reset();
+            }
+        }
+
+        for (int i = from; i < n; i++) {
+            update(candles.get(i));
+        }
+        boundSeries = null;
+    }
+
+    /**
+     * Brings the indicator up to date with a columnar candle window.
+     * Uses the series sequence numbers to apply only new candles, and re-applies the
+     * last one if it was updated in place. Reads columns into a reused Candle, so a
+     * sync allocates nothing.
+     *
+     * @param series The candle window.
+     */
+    public final void sync(CandleSeries series) {
+        int n = series.size();
+        long end = series.sequence();
+        long first = end - n; // Sequence number of index 0
+
+        long from;
+        if (series != boundSeries || series.epoch() != seriesEpoch || seriesNext > end || seriesNext < first) {
+            // Different series, cleared, or candles were evicted before we saw them
+            reset();
+            from = first;
+        } else {
+            from = seriesNext;
+            if (series.revisions() != seriesRevisions && from > first) {
+                revise(series.load((int) (from - 1 - first), scratch));
+            }
+        }
+
+        for (long seq = from; seq < end; seq++) {
+            update(series.load((int) (seq - first), scratch));
+        }
+
+        boundSeries = series;
+        seriesNext = end;
+        seriesRevisions = series.revisions();
+        seriesEpoch = series.epoch();
+        lastCandle = null; // The scratch candle must not be used as a list cursor
+    }
+
+    /**
+     * Clears all state so the indicator can be replayed from scratch.
+     */
+    public final void reset() {
+        clear();
+        history.clear();
+        bars = 0;
+        lastCandle = null;
+        lastOpenTime = 0;
+        boundSeries = null;
+    }
+
+    /**
+     * @return The latest output, or NaN while the indicator is warming up.
+     */
+    public double value() {
+        return history.get(0);
+    }
+
+    /**
+     * @param barsAgo 0 for the latest output, 1 for the previous one, etc.
+     * @return The output at that offset, or NaN if it is not available.
+     */
+    public double value(int barsAgo) {
+        return history.get(barsAgo);
+    }
+
+    /**
+     * @return Number of candles applied so far.
+     */
+    public long bars() {
+        return bars;
+    }
+
+    /**
+     * @return True once enough candles were seen to produce a meaningful value.
+     */
+    public abstract boolean isReady();
+
+    /**
+     * Folds the candle into the running state.
+     *
+     * @return The new output (NaN while warming up).
+     */
+    protected abstract double compute(Candle candle);
+
+    // Saves the running state before a candle is applied
+    protected abstract void checkpoint();
+
+    // Restores the state saved by the last checkpoint()
+    protected abstract void rollback();
+
+    // Clears the running state
+    protected abstract void clear();
+}
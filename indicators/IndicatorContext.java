@@ -0,0 +1,72 @@
+package indicators;
+
+import java.util.List;
+import models.Candle;
+import indicators.IndicatorEngine.Kind;
+
+/**
+ * Per-tick view of an IndicatorEngine.
+ * Passed from the Bot through the StrategySelector, the strategies and the decorators
+ * so that every (indicator, parameters) pair is computed at most once per candle.
+ * Only valid for the tick it was handed out for.
+ */
+public class IndicatorContext {
+    private final IndicatorEngine engine;
+    private List<Candle> candles = List.of();
+    private long tick = 0;
+
+    IndicatorContext(IndicatorEngine engine) {
+        this.engine = engine;
+    }
+
+    void begin(List<Candle> candles, long tick) {
+        this.candles = candles;
+        this.tick = tick;
+    }
+
+    /**
+     * @return The candle window of this tick.
+     */
+    public List<Candle> candles() {
+        return candles;
+    }
+
+    /**
+     * @return Index of the newest candle in the window (-1 if empty).
+     */
+    public int index() {
+        return candles.size() - 1;
+    }
+
+    public long tickId() {
+        return tick;
+    }
+
+    public Sma sma(int period) {
+        return sma(period, PriceField.CLOSE);
+    }
+
+    public Sma sma(int period, PriceField source) {
+        return (Sma) engine.get(Kind.SMA, source, period, 0, 0);
+    }
+
+    public Ema ema(int period) {
+        return (Ema) engine.get(Kind.EMA, PriceField.CLOSE, period, 0, 0);
+    }
+
+    public Rsi rsi(int period) {
+        return (Rsi) engine.get(Kind.RSI, PriceField.CLOSE, period, 0, 0);
+    }
+
+    public Atr atr(int period) {
+        return (Atr) engine.get(Kind.ATR, PriceField.CLOSE, period, 0, 0);
+    }
+
+    public Adx adx(int period) {
+        return (Adx) engine.get(Kind.ADX, PriceField.CLOSE, period, 0, 0);
+    }
+
+    public Macd macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+        return (Macd) engine.get(Kind.MACD, PriceField.CLOSE, fastPeriod, slowPeriod, signalPeriod);
+    }
+}
@@ -0,0 +1,121 @@
+package indicators;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import models.Candle;
+
+/**
+ * Owns the streaming indicators of one candle stream (e.g. one Bot) and hands out
+ * a per-tick IndicatorContext.
+ *
+ * Indicators are created on first request and shared by everyone asking for the
+ * same (indicator, parameters) key, so the StrategySelector, the active strategy and
+ * its decorators all read the same RSI/ADX/... instances. Within a tick each
+ * indicator is synced at most once: the first lookup is a miss (sync), later
+ * lookups are hits (plain reads).
+ */
+public class IndicatorEngine {
+
+    enum Kind { SMA, EMA, RSI, ATR, ADX, MACD }
+
+    // Process-wide totals across all engines (indicator_cache_hits / indicator_cache_misses)
+    private static final LongAdder TOTAL_HITS = new LongAdder();
+    private static final LongAdder TOTAL_MISSES = new LongAdder();
+
+    // Small linear table: a bot only uses a handful of indicators
+    private long[] keys = new long[8];
+    private Indicator[] indicators = new Indicator[8];
+    private long[] syncedTick = new long[8];
+    private int count = 0;
+
+    private IndicatorContext context; // Created on the first tick, so 'this' does not escape the constructor
+    private List<Candle> candles = List.of();
+    private long tick = 0;
+
+    /**
+     * Starts a new tick on the given candle window.
+     * The returned context is reused between ticks and is only valid until the next call.
+     *
+     * @param candles The historical candles, oldest first.
+     * @return The context to query indicators for this tick.
+     */
+    public IndicatorContext tick(List<Candle> candles) {
+        this.candles = candles;
+        this.tick++;
+        if (context == null) context = new IndicatorContext(this);
+        context.begin(candles, tick);
+        return context;
+    }
+
+    Indicator get(Kind kind, PriceField field, int a, int b, int c) {
+        long key = key(kind, field, a, b, c);
+        int slot = -1;
+        for (int i = 0; i < count; i++) {
+            if (keys[i] == key) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot == -1) {
+            slot = add(key, create(kind, field, a, b, c));
+        }
+
+        if (syncedTick[slot] == tick) {
+            TOTAL_HITS.increment();
+        } else {
+            indicators[slot].sync(candles);
+            syncedTick[slot] = tick;
+            TOTAL_MISSES.increment();
+        }
+        return indicators[slot];
+    }
+
+    private int add(long key, Indicator indicator) {
+        if (count == keys.length) {
+            int size = keys.length * 2;
+            keys = Arrays.copyOf(keys, size);
+            indicators = Arrays.copyOf(indicators, size);
+            syncedTick = Arrays.copyOf(syncedTick, size);
+        }
+        keys[count] = key;
+        indicators[count] = indicator;
+        syncedTick[count] = -1;
+        return count++;
+    }
+
+    private Indicator create(Kind kind, PriceField field, int a, int b, int c) {
+        switch (kind) {
+            case SMA: return new Sma(a, field);
+            case EMA: return new Ema(a, field);
+            case RSI: return new Rsi(a);
+            case ATR: return new Atr(a);
+            case ADX: return new Adx(a);
+            case MACD: return new Macd(a, b, c);
+            default: throw new IllegalArgumentException("Unknown indicator: " + kind);
+        }
+    }
+
+    // Packs (kind, field, up to three 16-bit parameters) into one lookup key
+    private static long key(Kind kind, PriceField field, int a, int b, int c) {
+        return ((long) kind.ordinal() << 56)
+                | ((long) field.ordinal() << 48)
+                | ((long) (a & 0xFFFF) << 32)
+                | ((long) (b & 0xFFFF) << 16)
+                | (c & 0xFFFF);
+    }
+
+    /**
+     * @return Lookups, across all engines, served without recomputation (indicator already synced this tick).
+     */
+    public static long getTotalHits() {
+        return TOTAL_HITS.sum();
+    }
+
+    /**
+     * @return Lookups, across all engines, that had to sync (compute) the indicator.
+     */
+    public static long getTotalMisses() {
+        return TOTAL_MISSES.sum();
+    }
+}
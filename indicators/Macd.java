@@ -0,0 +1,97 @@
+package indicators;
+
+import models.Candle;
+
+/**
+ * Moving Average Convergence Divergence.
+ * MACD Line = EMA(fast) - EMA(slow), Signal Line = EMA(signal) of the MACD Line,
+ * Histogram = MACD Line - Signal Line. The primary value() is the histogram.
+ */
+public class Macd extends Indicator {
+    private final Ema fast;
+    private final Ema slow;
+    private final Ema signal; // Fed with MACD line values, not candles
+
+    private double macdLine = Double.NaN;
+    private double signalLine = Double.NaN;
+
+    // Checkpoint
+    private double savedMacdLine;
+    private double savedSignalLine;
+
+    public Macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+        this.fast = new Ema(fastPeriod);
+        this.slow = new Ema(slowPeriod);
+        this.signal = new Ema(signalPeriod);
+    }
+
+    @Override
+    protected double compute(Candle candle) {
+        double fastEma = fast.next(candle.close);
+        double slowEma = slow.next(candle.close);
+        if (!slow.isReady() || !fast.isReady()) {
+            macdLine = Double.NaN;
+            signalLine = Double.NaN;
+            return Double.NaN;
+        }
+
+        macdLine = fastEma - slowEma;
+        signalLine = signal.next(macdLine);
+        if (!signal.isReady()) return Double.NaN;
+        return macdLine - signalLine;
+    }
+
+    /**
+     * @return The latest MACD line (fast EMA - slow EMA), NaN while warming up.
+     */
+    public double macdLine() {
+        return macdLine;
+    }
+
+    /**
+     * @return The latest signal line (EMA of the MACD line), NaN while warming up.
+     */
+    public double signalLine() {
+        return signalLine;
+    }
+
+    /**
+     * @param barsAgo 0 for the latest histogram, 1 for the previous one, etc.
+     * @return MACD Line - Signal Line at that offset.
+     */
+    public double histogram(int barsAgo) {
+        return value(barsAgo);
+    }
+
+    @Override
+    public boolean isReady() {
+        return signal.isReady();
+    }
+
+    @Override
+    protected void checkpoint() {
+        fast.checkpoint();
+        slow.checkpoint();
+        signal.checkpoint();
+        savedMacdLine = macdLine;
+        savedSignalLine = signalLine;
+    }
+
+    @Override
+    protected void rollback() {
+        fast.rollback();
+        slow.rollback();
+        signal.rollback();
+        macdLine = savedMacdLine;
+        signalLine = savedSignalLine;
+    }
+
+    @Override
+    protected void clear() {
+        fast.clear();
+        slow.clear();
+        signal.clear();
+        macdLine = Double.NaN;
+        signalLine = Double.NaN;
+    }
+}
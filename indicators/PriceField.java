@@ -0,0 +1,24 @@
+package indicators;
+
+import models.Candle;
+
+/**
+ * The candle field an indicator reads its input from.
+ */
+public enum PriceField {
+    OPEN,
+    HIGH,
+    LOW,
+    CLOSE,
+    VOLUME;
+
+    public double of(Candle candle) {
+        switch (this) {
+            case OPEN: return candle.open;
+            case HIGH: return candle.high;
+            case LOW: return candle.low;
+            case VOLUME: return candle.volume;
+            default: return candle.close;
+        }
+    }
+}
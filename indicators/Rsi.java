@@ -0,0 +1,101 @@
+package indicators;
+
+import models.Candle;
+
+/**
+ * Relative Strength Index with Wilder's smoothing.
+ * The first average gain/loss is a simple mean over 'period' changes,
+ * after that: avg = (prevAvg * (period - 1) + current) / period.
+ */
+public class Rsi extends Indicator {
+    private final int period;
+
+    private double prevClose = 0;
+    private double avgGain = 0;
+    private double avgLoss = 0;
+    private long count = 0; // Candles seen (changes = count - 1)
+
+    // Checkpoint
+    private double savedPrevClose;
+    private double savedAvgGain;
+    private double savedAvgLoss;
+    private long savedCount;
+
+    public Rsi(int period) {
+        this(period, 16);
+    }
+
+    /**
+     * @param period The RSI period (usually 14).
+     * @param historySize How many past RSI values are kept for lookups.
+     */
+    public Rsi(int period, int historySize) {
+        super(historySize);
+        this.period = period;
+    }
+
+    @Override
+    protected double compute(Candle candle) {
+        double close = candle.close;
+        count++;
+        if (count == 1) {
+            prevClose = close;
+            return Double.NaN;
+        }
+
+        double change = close - prevClose;
+        prevClose = close;
+        double gain = change > 0 ? change : 0;
+        double loss = change < 0 ? -change : 0;
+        long changes = count - 1;
+
+        if (changes <= period) {
+            // Seed phase: accumulate, then average on the period-th change
+            avgGain += gain;
+            avgLoss += loss;
+            if (changes < period) return Double.NaN;
+            avgGain /= period;
+            avgLoss /= period;
+        } else {
+            avgGain = (avgGain * (period - 1) + gain) / period;
+            avgLoss = (avgLoss * (period - 1) + loss) / period;
+        }
+
+        if (avgLoss == 0) return 100;
+        double rs = avgGain / avgLoss;
+        return 100 - (100 / (1 + rs));
+    }
+
+    @Override
+    public boolean isReady() {
+        return count > period;
+    }
+
+    @Override
+    protected void checkpoint() {
+        savedPrevClose = prevClose;
+        savedAvgGain = avgGain;
+        savedAvgLoss = avgLoss;
+        savedCount = count;
+    }
+
+    @Override
+    protected void rollback() {
+        prevClose = savedPrevClose;
+        avgGain = savedAvgGain;
+        avgLoss = savedAvgLoss;
+        count = savedCount;
+    }
+
+    @Override
+    protected void clear() {
+        prevClose = 0;
+        avgGain = 0;
+        avgLoss = 0;
+        count = 0;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
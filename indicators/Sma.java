@@ -0,0 +1,82 @@
+package indicators;
+
+import models.Candle;
+
+/**
+ * Simple Moving Average kept as a running sum over a ring buffer window.
+ */
+public class Sma extends Indicator {
+    private final int period;
+    private final PriceField source;
+
+    private final double[] window; // Last 'period' inputs
+    private int pos = 0;           // Slot the next input is written to
+    private double sum = 0;
+    private long count = 0;
+
+    // Checkpoint
+    private int savedPos;
+    private double savedSum;
+    private long savedCount;
+    private double savedSlot;
+
+    public Sma(int period) {
+        this(period, PriceField.CLOSE);
+    }
+
+    public Sma(int period, PriceField source) {
+        this.period = period;
+        this.source = source;
+        this.window = new double[period];
+    }
+
+    @Override
+    protected double compute(Candle candle) {
+        double v = source.of(candle);
+        if (count >= period) sum -= window[pos];
+        window[pos] = v;
+        sum += v;
+        pos = (pos + 1) % period;
+        count++;
+
+        // Re-sum once per full rotation so floating point drift cannot accumulate
+        if (pos == 0 && count >= period) {
+            double exact = 0;
+            for (double w : window) exact += w;
+            sum = exact;
+        }
+        return count >= period ? sum / period : Double.NaN;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    protected void checkpoint() {
+        savedPos = pos;
+        savedSum = sum;
+        savedCount = count;
+        savedSlot = window[pos];
+    }
+
+    @Override
+    protected void rollback() {
+        pos = savedPos;
+        sum = savedSum;
+        count = savedCount;
+        window[pos] = savedSlot;
+    }
+
+    @Override
+    protected void clear() {
+        pos = 0;
+        sum = 0;
+        count = 0;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
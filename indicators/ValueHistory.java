@@ -0,0 +1,50 @@
+package indicators;
+
+/**
+ * Fixed-size ring buffer holding the most recent outputs of an indicator.
+ * Lookups by "bars ago" are plain array reads.
+ */
+class ValueHistory {
+    private final double[] values;
+    private int head = -1; // Index of the newest value
+    private int size = 0;  // Number of valid values stored
+
+    ValueHistory(int capacity) {
+        this.values = new double[Math.max(2, capacity)];
+    }
+
+    void push(double value) {
+        head = (head + 1) % values.length;
+        values[head] = value;
+        if (size < values.length) size++;
+    }
+
+    // Overwrites the newest value (used when the last candle is revised)
+    void set(double value) {
+        if (size == 0) {
+            push(value);
+            return;
+        }
+        values[head] = value;
+    }
+
+    double get(int barsAgo) {
+        if (barsAgo < 0 || barsAgo >= size) return Double.NaN;
+        int idx = head - barsAgo;
+        if (idx < 0) idx += values.length;
+        return values[idx];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return values.length;
+    }
+
+    void clear() {
+        head = -1;
+        size = 0;
+    }
+}
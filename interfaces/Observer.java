@@ -3,5 +3,9 @@ package interfaces;
 import models.*;
 
 public interface Observer {
-    void priceUpdated(Candle candle);
+    /**
+     * @param candle The bar the event is about.
+     * @param event BAR_UPDATE for a snapshot of the forming bar, BAR_CLOSE once it has closed.
+     */
+    void priceUpdated(Candle candle, BarEvent event);
 }
@@ -1,10 +1,21 @@
 package interfaces;
 
 import java.util.List;
+import indicators.IndicatorContext;
 import models.*;
 
 public interface TradingStrategy{
 
     Signal generateSignal(List<Candle> candles);
+
+    // Same as generateSignal(candles), reading indicators from the shared per-tick context
+    default Signal generateSignal(List<Candle> candles, IndicatorContext context) {
+        return generateSignal(candles);
+    }
+
     String getName();
-}
\ No newline at end of file
+
+    // Turns the strategy's console output on or off (e.g. off for backtests)
+    default void setLogging(boolean logging) {
+    }
+}
@@ -1,20 +1,71 @@
 package interfaces;
 
 import java.util.*;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
 import models.*;
 
 public abstract class TradingTemplate {
 
+    // Default sliding window size (candles kept in memory)
+    public static final int DEFAULT_WINDOW = 500;
+
     protected TradingStrategy strategy;
-    protected ArrayList<Candle> data = new ArrayList<>();
+    // Columnar ring buffer: O(1) append/evict, no per-tick allocation
+    protected final CandleSeries data;
+
+    // Time spent in each stage of trade(), shared by all bots (trade_stage_seconds)
+    private static final String[] STAGES = {"fetchData", "evaluateData", "createOrder", "executeOrder", "logResult"};
+    private static final Histogram[] STAGE_TIMES = new Histogram[STAGES.length];
+    static {
+        for (int i = 0; i < STAGES.length; i++) {
+            STAGE_TIMES[i] = MetricsRegistry.getInstance().histogram("trade_stage_seconds",
+                    "Time spent in each stage of TradingTemplate.trade", "stage", STAGES[i]);
+        }
+    }
+    // Null when metrics are off (e.g. backtests)
+    private Histogram[] stageTimes = STAGE_TIMES;
+    // Subclasses record their own metrics only when this is set
+    protected boolean metricsEnabled = true;
+
+    protected TradingTemplate() {
+        this(DEFAULT_WINDOW);
+    }
+
+    protected TradingTemplate(int windowSize) {
+        this.data = new CandleSeries(windowSize);
+    }
 
     // Template Method (sabit akış)
     public final void trade(Candle candle) {
+        Histogram[] times = stageTimes;
+        long lap = times != null ? System.nanoTime() : 0;
         List<Candle> candles = fetchData(candle);
+        if (times != null) lap = lap(times[0], lap);
         Signal signal = evaluateData(candles);
+        if (times != null) lap = lap(times[1], lap);
         Order order = createOrder(signal);
+        if (times != null) lap = lap(times[2], lap);
         executeOrder(order);
+        if (times != null) lap = lap(times[3], lap);
         logResult(order);
+        if (times != null) lap(times[4], lap);
+    }
+
+    // Records the time since 'since' and returns the current time
+    private static long lap(Histogram stage, long since) {
+        long now = System.nanoTime();
+        stage.record(now - since);
+        return now;
+    }
+
+    /**
+     * Turns metrics (the per-stage timing of trade() and the subclass's counters) on or off.
+     * On by default; off for runs that should not show up in the live metrics, e.g. backtests.
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        this.metricsEnabled = enabled;
+        this.stageTimes = enabled ? STAGE_TIMES : null;
     }
 
     // Abstract method → gövde YOK
@@ -0,0 +1,94 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets.
+ *
+ * Every power of two between MIN and MAX nanoseconds (about 1 µs to 34 s) is split
+ * into SUB linear sub-buckets, so a bucket is at most 1/SUB of its value wide
+ * (12.5% with SUB = 8) over the whole range, with a fixed 202 buckets. The bucket of
+ * a value is found from its leading zeros and the next SUB_BITS bits; record() is a
+ * few instructions and two atomic adds, and never allocates.
+ */
+public class Histogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MIN_EXPONENT = 10; // Values below 2^10 ns (~1 µs) share the first bucket
+    private static final int MAX_EXPONENT = 35; // Values from 2^35 ns (~34 s) up share the last bucket
+    static final int BUCKETS = (MAX_EXPONENT - MIN_EXPONENT) * SUB + 2;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * Records one duration.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Records the time since 'startNanos' (a System.nanoTime() value).
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < (1L << MIN_EXPONENT)) return 0;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent >= MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return 1 + (exponent - MIN_EXPONENT) * SUB + sub;
+    }
+
+    /**
+     * @return Upper bound (ns, exclusive) of a bucket; Long.MAX_VALUE for the last one.
+     */
+    public static long upperBound(int bucket) {
+        if (bucket == 0) return 1L << MIN_EXPONENT;
+        if (bucket == BUCKETS - 1) return Long.MAX_VALUE;
+        int exponent = MIN_EXPONENT + (bucket - 1) / SUB;
+        int sub = (bucket - 1) % SUB;
+        return (1L << exponent) + ((long) (sub + 1) << (exponent - SUB_BITS));
+    }
+
+    /**
+     * @return Copy of the bucket counts (index 0 = fastest).
+     */
+    public long[] snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) copy[i] = counts.get(i);
+        return copy;
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+        return total;
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * @return Upper bound (ns) of the bucket holding the quantile (e.g. 0.99), -1 if empty.
+     */
+    public long quantileNanos(double quantile) {
+        long[] snapshot = snapshot();
+        long total = 0;
+        for (long count : snapshot) total += count;
+        if (total == 0) return -1;
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return upperBound(i);
+        }
+        return Long.MAX_VALUE;
+    }
+}
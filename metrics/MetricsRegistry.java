@@ -0,0 +1,161 @@
+package metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * In-process metrics, exported in the Prometheus text format (ApiService's /api/metrics).
+ *
+ * Metrics are looked up once, when the instrumented object is created, and kept in
+ * fields; the hot path then only calls Counter.increment() or Histogram.record(),
+ * which take no lock and allocate nothing. Registering the same name and labels
+ * again returns the existing metric, so e.g. all bots share one histogram per stage.
+ *
+ * Labels are given as name/value pairs: counter("orders_total", "help", "symbol", "BTCUSDT").
+ * Histograms are recorded in nanoseconds and exported in seconds.
+ */
+public class MetricsRegistry {
+
+    private enum Type { COUNTER, GAUGE, HISTOGRAM }
+
+    // One metric name: its help text, type and the metric per label set
+    private static final class Family {
+        final String name;
+        final String help;
+        final Type type;
+        final Map<String, Object> children = new LinkedHashMap<>(); // Rendered labels -> metric
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private static MetricsRegistry instance;
+
+    private final Map<String, Family> families = new LinkedHashMap<>();
+
+    /**
+     * @return The process-wide registry served at /api/metrics.
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) instance = new MetricsRegistry();
+        return instance;
+    }
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) register(name, help, Type.COUNTER, labels, Counter::new);
+    }
+
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) register(name, help, Type.HISTOGRAM, labels, Histogram::new);
+    }
+
+    /**
+     * Registers a value read at scrape time (queue depths, client counts). Registering
+     * the same name and labels again replaces the supplier.
+     */
+    public synchronized void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).children.put(renderLabels(labels), value);
+    }
+
+    private synchronized Object register(String name, String help, Type type, String[] labels,
+                                         java.util.function.Supplier<Object> create) {
+        return family(name, help, type).children.computeIfAbsent(renderLabels(labels), key -> create.get());
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (family.type != type) throw new IllegalArgumentException(name + " is already a " + family.type);
+        return family;
+    }
+
+    // name1="value1",name2="value2" (without braces)
+    private static String renderLabels(String[] labels) {
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("Labels must be name/value pairs");
+        StringBuilder rendered = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) rendered.append(',');
+            rendered.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '"' || c == '\\') rendered.append('\\').append(c);
+                else if (c == '\n') rendered.append("\\n");
+                else rendered.append(c);
+            }
+            rendered.append('"');
+        }
+        return rendered.toString();
+    }
+
+    /**
+     * @return All metrics in the Prometheus text exposition format (version 0.0.4).
+     */
+    public synchronized String scrape() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type.name().toLowerCase(Locale.ROOT)).append('\n');
+            for (Map.Entry<String, Object> child : family.children.entrySet()) {
+                String labels = child.getKey();
+                Object metric = child.getValue();
+                switch (family.type) {
+                    case COUNTER:
+                        sample(out, family.name, labels, null, ((Counter) metric).get());
+                        break;
+                    case GAUGE:
+                        sample(out, family.name, labels, null, ((DoubleSupplier) metric).getAsDouble());
+                        break;
+                    case HISTOGRAM:
+                        writeHistogram(out, family.name, labels, (Histogram) metric);
+                        break;
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    // Exports one le per power of two (1 µs .. 34 s, and +Inf) rather than every fine bucket:
+    // the fine buckets only sharpen in-process quantiles, and cost 8x the series to scrape
+    private static void writeHistogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        long[] counts = histogram.snapshot();
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            long bound = Histogram.upperBound(i);
+            if (bound != Long.MAX_VALUE && Long.bitCount(bound) != 1) continue;
+            String le = bound == Long.MAX_VALUE ? "+Inf" : seconds(bound);
+            sample(out, name + "_bucket", labels, le, cumulative);
+        }
+        sample(out, name + "_sum", labels, null, histogram.getSumNanos() / 1e9);
+        sample(out, name + "_count", labels, null, cumulative);
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, String le, double value) {
+        out.append(name);
+        if (!labels.isEmpty() || le != null) {
+            out.append('{').append(labels);
+            if (le != null) {
+                if (!labels.isEmpty()) out.append(',');
+                out.append("le=\"").append(le).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    // Bucket bounds are whole ns (powers of two, or eighths between them); print them exactly in seconds
+    private static String seconds(long nanos) {
+        return new java.math.BigDecimal(nanos).movePointLeft(9).stripTrailingZeros().toPlainString();
+    }
+}
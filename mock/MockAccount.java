@@ -0,0 +1,177 @@
+package mock;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Balances and order matching of the mock exchange (a single account).
+ *
+ * MARKET orders are matched against a synthetic order book around the current
+ * price: 'levels' price levels per side, 'spread' apart (relative), each holding
+ * 'levelQty' of the base asset. A large order walks the book and gets several fills
+ * at worse prices, like on the real exchange. The commission is charged in the
+ * asset received.
+ */
+public class MockAccount {
+
+    /**
+     * Reason an order was refused, with Binance's error code.
+     */
+    public static class OrderException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public final int code;
+
+        public OrderException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+
+    private final Map<String, Double> balances = new TreeMap<>();
+    private double commissionRate = 0.001;
+    private double spread = 0.0001;
+    private int levels = 5;
+    private double levelQty = 0.5;
+    private long nextOrderId = 1;
+    private long nextTradeId = 1;
+
+    public MockAccount(double usdt) {
+        balances.put("USDT", usdt);
+    }
+
+    public synchronized void setBalance(String asset, double amount) {
+        balances.put(asset, amount);
+    }
+
+    public synchronized double getBalance(String asset) {
+        return balances.getOrDefault(asset, 0.0);
+    }
+
+    /**
+     * @param rate Commission per fill, e.g. 0.001 for 0.1%.
+     */
+    public void setCommissionRate(double rate) {
+        this.commissionRate = rate;
+    }
+
+    /**
+     * @param spread Relative distance between book levels (and from the price to the best level).
+     * @param levels Levels per side.
+     * @param levelQty Base quantity available at each level.
+     */
+    public void setBook(double spread, int levels, double levelQty) {
+        this.spread = spread;
+        this.levels = levels;
+        this.levelQty = levelQty;
+    }
+
+    /**
+     * @return The /api/v3/account response.
+     */
+    public synchronized String accountJson(long now) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"makerCommission\":10,\"takerCommission\":10,\"canTrade\":true,\"canWithdraw\":true,")
+            .append("\"canDeposit\":true,\"updateTime\":").append(now).append(",\"accountType\":\"SPOT\",\"balances\":[");
+        boolean first = true;
+        for (Map.Entry<String, Double> entry : balances.entrySet()) {
+            if (!first) json.append(',');
+            first = false;
+            json.append("{\"asset\":\"").append(entry.getKey()).append("\",\"free\":\"")
+                .append(decimal(entry.getValue())).append("\",\"locked\":\"0.00000000\"}");
+        }
+        return json.append("],\"permissions\":[\"SPOT\"]}").toString();
+    }
+
+    /**
+     * Matches a MARKET order and books it.
+     *
+     * @param quantity Base quantity to buy or sell.
+     * @param price Current price of the symbol (middle of the book).
+     * @param respType ACK, RESULT or FULL.
+     * @return The /api/v3/order response.
+     */
+    public synchronized String marketOrder(String symbol, String side, double quantity, double price,
+                                           String respType, long now) throws OrderException {
+        if (!symbol.endsWith("USDT") || symbol.length() <= 4) throw new OrderException(-1121, "Invalid symbol.");
+        if (quantity <= 0) throw new OrderException(-1013, "Invalid quantity.");
+        String base = symbol.substring(0, symbol.length() - 4);
+        boolean buy = side.equals("BUY");
+
+        // Walk the book: level j is (j + 1) spreads away from the price
+        int fillCount = 0;
+        double[] fillPrice = new double[levels];
+        double[] fillQty = new double[levels];
+        double remaining = quantity;
+        double quoteQty = 0;
+        for (int j = 0; j < levels && remaining > 1e-12; j++) {
+            double levelPrice = price * (buy ? 1 + spread * (j + 1) : 1 - spread * (j + 1));
+            double qty = Math.min(remaining, levelQty);
+            fillPrice[fillCount] = levelPrice;
+            fillQty[fillCount] = qty;
+            fillCount++;
+            quoteQty += qty * levelPrice;
+            remaining -= qty;
+        }
+        double executedQty = quantity - remaining;
+        if (executedQty <= 0) throw new OrderException(-2010, "Order would immediately match and take.");
+
+        // Balance check against what the order actually costs
+        if (buy ? getBalance("USDT") < quoteQty : getBalance(base) < executedQty) {
+            throw new OrderException(-2010, "Account has insufficient balance for requested action.");
+        }
+
+        String commissionAsset = buy ? base : "USDT";
+        double commissionTotal = 0;
+        double[] commission = new double[fillCount];
+        for (int i = 0; i < fillCount; i++) {
+            commission[i] = (buy ? fillQty[i] : fillQty[i] * fillPrice[i]) * commissionRate;
+            commissionTotal += commission[i];
+        }
+        if (buy) {
+            balances.put("USDT", getBalance("USDT") - quoteQty);
+            balances.put(base, getBalance(base) + executedQty - commissionTotal);
+        } else {
+            balances.put(base, getBalance(base) - executedQty);
+            balances.put("USDT", getBalance("USDT") + quoteQty - commissionTotal);
+        }
+
+        long orderId = nextOrderId++;
+        String status = remaining > 1e-12 ? "EXPIRED" : "FILLED";
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"symbol\":\"").append(symbol).append("\",\"orderId\":").append(orderId)
+            .append(",\"orderListId\":-1,\"clientOrderId\":\"mock").append(orderId)
+            .append("\",\"transactTime\":").append(now);
+        if (!respType.equals("ACK")) {
+            json.append(",\"price\":\"0.00000000\",\"origQty\":\"").append(decimal(quantity))
+                .append("\",\"executedQty\":\"").append(decimal(executedQty))
+                .append("\",\"cummulativeQuoteQty\":\"").append(decimal(quoteQty))
+                .append("\",\"status\":\"").append(status)
+                .append("\",\"timeInForce\":\"GTC\",\"type\":\"MARKET\",\"side\":\"").append(side).append('"');
+        }
+        if (respType.equals("FULL")) {
+            json.append(",\"fills\":[");
+            for (int i = 0; i < fillCount; i++) {
+                if (i > 0) json.append(',');
+                json.append("{\"price\":\"").append(decimal(fillPrice[i]))
+                    .append("\",\"qty\":\"").append(decimal(fillQty[i]))
+                    .append("\",\"commission\":\"").append(decimal(commission[i]))
+                    .append("\",\"commissionAsset\":\"").append(commissionAsset)
+                    .append("\",\"tradeId\":").append(nextTradeId++).append('}');
+            }
+            json.append(']');
+        }
+        return json.append('}').toString();
+    }
+
+    // Fixed 8 decimals like Binance ("65230.12000000"); String.format is too slow for load tests
+    static String decimal(double value) {
+        long scaled = Math.round(Math.abs(value) * 1e8);
+        String fraction = Long.toString(scaled % 100_000_000);
+        StringBuilder out = new StringBuilder(24);
+        if (value < 0 && scaled != 0) out.append('-');
+        out.append(scaled / 100_000_000).append('.');
+        for (int i = fraction.length(); i < 8; i++) out.append('0');
+        return out.append(fraction).toString();
+    }
+}
@@ -0,0 +1,506 @@
+package mock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import services.BinanceConfig;
+import services.RequestGovernor;
+
+/**
+ * Self-contained stand-in for the Binance spot REST API, for load tests and offline
+ * integration tests. Runs on the same com.sun.net.httpserver.HttpServer as ApiService.
+ *
+ * Endpoints: /api/v3/ping, /api/v3/time, /api/v3/klines (archive replay or random
+ * walk, see MockMarket), /api/v3/order (MARKET orders, HMAC-signed, matched by
+ * MockAccount), /api/v3/account (signed) and /api/v3/exchangeInfo (the same LOT_SIZE and
+ * NOTIONAL filters for every USDT pair, enforced on orders).
+ *
+ * Faults: fixed latency plus random jitter per request, a share of requests
+ * answered with 503, and Binance's request-weight accounting (X-MBX-USED-WEIGHT-1M
+ * header, 429 with Retry-After above the limit).
+ *
+ * Point the bot at it with BINANCE_BASE_URL=http://localhost:9090 (or -Dbinance.baseUrl).
+ *
+ * Usage: java mock.MockExchange [--port 9090] [--latency ms] [--jitter ms]
+ *        [--error-rate 0.01] [--weight-limit 6000] [--usdt 10000] [--seed 1]
+ *        [--archive data/BTCUSDT-15m.candles]... [--key K] [--secret S]
+ */
+public class MockExchange {
+    private static final long RECV_WINDOW = 5000;
+
+    // Filters of every symbol (Binance's BTCUSDT values)
+    private static final BigDecimal STEP_SIZE = new BigDecimal("0.00001");
+    private static final BigDecimal MIN_QTY = new BigDecimal("0.00001");
+    private static final String MAX_QTY = "9000.00000000";
+    private static final double MIN_NOTIONAL = 5.0;
+
+    private final MockMarket market;
+    private final MockAccount account;
+    private final String apiKey;
+    private final byte[] secret;
+
+    private long latencyMillis = 0;
+    private long jitterMillis = 0;
+    private double errorRate = 0;
+    private int weightLimit = RequestGovernor.DEFAULT_WEIGHT_LIMIT;
+
+    private HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService reporter;
+
+    // Weight used in the current minute
+    private final Object weightLock = new Object();
+    private long weightMinute = 0;
+    private int usedWeight = 0;
+
+    // Counters
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder rejectedOrders = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final AtomicLong reportedRequests = new AtomicLong();
+
+    public MockExchange(MockMarket market, MockAccount account, String apiKey, String secretKey) {
+        this.market = market;
+        this.account = account;
+        this.apiKey = apiKey;
+        this.secret = secretKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param latencyMillis Delay added to every response.
+     * @param jitterMillis Extra random delay, uniform in [0, jitter].
+     */
+    public void setLatency(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    /**
+     * @param errorRate Share of requests answered with 503 (0..1).
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * @param weightLimit Request weight per minute before answering 429.
+     */
+    public void setWeightLimit(int weightLimit) {
+        this.weightLimit = weightLimit;
+    }
+
+    /**
+     * Starts the server; requests are handled on virtual threads.
+     */
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/api/v3/ping", new Endpoint(request -> Reply.ok("{}")));
+        server.createContext("/api/v3/time", new Endpoint(request ->
+                Reply.ok("{\"serverTime\":" + System.currentTimeMillis() + "}")));
+        server.createContext("/api/v3/klines", new Endpoint(this::klines));
+        server.createContext("/api/v3/order", new Endpoint(this::order));
+        server.createContext("/api/v3/account", new Endpoint(this::account));
+        server.createContext("/api/v3/exchangeInfo", new Endpoint(this::exchangeInfo));
+        server.createContext("/", new Endpoint(request -> Reply.error(404, -1, "Unknown endpoint.")));
+        server.setExecutor(executor);
+        server.start();
+        System.out.println("Mock exchange started on port " + getPort());
+    }
+
+    /**
+     * Prints the request rate and order counters every 'seconds' seconds.
+     */
+    public void reportEvery(long seconds) {
+        reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> {
+            long total = requests.sum();
+            long delta = total - reportedRequests.getAndSet(total);
+            System.out.println(String.format(Locale.US,
+                    "Mock exchange: %.1f req/s, %d requests, %d orders (%d rejected), %d errors injected, %d rate limited",
+                    delta / (double) seconds, total, orders.sum(), rejectedOrders.sum(),
+                    injectedErrors.sum(), rateLimited.sum()));
+        }, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return The port the server listens on (the actual one if started on port 0).
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (server != null) server.stop(0);
+        if (reporter != null) reporter.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getOrders() {
+        return orders.sum();
+    }
+
+    // ---- Endpoints ----
+
+    private Reply klines(Request request) {
+        String symbol = request.params.get("symbol");
+        String interval = request.params.get("interval");
+        if (symbol == null || interval == null) return Reply.error(400, -1102, "Mandatory parameter 'symbol' or 'interval' was not sent.");
+
+        MockMarket.Series series;
+        try {
+            series = market.get(symbol, interval);
+        } catch (RuntimeException e) {
+            return Reply.error(400, -1120, "Invalid interval.");
+        }
+        int limit = (int) Math.min(1000, Math.max(1, request.getLong("limit", 500)));
+        long now = System.currentTimeMillis();
+        long endTime = Math.min(request.getLong("endTime", now), now);
+        long startTime = request.getLong("startTime", -1);
+
+        int last = series.indexOf(endTime);
+        int first;
+        if (startTime >= 0) {
+            // Binance: bars opened at or after startTime, oldest first
+            first = Math.max(0, series.indexOf(startTime - 1) + 1);
+            last = Math.min(last, first + limit - 1);
+        } else {
+            first = Math.max(0, last - limit + 1);
+        }
+
+        StringBuilder json = new StringBuilder(Math.max(2, (last - first + 1) * 160));
+        json.append('[');
+        double[] row = new double[5];
+        for (int i = first; i <= last; i++) {
+            series.bar(i, now, row);
+            long openTime = series.openTime(i);
+            if (i > first) json.append(',');
+            json.append('[').append(openTime)
+                .append(",\"").append(MockAccount.decimal(row[0]))
+                .append("\",\"").append(MockAccount.decimal(row[1]))
+                .append("\",\"").append(MockAccount.decimal(row[2]))
+                .append("\",\"").append(MockAccount.decimal(row[3]))
+                .append("\",\"").append(MockAccount.decimal(row[4]))
+                .append("\",").append(openTime + series.intervalMillis() - 1)
+                .append(",\"").append(MockAccount.decimal(row[3] * row[4]))
+                .append("\",100,\"0.00000000\",\"0.00000000\",\"0\"]");
+        }
+        return Reply.ok(json.append(']').toString());
+    }
+
+    private Reply order(Request request) {
+        if (!request.method.equals("POST")) return Reply.error(405, -1, "Only POST is supported by the mock.");
+        Reply denied = authenticate(request);
+        if (denied != null) return denied;
+
+        String symbol = request.params.get("symbol");
+        String side = request.params.get("side");
+        String type = request.params.get("type");
+        if (symbol == null || side == null || type == null) return Reply.error(400, -1102, "Mandatory parameter was not sent.");
+        if (!type.equals("MARKET")) return Reply.error(400, -1116, "Invalid orderType (the mock only matches MARKET orders).");
+        if (!side.equals("BUY") && !side.equals("SELL")) return Reply.error(400, -1117, "Invalid side.");
+
+        orders.increment();
+        long now = System.currentTimeMillis();
+        try {
+            BigDecimal lot = new BigDecimal(request.params.getOrDefault("quantity", "0"));
+            if (lot.stripTrailingZeros().scale() > STEP_SIZE.scale()) {
+                rejectedOrders.increment();
+                return Reply.error(400, -1111, "Parameter 'quantity' has too much precision.");
+            }
+            if (lot.compareTo(MIN_QTY) < 0) {
+                rejectedOrders.increment();
+                return Reply.error(400, -1013, "Filter failure: LOT_SIZE");
+            }
+            double quantity = lot.doubleValue();
+            if (quantity * market.price(symbol, now) < MIN_NOTIONAL) {
+                rejectedOrders.increment();
+                return Reply.error(400, -1013, "Filter failure: NOTIONAL");
+            }
+            String respType = request.params.getOrDefault("newOrderRespType", "FULL");
+            return Reply.ok(account.marketOrder(symbol, side, quantity, market.price(symbol, now), respType, now));
+        } catch (NumberFormatException e) {
+            rejectedOrders.increment();
+            return Reply.error(400, -1100, "Illegal characters found in parameter 'quantity'.");
+        } catch (MockAccount.OrderException e) {
+            rejectedOrders.increment();
+            return Reply.error(400, e.code, e.getMessage());
+        }
+    }
+
+    // One symbol (symbol=BTCUSDT) or several (symbols=["BTCUSDT","ETHUSDT"]); any *USDT pair is listed
+    private Reply exchangeInfo(Request request) {
+        String symbol = request.params.get("symbol");
+        String list = request.params.get("symbols");
+        if (symbol == null && list == null) return Reply.error(400, -1102, "Mandatory parameter 'symbol' was not sent.");
+        String[] symbols = symbol != null ? new String[] { symbol }
+                : list.replaceAll("[\\[\\]\" ]", "").split(",");
+
+        StringBuilder json = new StringBuilder("{\"timezone\":\"UTC\",\"serverTime\":")
+                .append(System.currentTimeMillis()).append(",\"symbols\":[");
+        for (int i = 0; i < symbols.length; i++) {
+            String name = symbols[i];
+            if (!name.endsWith("USDT") || name.length() <= 4) return Reply.error(400, -1121, "Invalid symbol.");
+            if (i > 0) json.append(',');
+            json.append(symbolInfo(name));
+        }
+        return Reply.ok(json.append("]}").toString());
+    }
+
+    private static String symbolInfo(String symbol) {
+        String step = MockAccount.decimal(STEP_SIZE.doubleValue());
+        return "{\"symbol\":\"" + symbol + "\",\"status\":\"TRADING\",\"baseAsset\":\""
+                + symbol.substring(0, symbol.length() - 4) + "\",\"quoteAsset\":\"USDT\",\"filters\":["
+                + "{\"filterType\":\"PRICE_FILTER\",\"minPrice\":\"0.01000000\",\"maxPrice\":\"1000000.00000000\",\"tickSize\":\"0.01000000\"},"
+                + "{\"filterType\":\"LOT_SIZE\",\"minQty\":\"" + MockAccount.decimal(MIN_QTY.doubleValue())
+                + "\",\"maxQty\":\"" + MAX_QTY + "\",\"stepSize\":\"" + step + "\"},"
+                + "{\"filterType\":\"NOTIONAL\",\"minNotional\":\"" + MockAccount.decimal(MIN_NOTIONAL)
+                + "\",\"applyMinToMarket\":true,\"maxNotional\":\"9000000.00000000\",\"applyMaxToMarket\":false,\"avgPriceMins\":5}]}";
+    }
+
+    private Reply account(Request request) {
+        Reply denied = authenticate(request);
+        if (denied != null) return denied;
+        return Reply.ok(account.accountJson(System.currentTimeMillis()));
+    }
+
+    // Checks the API key, the HMAC-SHA256 signature and the timestamp; null if the request is valid
+    private Reply authenticate(Request request) {
+        if (!apiKey.equals(request.apiKey)) return Reply.error(401, -2015, "Invalid API-key, IP, or permissions for action.");
+
+        String signature = request.params.get("signature");
+        if (signature == null) return Reply.error(400, -1102, "Mandatory parameter 'signature' was not sent.");
+        byte[] expected = hmacSha256Hex(request.signedPayload);
+        if (!MessageDigest.isEqual(expected, signature.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII))) {
+            return Reply.error(400, -1022, "Signature for this request is not valid.");
+        }
+
+        long timestamp = request.getLong("timestamp", -1);
+        long recvWindow = request.getLong("recvWindow", RECV_WINDOW);
+        long now = System.currentTimeMillis();
+        if (timestamp < 0 || timestamp > now + 1000 || now - timestamp > recvWindow) {
+            return Reply.error(400, -1021, "Timestamp for this request is outside of the recvWindow.");
+        }
+        return null;
+    }
+
+    private byte[] hmacSha256Hex(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] hash = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            byte[] hex = new byte[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[2 * i] = (byte) Character.forDigit((hash[i] >> 4) & 0xF, 16);
+                hex[2 * i + 1] = (byte) Character.forDigit(hash[i] & 0xF, 16);
+            }
+            return hex;
+        } catch (Exception e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    // ---- Request plumbing ----
+
+    private interface Handler {
+        Reply handle(Request request) throws IOException;
+    }
+
+    private static final class Request {
+        final String method;
+        final String apiKey;
+        final Map<String, String> params = new HashMap<>();
+        final String signedPayload; // Query string and body without the signature parameter
+
+        Request(HttpExchange exchange) throws IOException {
+            method = exchange.getRequestMethod();
+            apiKey = exchange.getRequestHeaders().getFirst("X-MBX-APIKEY");
+            String query = exchange.getRequestURI().getRawQuery();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            parse(query);
+            parse(body);
+            signedPayload = stripSignature(query == null ? "" : query) + stripSignature(body);
+        }
+
+        private void parse(String form) {
+            if (form == null || form.isEmpty()) return;
+            for (String pair : form.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq <= 0) continue;
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+
+        private static String stripSignature(String form) {
+            int at = form.indexOf("signature=");
+            if (at == -1) return form;
+            int end = form.indexOf('&', at);
+            String before = form.substring(0, Math.max(0, at - 1));
+            return end == -1 ? before : before + (at > 0 ? "&" : "") + form.substring(end + 1);
+        }
+
+        long getLong(String name, long fallback) {
+            String value = params.get(name);
+            if (value == null) return fallback;
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                return fallback;
+            }
+        }
+    }
+
+    private static final class Reply {
+        final int status;
+        final String body;
+        long retryAfterSeconds = -1;
+
+        Reply(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Reply ok(String body) {
+            return new Reply(200, body);
+        }
+
+        static Reply error(int status, int code, String message) {
+            return new Reply(status, "{\"code\":" + code + ",\"msg\":\"" + message + "\"}");
+        }
+    }
+
+    // Applies latency, injected errors and weight accounting around an endpoint
+    private final class Endpoint implements HttpHandler {
+        private final Handler handler;
+
+        Endpoint(Handler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            requests.increment();
+            try {
+                String path = exchange.getRequestURI().getPath();
+                String query = exchange.getRequestURI().getRawQuery();
+                int weight = RequestGovernor.weightOf(query == null ? path : path + "?" + query);
+
+                delay();
+                Reply reply;
+                int used;
+                synchronized (weightLock) {
+                    long minute = System.currentTimeMillis() / 60_000;
+                    if (minute != weightMinute) {
+                        weightMinute = minute;
+                        usedWeight = 0;
+                    }
+                    usedWeight += weight;
+                    used = usedWeight;
+                }
+
+                if (used > weightLimit) {
+                    rateLimited.increment();
+                    reply = Reply.error(429, -1003, "Too many requests; current limit is " + weightLimit + " request weight per 1 MINUTE.");
+                    reply.retryAfterSeconds = 60 - (System.currentTimeMillis() / 1000) % 60;
+                } else if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                    injectedErrors.increment();
+                    reply = Reply.error(503, -1001, "Internal error; unable to process your request. Please try again.");
+                } else {
+                    reply = handler.handle(new Request(exchange));
+                }
+
+                byte[] body = reply.body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+                exchange.getResponseHeaders().add("X-MBX-USED-WEIGHT-1M", Integer.toString(used));
+                if (reply.retryAfterSeconds > 0) {
+                    exchange.getResponseHeaders().add("Retry-After", Long.toString(reply.retryAfterSeconds));
+                }
+                exchange.sendResponseHeaders(reply.status, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private void delay() {
+            long millis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+            if (millis <= 0) return;
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // ---- CLI ----
+
+    public static void main(String[] args) throws IOException {
+        int port = 9090;
+        long latency = 0, jitter = 0, seed = 1;
+        double errorRate = 0, usdt = 10_000;
+        int weightLimit = RequestGovernor.DEFAULT_WEIGHT_LIMIT;
+        String key = BinanceConfig.API_KEY;
+        String secretKey = BinanceConfig.SECRET_KEY;
+        java.util.List<Path> archives = new java.util.ArrayList<>();
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(value); break;
+                case "--latency": latency = Long.parseLong(value); break;
+                case "--jitter": jitter = Long.parseLong(value); break;
+                case "--error-rate": errorRate = Double.parseDouble(value); break;
+                case "--weight-limit": weightLimit = Integer.parseInt(value); break;
+                case "--usdt": usdt = Double.parseDouble(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--archive": archives.add(Path.of(value)); break;
+                case "--key": key = value; break;
+                case "--secret": secretKey = value; break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+
+        MockMarket market = new MockMarket(seed);
+        for (Path archive : archives) market.addArchive(archive);
+
+        MockExchange exchange = new MockExchange(market, new MockAccount(usdt), key, secretKey);
+        exchange.setLatency(latency, jitter);
+        exchange.setErrorRate(errorRate);
+        exchange.setWeightLimit(weightLimit);
+        exchange.start(port);
+        exchange.reportEvery(10);
+    }
+}
@@ -0,0 +1,186 @@
+package mock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import services.BinanceService;
+import storage.CandleArchive;
+
+/**
+ * Candle data of the mock exchange, one series per symbol/interval.
+ *
+ * A series is either a replay of a candle archive (shifted in time so that the
+ * archive continues from the current bar on) or a synthetic random walk. Bars are
+ * generated on demand and kept, so a closed bar never changes. The forming bar moves
+ * from its open towards its final close as the bar elapses, so polls see it update.
+ * When a replayed archive runs out, the series continues as a random walk.
+ */
+public class MockMarket {
+    private static final int HISTORY_BARS = 5000;      // Bars available before the server started
+    private static final double START_PRICE = 50_000;
+    private static final double VOLATILITY = 0.002;    // Stddev of the log return per bar
+
+    private final long seed;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    private final Map<String, Path> archives = new ConcurrentHashMap<>();
+    // Interval whose series prices a symbol's orders (the first one requested)
+    private final Map<String, String> priceInterval = new ConcurrentHashMap<>();
+
+    public MockMarket(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Replays an archive for its symbol/interval instead of a random walk.
+     */
+    public void addArchive(Path path) throws IOException {
+        try (CandleArchive archive = CandleArchive.open(path)) {
+            archives.put(archive.symbol() + "@" + archive.interval(), path);
+        }
+    }
+
+    /**
+     * @return The series of a symbol/interval (created on first use).
+     */
+    public Series get(String symbol, String interval) {
+        priceInterval.putIfAbsent(symbol, interval);
+        return series.computeIfAbsent(symbol + "@" + interval, key -> create(symbol, interval, archives.get(key)));
+    }
+
+    /**
+     * @return The current price of a symbol: the close of the forming bar of the interval the
+     *         client polls (so orders fill near the prices the bot sees).
+     */
+    public double price(String symbol, long now) {
+        Series s = get(symbol, priceInterval.getOrDefault(symbol, "1m"));
+        return s.close(s.indexOf(now), now);
+    }
+
+    private Series create(String symbol, String interval, Path archivePath) {
+        long intervalMillis = BinanceService.intervalMillis(interval);
+        long now = System.currentTimeMillis();
+        long currentOpen = now - now % intervalMillis;
+        Random random = new Random(seed ^ symbol.hashCode() * 31L ^ interval.hashCode());
+
+        if (archivePath != null && Files.exists(archivePath)) {
+            try (CandleArchive archive = CandleArchive.open(archivePath)) {
+                if (!archive.isEmpty()) {
+                    // Start the replay so that up to HISTORY_BARS stored bars lie in the past
+                    int first = Math.max(0, archive.size() - 1 - HISTORY_BARS);
+                    int current = Math.min(archive.size() - 1, first + HISTORY_BARS);
+                    Series s = new Series(intervalMillis, currentOpen - (long) (current - first) * intervalMillis, random);
+                    for (int i = first; i < archive.size(); i++) {
+                        s.add(archive.open(i), archive.high(i), archive.low(i), archive.close(i), archive.volume(i));
+                    }
+                    System.out.println("Mock exchange: replaying " + archivePath + " as " + symbol + " " + interval);
+                    return s;
+                }
+            } catch (IOException e) {
+                System.err.println("Mock exchange: cannot replay " + archivePath + ": " + e.getMessage());
+            }
+        }
+        return new Series(intervalMillis, currentOpen - (long) HISTORY_BARS * intervalMillis, random);
+    }
+
+    /**
+     * The bars of one symbol/interval, indexed from 'origin'. Extended on demand.
+     */
+    public static class Series {
+        private final long intervalMillis;
+        private final long origin;   // openTime of bar 0
+        private final Random random;
+
+        private double[] open = new double[1024];
+        private double[] high = new double[1024];
+        private double[] low = new double[1024];
+        private double[] close = new double[1024];
+        private double[] volume = new double[1024];
+        private int size = 0;
+
+        Series(long intervalMillis, long origin, Random random) {
+            this.intervalMillis = intervalMillis;
+            this.origin = origin;
+            this.random = random;
+        }
+
+        public long intervalMillis() {
+            return intervalMillis;
+        }
+
+        public long origin() {
+            return origin;
+        }
+
+        public long openTime(int index) {
+            return origin + index * intervalMillis;
+        }
+
+        /**
+         * @return Index of the bar that contains 'time' (negative before the origin).
+         */
+        public int indexOf(long time) {
+            return (int) Math.floorDiv(time - origin, intervalMillis);
+        }
+
+        private void add(double o, double h, double l, double c, double v) {
+            if (size == open.length) {
+                int capacity = size * 2;
+                open = java.util.Arrays.copyOf(open, capacity);
+                high = java.util.Arrays.copyOf(high, capacity);
+                low = java.util.Arrays.copyOf(low, capacity);
+                close = java.util.Arrays.copyOf(close, capacity);
+                volume = java.util.Arrays.copyOf(volume, capacity);
+            }
+            open[size] = o;
+            high[size] = h;
+            low[size] = l;
+            close[size] = c;
+            volume[size] = v;
+            size++;
+        }
+
+        // Generates random-walk bars up to 'index'
+        private void ensure(int index) {
+            while (size <= index) {
+                double o = size == 0 ? START_PRICE : close[size - 1];
+                double c = o * Math.exp(random.nextGaussian() * VOLATILITY);
+                double wick = Math.abs(random.nextGaussian()) * VOLATILITY * 0.5;
+                add(o, Math.max(o, c) * (1 + wick), Math.min(o, c) * (1 - wick), c, 10 + random.nextDouble() * 90);
+            }
+        }
+
+        /**
+         * Writes bar 'index' as seen at time 'now' into row (open, high, low, close, volume).
+         * A bar still forming at 'now' is interpolated from its open.
+         */
+        public synchronized void bar(int index, long now, double[] row) {
+            ensure(index);
+            double fraction = Math.min(1, Math.max(0, (double) (now - openTime(index)) / intervalMillis));
+            double o = open[index];
+            if (fraction >= 1) {
+                row[0] = o;
+                row[1] = high[index];
+                row[2] = low[index];
+                row[3] = close[index];
+                row[4] = volume[index];
+                return;
+            }
+            double c = o + (close[index] - o) * fraction;
+            row[0] = o;
+            row[1] = Math.max(c, o + (high[index] - Math.max(o, close[index])) * fraction);
+            row[2] = Math.min(c, o - (Math.min(o, close[index]) - low[index]) * fraction);
+            row[3] = c;
+            row[4] = volume[index] * fraction;
+        }
+
+        public synchronized double close(int index, long now) {
+            double[] row = new double[5];
+            bar(index, now, row);
+            return row[3];
+        }
+    }
+}
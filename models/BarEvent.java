@@ -0,0 +1,11 @@
+package models;
+
+/**
+ * What a candle delivered to observers means for its bar.
+ */
+public enum BarEvent {
+    // New snapshot of the bar that is still forming (same openTime as before)
+    BAR_UPDATE,
+    // Final values of a bar that has closed
+    BAR_CLOSE
+}
@@ -0,0 +1,238 @@
+package models;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Fixed-capacity candle window stored as parallel primitive columns
+ * (openTime/open/high/low/close/volume/closeTime) in a ring buffer.
+ *
+ * Appending is O(1): once the window is full the oldest candle is overwritten
+ * instead of shifting the whole list, and no objects are allocated per tick.
+ * Index 0 is always the oldest candle in the window, size() - 1 the newest.
+ *
+ * Existing List<Candle> code can keep working through asList(); that view
+ * materializes a Candle per get(), so hot loops should read the columns directly.
+ */
+public class CandleSeries {
+    private final int capacity;
+
+    // Columns
+    private final long[] openTimes;
+    private final double[] opens;
+    private final double[] highs;
+    private final double[] lows;
+    private final double[] closes;
+    private final double[] volumes;
+    private final long[] closeTimes;
+
+    private int head = 0;       // Physical slot of the oldest candle
+    private int size = 0;
+    private long sequence = 0;  // Total candles ever appended (never decreases)
+    private long revisions = 0; // Total in-place updates of the newest candle
+    private long epoch = 0;     // Bumped by clear() so readers know to start over
+
+    private final View view = new View();
+
+    /**
+     * @param capacity Maximum number of candles kept; older ones are evicted.
+     */
+    public CandleSeries(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.openTimes = new long[capacity];
+        this.opens = new double[capacity];
+        this.highs = new double[capacity];
+        this.lows = new double[capacity];
+        this.closes = new double[capacity];
+        this.volumes = new double[capacity];
+        this.closeTimes = new long[capacity];
+    }
+
+    /**
+     * Appends a candle, evicting the oldest one if the window is full.
+     */
+    public void append(long openTime, double open, double high, double low, double close, double volume, long closeTime) {
+        int slot;
+        if (size < capacity) {
+            slot = physical(size);
+            size++;
+        } else {
+            slot = head;
+            head = (head + 1 == capacity) ? 0 : head + 1;
+        }
+        write(slot, openTime, open, high, low, close, volume, closeTime);
+        sequence++;
+    }
+
+    public void append(Candle candle) {
+        append(candle.openTime, candle.open, candle.high, candle.low, candle.close, candle.volume, candle.closeTime);
+    }
+
+    /**
+     * Appends every candle of another series, oldest first.
+     */
+    public void appendAll(CandleSeries other) {
+        for (int i = 0; i < other.size; i++) {
+            int slot = other.physical(i);
+            append(other.openTimes[slot], other.opens[slot], other.highs[slot], other.lows[slot],
+                    other.closes[slot], other.volumes[slot], other.closeTimes[slot]);
+        }
+    }
+
+    /**
+     * Overwrites the newest candle (e.g. a new snapshot of the bar that is still forming).
+     */
+    public void updateLast(long openTime, double open, double high, double low, double close, double volume, long closeTime) {
+        if (size == 0) {
+            append(openTime, open, high, low, close, volume, closeTime);
+            return;
+        }
+        write(physical(size - 1), openTime, open, high, low, close, volume, closeTime);
+        revisions++;
+    }
+
+    public void updateLast(Candle candle) {
+        updateLast(candle.openTime, candle.open, candle.high, candle.low, candle.close, candle.volume, candle.closeTime);
+    }
+
+    private void write(int slot, long openTime, double open, double high, double low, double close, double volume, long closeTime) {
+        openTimes[slot] = openTime;
+        opens[slot] = open;
+        highs[slot] = high;
+        lows[slot] = low;
+        closes[slot] = close;
+        volumes[slot] = volume;
+        closeTimes[slot] = closeTime;
+    }
+
+    // Maps a logical index (0 = oldest) to its slot in the columns
+    private int physical(int index) {
+        int slot = head + index;
+        return slot >= capacity ? slot - capacity : slot;
+    }
+
+    private int checked(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return physical(index);
+    }
+
+    public long openTime(int index) { return openTimes[checked(index)]; }
+    public double open(int index) { return opens[checked(index)]; }
+    public double high(int index) { return highs[checked(index)]; }
+    public double low(int index) { return lows[checked(index)]; }
+    public double close(int index) { return closes[checked(index)]; }
+    public double volume(int index) { return volumes[checked(index)]; }
+    public long closeTime(int index) { return closeTimes[checked(index)]; }
+
+    /**
+     * @return Close of the newest candle, or 0 if the series is empty.
+     */
+    public double lastClose() {
+        return size == 0 ? 0 : closes[physical(size - 1)];
+    }
+
+    /**
+     * @return OpenTime of the newest candle, or -1 if the series is empty.
+     */
+    public long lastOpenTime() {
+        return size == 0 ? -1 : openTimes[physical(size - 1)];
+    }
+
+    /**
+     * Copies a candle into an existing object (no allocation).
+     *
+     * @param index Logical index, 0 = oldest.
+     * @param into The candle to overwrite.
+     * @return 'into', for chaining.
+     */
+    public Candle load(int index, Candle into) {
+        int slot = checked(index);
+        into.openTime = openTimes[slot];
+        into.open = opens[slot];
+        into.high = highs[slot];
+        into.low = lows[slot];
+        into.close = closes[slot];
+        into.volume = volumes[slot];
+        into.closeTime = closeTimes[slot];
+        return into;
+    }
+
+    /**
+     * @return A new Candle object holding the values at that index.
+     */
+    public Candle get(int index) {
+        int slot = checked(index);
+        return new Candle(openTimes[slot], opens[slot], highs[slot], lows[slot], closes[slot], volumes[slot], closeTimes[slot]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Total number of candles ever appended. The candle at index i has
+     *         sequence number sequence() - size() + i.
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @return Total number of in-place updates of the newest candle.
+     */
+    public long revisions() {
+        return revisions;
+    }
+
+    /**
+     * @return Counter bumped on every clear(); readers that cached positions must start over.
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        epoch++;
+    }
+
+    /**
+     * @return A live, read-only List view over the window (same instance on every call).
+     */
+    public List<Candle> asList() {
+        return view;
+    }
+
+    /**
+     * Read-only List<Candle> adapter over the columns, kept for strategies written
+     * against List<Candle>.
+     */
+    public class View extends AbstractList<Candle> implements RandomAccess {
+        @Override
+        public Candle get(int index) {
+            return CandleSeries.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        public CandleSeries series() {
+            return CandleSeries.this;
+        }
+    }
+}
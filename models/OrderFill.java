@@ -0,0 +1,93 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of an executed order: what the exchange (or the simulation) actually filled.
+ */
+public class OrderFill {
+
+    /**
+     * One trade of the order (an entry of the FULL response's fills[]).
+     */
+    public static class Execution {
+        public final double price;
+        public final double qty;
+        public final double commission;
+        public final String commissionAsset;
+
+        public Execution(double price, double qty, double commission, String commissionAsset) {
+            this.price = price;
+            this.qty = qty;
+            this.commission = commission;
+            this.commissionAsset = commissionAsset;
+        }
+    }
+
+    public String symbol;
+    public String side;             // BUY, SELL
+    public String status;           // FILLED, PARTIALLY_FILLED, EXPIRED, REJECTED, ...
+    public double requestedQty;
+    public double executedQty;      // Base asset filled
+    public double quoteQty;         // Quote asset spent/received (cummulativeQuoteQty)
+    public long orderId = -1;       // Exchange order id, -1 if simulated or not accepted
+    public String error;            // Reason the order was not accepted, null otherwise
+    public final List<Execution> executions = new ArrayList<>();
+
+    public OrderFill(String symbol, String side, double requestedQty) {
+        this.symbol = symbol;
+        this.side = side;
+        this.requestedQty = requestedQty;
+    }
+
+    /**
+     * @return A fill for an order that was not accepted.
+     */
+    public static OrderFill rejected(Order order, String error) {
+        OrderFill fill = new OrderFill(order.symbol, order.side, order.quantity);
+        fill.status = "REJECTED";
+        fill.error = error;
+        return fill;
+    }
+
+    /**
+     * @return A completely filled order (simulated trades).
+     */
+    public static OrderFill filled(Order order, double price) {
+        OrderFill fill = new OrderFill(order.symbol, order.side, order.quantity);
+        fill.status = "FILLED";
+        fill.executedQty = order.quantity;
+        fill.quoteQty = order.quantity * price;
+        return fill;
+    }
+
+    /**
+     * @return Total commission charged in an asset (e.g. BNB, or the asset received).
+     */
+    public double commission(String asset) {
+        double total = 0;
+        for (Execution execution : executions) {
+            if (asset.equals(execution.commissionAsset)) total += execution.commission;
+        }
+        return total;
+    }
+
+    public boolean isFilled() {
+        return executedQty > 0;
+    }
+
+    /**
+     * @return Average fill price, or 0 if nothing was filled.
+     */
+    public double averagePrice() {
+        return executedQty > 0 ? quoteQty / executedQty : 0;
+    }
+
+    @Override
+    public String toString() {
+        if (error != null) return "Fill: " + side + " " + symbol + " " + status + " (" + error + ")";
+        return String.format(java.util.Locale.US, "Fill: %s %s %s %.8f @ %.2f (%.2f quote)",
+                side, symbol, status, executedQty, averagePrice(), quoteQty);
+    }
+}
@@ -0,0 +1,65 @@
+package models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Trading rules of one symbol from /api/v3/exchangeInfo: the LOT_SIZE filter
+ * (quantity step and bounds) and the minimum order value (NOTIONAL or MIN_NOTIONAL).
+ *
+ * Quantities are rounded down to the step in decimal, not in binary floating point,
+ * and formatted with exactly as many decimals as the step has, so the exchange never
+ * sees "too much precision" or an off-step quantity.
+ */
+public class SymbolFilters {
+    public final String symbol;
+    public BigDecimal stepSize = BigDecimal.ZERO; // LOT_SIZE stepSize, 0 if none
+    public double minQty;                         // LOT_SIZE minQty
+    public double maxQty = Double.MAX_VALUE;      // LOT_SIZE maxQty
+    public double minNotional;                    // Minimum quote value of an order, 0 if none
+
+    public SymbolFilters(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * @return Decimals of a valid quantity (8 if there is no step).
+     */
+    public int quantityPrecision() {
+        return stepSize.signum() == 0 ? 8 : Math.max(0, stepSize.stripTrailingZeros().scale());
+    }
+
+    /**
+     * @return The quantity rounded down to the step and capped at maxQty.
+     */
+    public BigDecimal roundQuantity(double quantity) {
+        BigDecimal value = BigDecimal.valueOf(Math.min(quantity, maxQty));
+        if (stepSize.signum() == 0) return value.setScale(quantityPrecision(), RoundingMode.DOWN);
+        BigDecimal steps = value.divide(stepSize, 0, RoundingMode.FLOOR);
+        return steps.multiply(stepSize).setScale(quantityPrecision(), RoundingMode.DOWN);
+    }
+
+    /**
+     * @return The rounded quantity as sent to the exchange (plain decimal, e.g. "0.0123").
+     */
+    public String formatQuantity(double quantity) {
+        return roundQuantity(quantity).toPlainString();
+    }
+
+    /**
+     * @param price Expected price, or 0 if unknown (skips the notional check).
+     * @return Why an order of this size would be refused (below minQty or minNotional), or null.
+     */
+    public String check(double quantity, double price) {
+        double rounded = roundQuantity(quantity).doubleValue();
+        if (rounded <= 0 || rounded < minQty) return "Quantity below LOT_SIZE minQty " + minQty;
+        if (price > 0 && rounded * price < minNotional) return "Order value below minNotional " + minNotional;
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return symbol + " step=" + stepSize.stripTrailingZeros().toPlainString() + " minQty=" + minQty
+                + " minNotional=" + minNotional;
+    }
+}
@@ -6,8 +6,15 @@ public class Wallet {
     private double btcBalance;
 
     private Wallet() {
-        this.usdtBalance = 1000.0; // Initial simulated balance
-        this.btcBalance = 0.0;
+        this(1000.0, 0.0); // Initial simulated balance
+    }
+
+    /**
+     * Creates a standalone wallet (e.g. for a backtest), independent of the shared instance.
+     */
+    public Wallet(double usdtBalance, double btcBalance) {
+        this.usdtBalance = usdtBalance;
+        this.btcBalance = btcBalance;
     }
 
     public static synchronized Wallet getInstance() {
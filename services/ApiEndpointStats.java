@@ -0,0 +1,159 @@
+package services;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.MetricsRegistry;
+
+/**
+ * Request counters and a latency histogram of one API endpoint.
+ *
+ * Recording is lock-free: striped counters and a log-linear histogram from the
+ * metrics registry (so they also appear at /api/metrics as api_requests_total and
+ * api_request_seconds), and a ring of per-second counts for the request rate over
+ * the last minute. Reads (toJson) are a snapshot that may be a few requests behind.
+ */
+public class ApiEndpointStats {
+    private static final int RATE_SECONDS = 60;
+
+    private final String name;
+    private final Counter requests;
+    private final Counter errors;   // Responses >= 500 and handler exceptions
+    private final Counter rejected; // Refused because the priority class was full
+    private final LongAdder inFlight = new LongAdder();
+    private final Histogram latency;
+
+    // Requests per second, slot = second % RATE_SECONDS; a slot is reset when its second comes round again
+    private final AtomicLongArray secondCounts = new AtomicLongArray(RATE_SECONDS);
+    private final AtomicLongArray secondStamps = new AtomicLongArray(RATE_SECONDS);
+
+    public ApiEndpointStats(String name) {
+        this.name = name;
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        String help = "Dashboard API requests by endpoint and outcome (ok, error, rejected)";
+        this.requests = registry.counter("api_requests_total", help, "endpoint", name, "outcome", "ok");
+        this.errors = registry.counter("api_requests_total", help, "endpoint", name, "outcome", "error");
+        this.rejected = registry.counter("api_requests_total", help, "endpoint", name, "outcome", "rejected");
+        this.latency = registry.histogram("api_request_seconds", "Dashboard API request latency by endpoint",
+                "endpoint", name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Marks the start of a request.
+     */
+    public void begin() {
+        inFlight.increment();
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % RATE_SECONDS);
+        long stamp = secondStamps.get(slot);
+        if (stamp != second && secondStamps.compareAndSet(slot, stamp, second)) {
+            secondCounts.set(slot, 0);
+        }
+        secondCounts.incrementAndGet(slot);
+    }
+
+    /**
+     * Records a finished request.
+     *
+     * @param nanos Time from begin() until the response was sent.
+     * @param status The HTTP status, or -1 if the handler threw.
+     */
+    public void end(long nanos, int status) {
+        inFlight.decrement();
+        if (status < 0 || status >= 500) {
+            errors.increment();
+        } else {
+            requests.increment();
+        }
+        latency.record(nanos);
+    }
+
+    /**
+     * Records a request refused before it ran (its priority class was full).
+     */
+    public void reject() {
+        inFlight.decrement();
+        rejected.increment();
+    }
+
+    /**
+     * @return Requests answered (including errors), not counting rejected ones.
+     */
+    public long getRequests() {
+        return requests.get() + errors.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * @return Requests per second over the last minute (including refused ones).
+     */
+    public double getRatePerSecond() {
+        long now = System.currentTimeMillis() / 1000;
+        long count = 0;
+        for (int i = 0; i < RATE_SECONDS; i++) {
+            // The current second is still counting, so the window is the 60 seconds before it
+            long age = now - secondStamps.get(i);
+            if (age >= 1 && age <= RATE_SECONDS) count += secondCounts.get(i);
+        }
+        return count / (double) RATE_SECONDS;
+    }
+
+    // Upper bound (ms) of the bucket holding the quantile, as JSON
+    private String quantileJson(double quantile) {
+        long nanos = latency.quantileNanos(quantile);
+        return nanos < 0 ? "null" : nanos == Long.MAX_VALUE ? "\"+Inf\"" : millis(nanos);
+    }
+
+    // Exact: the microsecond buckets are closer together than 0.001 ms
+    private static String millis(long nanos) {
+        return new java.math.BigDecimal(nanos).movePointLeft(6).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * @return The counters, rate and histogram as a JSON object ("le" bounds in ms, empty
+     *         buckets left out).
+     */
+    public String toJson() {
+        long count = getRequests();
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"endpoint\":\"").append(name)
+            .append("\",\"requests\":").append(count)
+            .append(",\"errors\":").append(errors.get())
+            .append(",\"rejected\":").append(rejected.get())
+            .append(",\"inFlight\":").append(inFlight.sum())
+            .append(",\"ratePerSecond\":").append(String.format(Locale.US, "%.3f", getRatePerSecond()))
+            .append(",\"avgMillis\":").append(String.format(Locale.US, "%.3f", count == 0 ? 0 : latency.getSumNanos() / 1e6 / count))
+            .append(",\"p50Millis\":").append(quantileJson(0.5))
+            .append(",\"p99Millis\":").append(quantileJson(0.99))
+            .append(",\"histogram\":[");
+        long[] buckets = latency.snapshot();
+        boolean first = true;
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == 0) continue;
+            if (!first) json.append(',');
+            first = false;
+            long bound = Histogram.upperBound(i);
+            json.append("{\"le\":").append(bound == Long.MAX_VALUE ? "\"+Inf\"" : millis(bound))
+                .append(",\"count\":").append(buckets[i]).append('}');
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -6,9 +6,17 @@ import com.sun.net.httpserver.HttpExchange;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import Bot.BotConfig;
 import TradingStrategies.*;
@@ -19,9 +27,54 @@ import java.io.InputStreamReader;
 /**
  * Simple HTTP API Service to expose trading data and control strategy settings.
  * Runs on a lightweight HttpServer.
+ *
+ * Every request runs on its own virtual thread. Endpoints belong to a priority class
+ * with its own concurrency limit, so bulk history reads can only ever occupy their
+ * own slots: a strategy change never queues behind them. A request that finds its
+ * class full waits briefly, then gets 503. Per-endpoint rates and latency
+ * histograms are served at /api/stats.
+ *
+ * BULK handlers run on a few platform threads rather than on the virtual thread:
+ * virtual threads are not preempted, so a long CPU-bound read (e.g. indexing a
+ * large journal) would otherwise keep the carrier threads, and with them every
+ * control call, busy until it finishes.
  */
 public class ApiService {
-    
+
+    /**
+     * Concurrency class of an endpoint.
+     */
+    public enum Priority {
+        // Short calls that must stay responsive: strategy changes, stats, stream handshakes
+        CONTROL(32, 1000, false),
+        // Reads that touch the journal: trade history
+        BULK(4, 2000, true);
+
+        final int permits;
+        final long maxWaitMillis; // Wait for a slot before answering 503
+        final boolean platformThreads;
+
+        Priority(int permits, long maxWaitMillis, boolean platformThreads) {
+            this.permits = permits;
+            this.maxWaitMillis = maxWaitMillis;
+            this.platformThreads = platformThreads;
+        }
+    }
+
+    private final Map<Priority, Semaphore> slots = new HashMap<>();
+    private final Map<Priority, ExecutorService> runners = new HashMap<>();
+    private final Map<String, ApiEndpointStats> stats = new LinkedHashMap<>();
+
+    public ApiService() {
+        for (Priority priority : Priority.values()) {
+            slots.put(priority, new Semaphore(priority.permits));
+            if (priority.platformThreads) {
+                runners.put(priority, Executors.newFixedThreadPool(priority.permits,
+                        Thread.ofPlatform().daemon().name("api-" + priority.name().toLowerCase(java.util.Locale.ROOT) + "-", 0).factory()));
+            }
+        }
+    }
+
     /**
      * Starts the HTTP server on the specified port.
      * 
@@ -29,10 +82,18 @@ public class ApiService {
      */
     public void start(int port) {
         try {
+            // Small responses (304s, JSON) would otherwise wait for the client's delayed ACK (Nagle)
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
             HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
-            server.createContext("/api/trades", new TradesHandler());
-            server.createContext("/api/strategy", new StrategyHandler());
-            server.setExecutor(null); // creates a default executor
+            route(server, "/api/trades", Priority.BULK, new TradesHandler());
+            route(server, "/api/strategy", Priority.CONTROL, new StrategyHandler());
+            route(server, "/api/stream", Priority.CONTROL, new StreamHandler(EventStream.getInstance()));
+            route(server, "/api/stats", Priority.CONTROL, new StatsHandler());
+            route(server, "/api/metrics", Priority.CONTROL, new MetricsHandler(metrics.MetricsRegistry.getInstance()));
+            // One virtual thread per request: a slow handler holds no shared thread
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
             server.start();
             System.out.println("API Server started on port " + port);
         } catch (IOException e) {
@@ -40,69 +101,455 @@ public class ApiService {
         }
     }
 
+    private void route(HttpServer server, String path, Priority priority, HttpHandler handler) {
+        ApiEndpointStats endpoint = new ApiEndpointStats(path);
+        stats.put(path, endpoint);
+        server.createContext(path, new Guarded(handler, slots.get(priority), priority.maxWaitMillis,
+                runners.get(priority), endpoint));
+    }
+
+    /**
+     * @return Counters and latency histogram per endpoint.
+     */
+    public Map<String, ApiEndpointStats> getStats() {
+        return stats;
+    }
+
+    /**
+     * Runs a handler within its priority class's concurrency limit and records its stats.
+     */
+    static class Guarded implements HttpHandler {
+        private static final byte[] BUSY = "{\"error\":\"Busy, retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+        private final HttpHandler handler;
+        private final Semaphore slots;
+        private final long maxWaitMillis;
+        private final ExecutorService runner; // Null to run on the request's virtual thread
+        private final ApiEndpointStats stats;
+
+        Guarded(HttpHandler handler, Semaphore slots, long maxWaitMillis, ExecutorService runner, ApiEndpointStats stats) {
+            this.handler = handler;
+            this.slots = slots;
+            this.maxWaitMillis = maxWaitMillis;
+            this.runner = runner;
+            this.stats = stats;
+        }
+
+        @Override
+        public void handle(HttpExchange t) throws IOException {
+            long begin = System.nanoTime();
+            stats.begin();
+            boolean acquired;
+            try {
+                acquired = slots.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                stats.reject();
+                t.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+                t.getResponseHeaders().add("Content-Type", "application/json");
+                t.getResponseHeaders().add("Retry-After", "1");
+                t.sendResponseHeaders(503, BUSY.length);
+                try (OutputStream os = t.getResponseBody()) {
+                    os.write(BUSY);
+                }
+                return;
+            }
+
+            int status = -1;
+            try {
+                if (runner == null) {
+                    handler.handle(t);
+                } else {
+                    runOn(runner, t);
+                }
+                status = t.getResponseCode();
+            } finally {
+                slots.release();
+                stats.end(System.nanoTime() - begin, status);
+            }
+        }
+
+        // Runs the handler on the class's platform threads; the virtual thread just waits
+        private void runOn(ExecutorService runner, HttpExchange t) throws IOException {
+            try {
+                runner.submit(() -> {
+                    handler.handle(t);
+                    return null;
+                }).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) throw io;
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Handler for /api/stats endpoint.
+     * Returns request counters, the request rate over the last minute and a latency
+     * histogram per endpoint, plus the free slots of each priority class.
+     */
+    class StatsHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange t) throws IOException {
+            t.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+            t.getResponseHeaders().add("Cache-Control", "no-cache");
+
+            StringBuilder json = new StringBuilder("{\"endpoints\":[");
+            boolean first = true;
+            for (ApiEndpointStats endpoint : stats.values()) {
+                if (!first) json.append(',');
+                first = false;
+                json.append(endpoint.toJson());
+            }
+            json.append("],\"classes\":{");
+            first = true;
+            for (Priority priority : Priority.values()) {
+                if (!first) json.append(',');
+                first = false;
+                json.append('"').append(priority).append("\":{\"limit\":").append(priority.permits)
+                    .append(",\"available\":").append(slots.get(priority).availablePermits()).append('}');
+            }
+            json.append("}}");
+
+            byte[] response = json.toString().getBytes(StandardCharsets.UTF_8);
+            t.getResponseHeaders().add("Content-Type", "application/json");
+            t.sendResponseHeaders(200, response.length);
+            try (OutputStream os = t.getResponseBody()) {
+                os.write(response);
+            }
+        }
+    }
+
+    /**
+     * Handler for /api/metrics endpoint.
+     * Returns the metrics registry in the Prometheus text format, for scraping.
+     */
+    static class MetricsHandler implements HttpHandler {
+        private final metrics.MetricsRegistry registry;
+
+        MetricsHandler(metrics.MetricsRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public void handle(HttpExchange t) throws IOException {
+            byte[] response = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            t.getResponseHeaders().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            t.getResponseHeaders().add("Cache-Control", "no-cache");
+            t.sendResponseHeaders(200, response.length);
+            try (OutputStream os = t.getResponseBody()) {
+                os.write(response);
+            }
+        }
+    }
+
     /**
      * Handler for /api/trades endpoint.
-     * Returns the list of recent trades in JSON format.
+     * Returns journal rows in JSON format, oldest first.
+     *
+     * Query parameters:
+     *   since  Only rows newer than this (epoch ms or the journal's ISO timestamp); without it,
+     *          the newest rows are returned.
+     *   after  Only rows after this cursor (the X-Next-After header of a previous response);
+     *          takes precedence over since.
+     *   limit  Maximum number of rows (default 500, at most 5000).
+     *   side   Comma-separated sides to include, e.g. BUY,SELL.
+     *   symbol Only rows of this symbol, e.g. BTCUSDT.
+     *
+     * To page, follow X-Next-After with after=: unlike since, the cursor is a position in
+     * the journal, so rows that share a millisecond are neither skipped nor repeated.
+     *
+     * Responses carry an ETag made of the journal's identity, its indexed length and
+     * the query, so a poll with a matching If-None-Match gets 304 without any rows
+     * being read. Serialized responses are kept in a small LRU cache for the current
+     * journal length. Bodies above GZIP_MIN_BYTES are gzipped for clients that accept
+     * it; the first gzip of a body is streamed chunked while it is compressed, and the
+     * compressed bytes are kept for the next request.
      */
     static class TradesHandler implements HttpHandler {
+        private static final int DEFAULT_LIMIT = 500;
+        private static final int MAX_LIMIT = 5000;
+        private static final int GZIP_MIN_BYTES = 1024;
+        private static final int CACHE_ENTRIES = 16;
+
+        // Tails trades.csv: each request reads only the rows it returns
+        private final storage.TradeJournalIndex index = new storage.TradeJournalIndex(storage.TradeJournal.DEFAULT_PATH);
+
+        // One serialized response; gzip is filled in by the first request that asks for it
+        private static final class CachedResponse {
+            final String etag;
+            final byte[] json;
+            final String next; // Cursor after the rows of this response
+            volatile byte[] gzip;
+
+            CachedResponse(String etag, byte[] json, String next) {
+                this.etag = etag;
+                this.json = json;
+                this.next = next;
+            }
+        }
+
+        // Query -> response, least recently used first
+        private final Map<String, CachedResponse> cache = new LinkedHashMap<>(CACHE_ENTRIES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > CACHE_ENTRIES;
+            }
+        };
+
         @Override
         public void handle(HttpExchange t) throws IOException {
             // CORS headers
             t.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
             t.getResponseHeaders().add("Access-Control-Allow-Methods", "GET, OPTIONS, POST");
-            t.getResponseHeaders().add("Access-Control-Allow-Headers", "Content-Type,Authorization");
-            
-            // Cache Control
-            t.getResponseHeaders().add("Cache-Control", "no-cache, no-store, must-revalidate");
-            t.getResponseHeaders().add("Pragma", "no-cache");
-            t.getResponseHeaders().add("Expires", "0");
+            t.getResponseHeaders().add("Access-Control-Allow-Headers", "Content-Type,Authorization,If-None-Match");
+            t.getResponseHeaders().add("Access-Control-Expose-Headers", "ETag,X-Next-After");
+
+            // Cache Control: may be stored, but must be revalidated with the ETag
+            t.getResponseHeaders().add("Cache-Control", "no-cache");
+            t.getResponseHeaders().add("Vary", "Accept-Encoding");
 
             if (t.getRequestMethod().equalsIgnoreCase("OPTIONS")) {
                 t.sendResponseHeaders(204, -1);
                 return;
             }
 
-            String response = getTradesAsJson();
+            Map<String, String> params = queryParams(t.getRequestURI().getRawQuery());
+            long since;
+            String after = params.get("after");
+            int limit;
+            try {
+                since = params.containsKey("since") ? index.parseTime(params.get("since")) : -1;
+                limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_LIMIT;
+                if (after != null && !storage.TradeJournalIndex.isCursor(after)) throw new IllegalArgumentException(after);
+            } catch (RuntimeException e) {
+                byte[] error = "{\"error\":\"Invalid since, after or limit\"}".getBytes(StandardCharsets.UTF_8);
+                t.getResponseHeaders().add("Content-Type", "application/json");
+                t.sendResponseHeaders(400, error.length);
+                try (OutputStream os = t.getResponseBody()) {
+                    os.write(error);
+                }
+                return;
+            }
+            limit = Math.max(0, Math.min(limit, MAX_LIMIT));
+            int sideMask = sideMask(params.get("side"));
+            String symbol = params.get("symbol");
+            if (symbol != null) symbol = symbol.isBlank() ? null : symbol.trim().toUpperCase(java.util.Locale.ROOT);
+            String key = (after != null ? after : since) + "/" + limit + "/" + sideMask + "/" + symbol;
+
+            CachedResponse response;
+            String ifNoneMatch = t.getRequestHeaders().getFirst("If-None-Match");
+            // Refresh, compare and query under the index's lock, so the ETag matches the rows read
+            synchronized (index) {
+                index.refresh();
+                String etag = '"' + index.version() + "-" + Integer.toHexString(key.hashCode()) + '"';
+                if (etag.equals(ifNoneMatch)) {
+                    t.getResponseHeaders().add("ETag", etag);
+                    t.sendResponseHeaders(304, -1);
+                    return;
+                }
+                synchronized (cache) {
+                    response = cache.get(key);
+                }
+                if (response == null || !response.etag.equals(etag)) {
+                    response = readTrades(etag, since, after, limit, sideMask, symbol);
+                    synchronized (cache) {
+                        cache.put(key, response);
+                    }
+                }
+            }
+
             t.getResponseHeaders().add("Content-Type", "application/json");
-            t.sendResponseHeaders(200, response.length());
-            OutputStream os = t.getResponseBody();
-            os.write(response.getBytes());
-            os.close();
+            t.getResponseHeaders().add("ETag", response.etag);
+            if (response.next != null) t.getResponseHeaders().add("X-Next-After", response.next);
+            String acceptEncoding = t.getRequestHeaders().getFirst("Accept-Encoding");
+            if (response.json.length < GZIP_MIN_BYTES || acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+                t.sendResponseHeaders(200, response.json.length);
+                try (OutputStream os = t.getResponseBody()) {
+                    os.write(response.json);
+                }
+                return;
+            }
+
+            t.getResponseHeaders().add("Content-Encoding", "gzip");
+            byte[] gzip = response.gzip;
+            if (gzip != null) {
+                t.sendResponseHeaders(200, gzip.length);
+                try (OutputStream os = t.getResponseBody()) {
+                    os.write(gzip);
+                }
+                return;
+            }
+            // First gzip of this body: stream it chunked as it is compressed, and keep a copy
+            t.sendResponseHeaders(200, 0);
+            java.io.ByteArrayOutputStream copy = new java.io.ByteArrayOutputStream(response.json.length / 4);
+            try (OutputStream os = t.getResponseBody();
+                 java.util.zip.GZIPOutputStream out = new java.util.zip.GZIPOutputStream(new Tee(os, copy), 8192)) {
+                out.write(response.json);
+            }
+            response.gzip = copy.toByteArray();
         }
 
-        // Reads the CSV file effectively and converts it to a JSON array string manually to avoid dependencies
-        private String getTradesAsJson() {
+        // Converts the selected CSV rows to a JSON array manually to avoid dependencies
+        private CachedResponse readTrades(String etag, long since, String after, int limit, int sideMask,
+                                          String symbol) {
             StringBuilder json = new StringBuilder("[");
-            synchronized (services.LockService.fileLock) {
-                try (BufferedReader br = new BufferedReader(new FileReader("trades.csv"))) {
-                    String line;
-                    boolean first = true;
-                    while ((line = br.readLine()) != null) {
-                        if (line.trim().isEmpty()) continue;
-                        String[] parts = line.split(",");
-                        if (parts.length < 4) continue;
-                        
-                        if (!first) json.append(",");
-                        
-                        String price = parts.length > 4 ? parts[4].trim() : "0";
-                        String usdt = parts.length > 5 ? parts[5].trim() : "0";
-                        String btc = parts.length > 6 ? parts[6].trim() : "0";
-                        
-                        json.append(String.format("{\"timestamp\":\"%s\",\"symbol\":\"%s\",\"side\":\"%s\",\"quantity\":\"%s\",\"price\":%s,\"usdt\":%s,\"btc\":%s}", 
-                            parts[0].trim(), parts[1].trim(), parts[2].trim(), parts[3].trim(), price, usdt, btc));
-                        
-                        first = false;
+            storage.TradeJournalIndex.RowConsumer toJson = line -> {
+                String[] parts = line.split(",");
+                if (parts.length < 4) return;
+
+                if (json.length() > 1) json.append(",");
+
+                String price = parts.length > 4 ? parts[4].trim() : "0";
+                String usdt = parts.length > 5 ? parts[5].trim() : "0";
+                String btc = parts.length > 6 ? parts[6].trim() : "0";
+
+                json.append("{\"timestamp\":\"").append(parts[0].trim())
+                    .append("\",\"symbol\":\"").append(parts[1].trim())
+                    .append("\",\"side\":\"").append(parts[2].trim())
+                    .append("\",\"quantity\":\"").append(parts[3].trim())
+                    .append("\",\"price\":").append(price)
+                    .append(",\"usdt\":").append(usdt)
+                    .append(",\"btc\":").append(btc).append('}');
+            };
+            String next;
+            try {
+                next = after != null ? index.queryAfter(after, limit, sideMask, symbol, toJson)
+                        : index.query(since, limit, sideMask, symbol, toJson);
+            } catch (IOException e) {
+                System.err.println("API Error reading CSV: " + e.getMessage());
+                return new CachedResponse(etag, "[]".getBytes(StandardCharsets.UTF_8), null);
+            }
+            json.append("]");
+            return new CachedResponse(etag, json.toString().getBytes(StandardCharsets.UTF_8), next);
+        }
+
+        // Bit per accepted side code, or -1 for all sides
+        private static int sideMask(String sides) {
+            if (sides == null || sides.isBlank()) return -1;
+            int mask = 0;
+            for (String side : sides.split(",")) {
+                mask |= 1 << storage.TradeJournalIndex.sideCode(side.trim().toUpperCase(java.util.Locale.ROOT));
+            }
+            return mask;
+        }
+    }
+
+    // Writes to the response and to a copy
+    private static final class Tee extends java.io.FilterOutputStream {
+        private final OutputStream copy;
+
+        Tee(OutputStream out, OutputStream copy) {
+            super(out);
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copy.write(b);
+        }
+    }
+
+    /**
+     * Handler for /api/stream endpoint.
+     * Pushes live events (candle, signal, order, fill, strategy, balance, trade) as
+     * Server-Sent Events, so the dashboard does not have to poll.
+     *
+     * The handler only subscribes the client and returns; frames are written by one
+     * virtual thread per connection, so an open stream does not hold a CONTROL slot
+     * and a slow client only delays itself. At most MAX_CLIENTS streams are served.
+     */
+    static class StreamHandler implements HttpHandler {
+        private static final int MAX_CLIENTS = 256;
+        private static final long HEARTBEAT_MILLIS = 15_000; // Keeps proxies from closing an idle stream
+        private static final byte[] HEARTBEAT = ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+        // Browsers reconnect after this delay if the connection drops
+        private static final byte[] PREAMBLE = "retry: 3000\n\n".getBytes(StandardCharsets.UTF_8);
+
+        private final EventStream events;
+
+        StreamHandler(EventStream events) {
+            this.events = events;
+        }
+
+        @Override
+        public void handle(HttpExchange t) throws IOException {
+            t.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+            t.getResponseHeaders().add("Access-Control-Allow-Methods", "GET, OPTIONS");
+            t.getResponseHeaders().add("Access-Control-Allow-Headers", "Content-Type,Authorization");
+
+            if (t.getRequestMethod().equalsIgnoreCase("OPTIONS")) {
+                t.sendResponseHeaders(204, -1);
+                return;
+            }
+
+            if (events.getClientCount() >= MAX_CLIENTS) {
+                t.getResponseHeaders().add("Retry-After", "10");
+                t.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            t.getResponseHeaders().add("Content-Type", "text/event-stream; charset=utf-8");
+            t.getResponseHeaders().add("Cache-Control", "no-cache");
+            t.getResponseHeaders().add("X-Accel-Buffering", "no");
+            t.sendResponseHeaders(200, 0); // Chunked, open until the client leaves
+
+            EventStream.Client client = events.subscribe();
+            Thread.ofVirtual().name("api-stream").start(() -> stream(t, client));
+        }
+
+        private void stream(HttpExchange t, EventStream.Client client) {
+            OutputStream os = t.getResponseBody();
+            try {
+                os.write(PREAMBLE);
+                os.flush();
+                while (true) {
+                    byte[][] frames = client.take(HEARTBEAT_MILLIS);
+                    if (frames.length == 0) {
+                        os.write(HEARTBEAT);
+                    } else {
+                        for (byte[] frame : frames) os.write(frame);
                     }
-                } catch (IOException e) {
-                    System.err.println("API Error reading CSV: " + e.getMessage());
-                    return "[]";
+                    os.flush();
                 }
+            } catch (IOException e) {
+                // Client disconnected
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                events.unsubscribe(client);
+                t.close();
             }
-            json.append("]");
-            return json.toString();
         }
     }
 
+    // Parses a raw query string (a=1&b=2) into decoded parameters
+    static Map<String, String> queryParams(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
     /**
      * Handler for /api/strategy endpoint.
      * GET: Returns current strategy name.
@@ -125,9 +572,10 @@ public class ApiService {
                 String currentStrategyName = BotConfig.getInstance().strategy.getName();
                 String response = "{\"name\": \"" + currentStrategyName + "\"}";
                 t.getResponseHeaders().add("Content-Type", "application/json");
-                t.sendResponseHeaders(200, response.length());
+                byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+                t.sendResponseHeaders(200, bytes.length);
                 OutputStream os = t.getResponseBody();
-                os.write(response.getBytes());
+                os.write(bytes);
                 os.close();
             } else if (t.getRequestMethod().equalsIgnoreCase("POST")) {
                 // Read request body
@@ -176,13 +624,17 @@ public class ApiService {
                     finalStrategy = new LowRisk(baseStrategy);
                 }
 
+                String previous = BotConfig.getInstance().strategy.getName();
                 BotConfig.getInstance().strategy = finalStrategy;
+                EventStream.getInstance().publish("strategy", "{\"name\":" + EventStream.quote(finalStrategy.getName())
+                        + ",\"previous\":" + EventStream.quote(previous) + ",\"source\":\"api\"}");
 
                 String response = "{\"status\": \"updated\", \"name\": \"" + finalStrategy.getName() + "\"}";
                 t.getResponseHeaders().add("Content-Type", "application/json");
-                t.sendResponseHeaders(200, response.length());
+                byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+                t.sendResponseHeaders(200, bytes.length);
                 OutputStream os = t.getResponseBody();
-                os.write(response.getBytes());
+                os.write(bytes);
                 os.close();
             }
         }
@@ -0,0 +1,195 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import models.OrderFill;
+
+/**
+ * Local copy of the free account balances, kept current from order fills.
+ *
+ * Bots read their balances here instead of calling /api/v3/account before and after
+ * every trade. Each fill moves the traded quantities and the commissions between
+ * assets. The account is only read again (resync) on a slow schedule, or soon after
+ * something suggests the local view is wrong: an order was rejected or failed, or
+ * a balance went negative.
+ *
+ * One ledger is shared by all bots of an account, since they all spend the same
+ * quote asset (USDT).
+ */
+public class BalanceLedger {
+    public static final long DEFAULT_RESYNC_MILLIS = 15 * 60_000;
+    // Differences below this (relative to the exchange balance) are rounding, not drift
+    private static final double DRIFT_TOLERANCE = 1e-6;
+
+    private final BinanceService binance;
+    private final long resyncMillis;
+
+    private final Map<String, Double> free = new LinkedHashMap<>();
+    private long fillsApplied = 0;         // Bumped on every fill, to detect fills during a resync
+    private long lastSyncAt = 0;           // System.currentTimeMillis() of the last resync, 0 = never
+    private boolean driftSuspected = false;
+
+    // Counters
+    private long resyncs = 0;
+    private long failedResyncs = 0;
+    private long driftEvents = 0;
+
+    public BalanceLedger(BinanceService binance) {
+        this(binance, DEFAULT_RESYNC_MILLIS);
+    }
+
+    /**
+     * @param resyncMillis Maximum age of the account snapshot before it is read again.
+     */
+    public BalanceLedger(BinanceService binance, long resyncMillis) {
+        this.binance = binance;
+        this.resyncMillis = resyncMillis;
+    }
+
+    /**
+     * Adds an asset to the ledger; its balance is read on the next resync.
+     */
+    public synchronized void track(String asset) {
+        if (!free.containsKey(asset)) {
+            free.put(asset, 0.0);
+            driftSuspected = true;
+        }
+    }
+
+    /**
+     * @return The free balance of a tracked asset (0 if untracked).
+     */
+    public synchronized double getFree(String asset) {
+        Double amount = free.get(asset);
+        return amount == null ? 0 : amount;
+    }
+
+    /**
+     * Books a fill: base and quote quantities change by what was executed, and each
+     * commission is taken from the asset it was charged in. Rejected orders change
+     * nothing but trigger a resync.
+     *
+     * @param fill The parsed order result.
+     * @param baseAsset The asset bought or sold (e.g. BTC).
+     * @param quoteAsset The asset paid or received (e.g. USDT).
+     */
+    public synchronized void apply(OrderFill fill, String baseAsset, String quoteAsset) {
+        fillsApplied++;
+        if (fill.error != null) {
+            // The exchange disagreed with our sizing (e.g. insufficient balance)
+            driftSuspected = true;
+            return;
+        }
+
+        double sign = "BUY".equals(fill.side) ? 1 : -1;
+        add(baseAsset, sign * fill.executedQty);
+        add(quoteAsset, -sign * fill.quoteQty);
+        for (OrderFill.Execution execution : fill.executions) {
+            if (execution.commissionAsset != null && free.containsKey(execution.commissionAsset)) {
+                add(execution.commissionAsset, -execution.commission);
+            }
+        }
+    }
+
+    private void add(String asset, double amount) {
+        double balance = free.getOrDefault(asset, 0.0) + amount;
+        if (balance < 0) {
+            driftSuspected = true;
+            balance = 0;
+        }
+        free.put(asset, balance);
+    }
+
+    /**
+     * Asks for a resync at the next check, e.g. after an order failed without a response.
+     */
+    public synchronized void suspectDrift() {
+        driftSuspected = true;
+    }
+
+    /**
+     * Resyncs if drift is suspected or the snapshot is older than the resync interval.
+     * Meant to be called periodically from a background thread.
+     *
+     * @return True if the account was read.
+     */
+    public boolean resyncIfNeeded() {
+        synchronized (this) {
+            if (!driftSuspected && System.currentTimeMillis() - lastSyncAt < resyncMillis) return false;
+        }
+        return resync();
+    }
+
+    /**
+     * Reads the free balances of all tracked assets from the account (one signed request)
+     * and replaces the local values, reporting differences larger than rounding as drift.
+     *
+     * @return True if the balances were replaced.
+     */
+    public boolean resync() {
+        String[] assets;
+        long fillsBefore;
+        synchronized (this) {
+            assets = free.keySet().toArray(new String[0]);
+            fillsBefore = fillsApplied;
+        }
+        if (assets.length == 0) return false;
+
+        double[] balances = binance.getFreeBalances(assets);
+
+        synchronized (this) {
+            if (balances == null) {
+                failedResyncs++;
+                return false;
+            }
+            if (fillsApplied != fillsBefore) {
+                // A fill was booked while the request was out; the snapshot may not include it
+                driftSuspected = true;
+                return false;
+            }
+
+            List<String> drifted = new ArrayList<>();
+            for (int i = 0; i < assets.length; i++) {
+                double local = free.getOrDefault(assets[i], 0.0);
+                if (lastSyncAt != 0 && Math.abs(local - balances[i]) > DRIFT_TOLERANCE * Math.max(1, Math.abs(balances[i]))) {
+                    drifted.add(String.format(Locale.US, "%s %.8f -> %.8f", assets[i], local, balances[i]));
+                }
+                free.put(assets[i], balances[i]);
+            }
+            if (!drifted.isEmpty()) {
+                driftEvents++;
+                System.out.println("Balance drift corrected: " + String.join(", ", drifted));
+            }
+            resyncs++;
+            lastSyncAt = System.currentTimeMillis();
+            driftSuspected = false;
+            return true;
+        }
+    }
+
+    /**
+     * @return The free balances, in the order assets were tracked.
+     */
+    public synchronized Map<String, Double> getBalances() {
+        return new LinkedHashMap<>(free);
+    }
+
+    public synchronized long getResyncs() {
+        return resyncs;
+    }
+
+    public synchronized long getFailedResyncs() {
+        return failedResyncs;
+    }
+
+    /**
+     * @return Resyncs that found a balance different from the local one.
+     */
+    public synchronized long getDriftEvents() {
+        return driftEvents;
+    }
+}
@@ -2,7 +2,13 @@ package services;
 
 public class BinanceConfig {
     // "https://testnet.binance.vision" for Safe Testing
-    public static final String BASE_URL = "https://testnet.binance.vision"; 
+    public static final String DEFAULT_BASE_URL = "https://testnet.binance.vision";
+    // Overridable (e.g. http://localhost:9090 for the mock exchange): -Dbinance.baseUrl,
+    // the BINANCE_BASE_URL environment variable or a BINANCE_BASE_URL= line in .env
+    public static String BASE_URL = DEFAULT_BASE_URL;
+    // Request weight per minute the client allows itself (raise it for load tests against the
+    // mock exchange): -Dbinance.weightLimit, BINANCE_WEIGHT_LIMIT or a .env line
+    public static int WEIGHT_LIMIT = RequestGovernor.DEFAULT_WEIGHT_LIMIT;
     
     public static String API_KEY = "YOUR_API_KEY_HERE";
     public static String SECRET_KEY = "YOUR_SECRET_KEY_HERE";
@@ -22,6 +28,10 @@ public class BinanceConfig {
                         API_KEY = line.substring("BINANCE_API_KEY=".length()).trim();
                     } else if (line.startsWith("BINANCE_SECRET_KEY=")) {
                         SECRET_KEY = line.substring("BINANCE_SECRET_KEY=".length()).trim();
+                    } else if (line.startsWith("BINANCE_BASE_URL=")) {
+                        BASE_URL = line.substring("BINANCE_BASE_URL=".length()).trim();
+                    } else if (line.startsWith("BINANCE_WEIGHT_LIMIT=")) {
+                        WEIGHT_LIMIT = Integer.parseInt(line.substring("BINANCE_WEIGHT_LIMIT=".length()).trim());
                     }
                 }
                 scanner.close();
@@ -31,6 +41,18 @@ public class BinanceConfig {
         } catch (java.io.FileNotFoundException e) {
             e.printStackTrace();
         }
+
+        // Environment and system properties win over .env
+        BASE_URL = override("BINANCE_BASE_URL", "binance.baseUrl", BASE_URL);
+        WEIGHT_LIMIT = Integer.parseInt(override("BINANCE_WEIGHT_LIMIT", "binance.weightLimit", Integer.toString(WEIGHT_LIMIT)));
+    }
+
+    private static String override(String envName, String propertyName, String value) {
+        String env = System.getenv(envName);
+        if (env != null && !env.isBlank()) value = env.trim();
+        String property = System.getProperty(propertyName);
+        if (property != null && !property.isBlank()) value = property.trim();
+        return value;
     }
     
     public static boolean isConfigured() {
@@ -0,0 +1,303 @@
+package services;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared HTTP transport for all Binance REST calls.
+ *
+ * Wraps one java.net.http.HttpClient, which keeps connections alive and pools them
+ * (HTTP/2 where the server supports it, HTTP/1.1 otherwise), so only the first call
+ * to a host pays for the TCP and TLS handshake. warmUp() makes that first call at
+ * startup, keeping handshakes off the tick-to-order path.
+ *
+ * Every request is timed per endpoint (path without the query string) and goes
+ * through the RequestGovernor, which keeps the request weight under the exchange limit.
+ */
+public class BinanceHttpClient {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final String USER_AGENT = "Mozilla/5.0";
+
+    private static BinanceHttpClient instance;
+    // Async requests wait for request-weight budget here instead of in the caller
+    private static final Executor BUDGET_WAITERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final RequestGovernor governor;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseUrl Scheme and host of the REST API, e.g. https://testnet.binance.vision
+     *                or http://localhost:8089 for a local stub server.
+     */
+    public BinanceHttpClient(String baseUrl) {
+        this(baseUrl, new RequestGovernor());
+    }
+
+    /**
+     * @param governor Request-weight budget shared by all requests of this client.
+     */
+    public BinanceHttpClient(String baseUrl, RequestGovernor governor) {
+        this.governor = governor;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * @return The process-wide client for BinanceConfig.BASE_URL.
+     */
+    public static synchronized BinanceHttpClient getInstance() {
+        if (instance == null) {
+            instance = new BinanceHttpClient(BinanceConfig.BASE_URL, new RequestGovernor(BinanceConfig.WEIGHT_LIMIT));
+        }
+        return instance;
+    }
+
+    /**
+     * Response status and raw body bytes.
+     */
+    public static class Response {
+        public final int statusCode;
+        public final byte[] body;
+
+        Response(int statusCode, byte[] body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        public boolean isSuccess() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+
+        public String bodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Opens (and keeps) a connection to the API host by calling /api/v3/ping,
+     * so the handshake happens before the first tick.
+     *
+     * @return True if the host answered.
+     */
+    public boolean warmUp() {
+        try {
+            return get("/api/v3/ping", null).isSuccess();
+        } catch (IOException e) {
+            System.err.println("HTTP warm-up failed: " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Sends a GET request and waits for the response.
+     *
+     * @param pathAndQuery Path plus query string, e.g. /api/v3/klines?symbol=BTCUSDT.
+     * @param apiKey Value of the X-MBX-APIKEY header, or null for public endpoints.
+     */
+    public Response get(String pathAndQuery, String apiKey) throws IOException, InterruptedException {
+        return send(request("GET", pathAndQuery, apiKey), pathAndQuery);
+    }
+
+    /**
+     * Sends a POST request (parameters in the query string, empty body) and waits for the response.
+     */
+    public Response post(String pathAndQuery, String apiKey) throws IOException, InterruptedException {
+        return send(request("POST", pathAndQuery, apiKey), pathAndQuery);
+    }
+
+    public CompletableFuture<Response> getAsync(String pathAndQuery, String apiKey) {
+        return sendAsync(request("GET", pathAndQuery, apiKey), pathAndQuery);
+    }
+
+    public CompletableFuture<Response> postAsync(String pathAndQuery, String apiKey) {
+        return sendAsync(request("POST", pathAndQuery, apiKey), pathAndQuery);
+    }
+
+    private HttpRequest request(String method, String pathAndQuery, String apiKey) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(REQUEST_TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .method(method, HttpRequest.BodyPublishers.noBody());
+        if (apiKey != null) builder.header("X-MBX-APIKEY", apiKey);
+        return builder.build();
+    }
+
+    private Response send(HttpRequest request, String pathAndQuery) throws IOException, InterruptedException {
+        governor.acquire(RequestGovernor.weightOf(pathAndQuery), RequestGovernor.priorityOf(pathAndQuery));
+        EndpointStats endpoint = statsFor(pathAndQuery);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            endpoint.record(System.nanoTime() - start, response.statusCode());
+            return toResponse(response);
+        } catch (IOException | InterruptedException e) {
+            endpoint.recordFailure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Response> sendAsync(HttpRequest request, String pathAndQuery) {
+        int weight = RequestGovernor.weightOf(pathAndQuery);
+        RequestGovernor.Priority priority = RequestGovernor.priorityOf(pathAndQuery);
+        EndpointStats endpoint = statsFor(pathAndQuery);
+        return CompletableFuture.runAsync(() -> {
+                    try {
+                        governor.acquire(weight, priority);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CompletionException(e);
+                    }
+                }, BUDGET_WAITERS)
+                .thenCompose(ignored -> {
+                    long start = System.nanoTime();
+                    return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                            .whenComplete((response, error) -> {
+                                if (error != null) {
+                                    endpoint.recordFailure(System.nanoTime() - start);
+                                } else {
+                                    endpoint.record(System.nanoTime() - start, response.statusCode());
+                                }
+                            });
+                })
+                .thenApply(this::toResponse);
+    }
+
+    // Feeds the rate-limit headers to the governor and keeps status and body
+    private Response toResponse(HttpResponse<byte[]> response) {
+        int usedWeight = (int) header(response, "X-MBX-USED-WEIGHT-1M");
+        long retryAfter = header(response, "Retry-After");
+        governor.onResponse(response.statusCode(), usedWeight, retryAfter);
+        return new Response(response.statusCode(), response.body());
+    }
+
+    private static long header(HttpResponse<?> response, String name) {
+        try {
+            return response.headers().firstValue(name).map(Long::parseLong).orElse(-1L);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private EndpointStats statsFor(String pathAndQuery) {
+        int query = pathAndQuery.indexOf('?');
+        String path = query == -1 ? pathAndQuery : pathAndQuery.substring(0, query);
+        return stats.computeIfAbsent(path, EndpointStats::new);
+    }
+
+    /**
+     * Latency and outcome counters of one endpoint, also exported to the metrics registry
+     * (binance_request_seconds, binance_requests_total by status class).
+     */
+    public static class EndpointStats {
+        // Status classes of binance_requests_total; "error" = no response (I/O failure, timeout)
+        private static final String[] STATUS_CLASSES = {"2xx", "3xx", "4xx", "418", "429", "5xx", "error"};
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder(); // Non-2xx responses and I/O failures
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final metrics.Histogram latency;
+        private final metrics.Counter[] byStatus = new metrics.Counter[STATUS_CLASSES.length];
+
+        EndpointStats(String path) {
+            metrics.MetricsRegistry registry = metrics.MetricsRegistry.getInstance();
+            latency = registry.histogram("binance_request_seconds", "Binance REST request latency by endpoint",
+                    "endpoint", path);
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                byStatus[i] = registry.counter("binance_requests_total", "Binance REST requests by endpoint and status",
+                        "endpoint", path, "status", STATUS_CLASSES[i]);
+            }
+        }
+
+        void record(long nanos, int statusCode) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (statusCode < 200 || statusCode >= 300) errors.increment();
+            latency.record(nanos);
+            byStatus[statusClass(statusCode)].increment();
+        }
+
+        private static int statusClass(int statusCode) {
+            if (statusCode < 0) return 6;
+            if (statusCode == 418) return 3;
+            if (statusCode == 429) return 4;
+            if (statusCode >= 500) return 5;
+            if (statusCode >= 400) return 2;
+            return statusCode >= 300 ? 1 : 0;
+        }
+
+        void recordFailure(long nanos) {
+            record(nanos, -1);
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public double getAverageMillis() {
+            long n = calls.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+    }
+
+    /**
+     * @return Stats per endpoint path, sorted by path.
+     */
+    public Map<String, EndpointStats> getStats() {
+        return new TreeMap<>(stats);
+    }
+
+    /**
+     * @return One line per endpoint: calls, errors, average and max latency.
+     */
+    public String statsSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, EndpointStats> entry : getStats().entrySet()) {
+            EndpointStats s = entry.getValue();
+            summary.append(String.format(Locale.US, "%-20s calls=%d errors=%d avg=%.1fms max=%.1fms%n",
+                    entry.getKey(), s.getCalls(), s.getErrors(), s.getAverageMillis(), s.getMaxMillis()));
+        }
+        return summary.toString();
+    }
+
+    public RequestGovernor getGovernor() {
+        return governor;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+}
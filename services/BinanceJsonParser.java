@@ -0,0 +1,569 @@
+package services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import models.Candle;
+import models.OrderFill;
+import models.SymbolFilters;
+
+/**
+ * Byte-level parser for the few Binance REST payloads the bot reads:
+ * klines arrays, /api/v3/account balances, /api/v3/order responses, /api/v3/time and
+ * the symbol filters of /api/v3/exchangeInfo.
+ *
+ * Works directly on the response bytes: numbers (quoted or not) are decoded in
+ * place into primitives, keys are compared byte by byte, and nothing else is
+ * materialized. No regex, no split, no intermediate Strings.
+ *
+ * Malformed input throws IllegalArgumentException with the byte offset.
+ */
+public final class BinanceJsonParser {
+
+    /**
+     * Receives one kline row (the fields after closeTime are skipped).
+     * Matches CandleSeries.append, so a series can be filled with series::append.
+     */
+    public interface KlineHandler {
+        void onKline(long openTime, double open, double high, double low, double close, double volume, long closeTime);
+    }
+
+    private static final byte[] BALANCES = ascii("balances");
+    private static final byte[] ASSET = ascii("asset");
+    private static final byte[] FREE = ascii("free");
+    private static final byte[] SERVER_TIME = ascii("serverTime");
+    private static final byte[] ORDER_ID = ascii("orderId");
+    private static final byte[] STATUS = ascii("status");
+    private static final byte[] EXECUTED_QTY = ascii("executedQty");
+    private static final byte[] QUOTE_QTY = ascii("cummulativeQuoteQty");
+    private static final byte[] MSG = ascii("msg");
+    private static final byte[] FILLS = ascii("fills");
+    private static final byte[] PRICE = ascii("price");
+    private static final byte[] QTY = ascii("qty");
+    private static final byte[] COMMISSION = ascii("commission");
+    private static final byte[] COMMISSION_ASSET = ascii("commissionAsset");
+    private static final byte[] SYMBOLS = ascii("symbols");
+    private static final byte[] SYMBOL = ascii("symbol");
+    private static final byte[] FILTERS = ascii("filters");
+    private static final byte[] FILTER_TYPE = ascii("filterType");
+    private static final byte[] STEP_SIZE = ascii("stepSize");
+    private static final byte[] MIN_QTY = ascii("minQty");
+    private static final byte[] MAX_QTY = ascii("maxQty");
+    private static final byte[] MIN_NOTIONAL = ascii("minNotional");
+
+    // Exact powers of ten for the fast double path (10^22 is the largest exact double power)
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final byte[] buf;
+    private final int end;
+    private int pos;
+
+    private BinanceJsonParser(byte[] buf, int offset, int length) {
+        this.buf = buf;
+        this.pos = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Parses a klines response ([[openTime,"open","high","low","close","volume",closeTime,...],...]).
+     *
+     * @param json The response body.
+     * @param handler Called once per row, oldest first.
+     * @return Number of rows.
+     */
+    public static int parseKlines(byte[] json, KlineHandler handler) {
+        return parseKlines(json, 0, json.length, handler);
+    }
+
+    public static int parseKlines(byte[] json, int offset, int length, KlineHandler handler) {
+        BinanceJsonParser p = new BinanceJsonParser(json, offset, length);
+        p.expect('[');
+        int rows = 0;
+        if (p.consumeIf(']')) return rows;
+        do {
+            p.expect('[');
+            long openTime = p.readLong();
+            p.expect(',');
+            double open = p.readDouble();
+            p.expect(',');
+            double high = p.readDouble();
+            p.expect(',');
+            double low = p.readDouble();
+            p.expect(',');
+            double close = p.readDouble();
+            p.expect(',');
+            double volume = p.readDouble();
+            p.expect(',');
+            long closeTime = p.readLong();
+            while (p.consumeIf(',')) p.skipValue();
+            p.expect(']');
+            handler.onKline(openTime, open, high, low, close, volume, closeTime);
+            rows++;
+        } while (p.consumeIf(','));
+        p.expect(']');
+        return rows;
+    }
+
+    /**
+     * Parses the newest (last) row of a klines response into an existing Candle.
+     *
+     * @return False if the response holds no rows ('into' is left untouched).
+     */
+    public static boolean parseLastKline(byte[] json, Candle into) {
+        CandleSink sink = new CandleSink(into);
+        parseKlines(json, sink);
+        return sink.seen;
+    }
+
+    // Copies each row into the same Candle, so the last row wins
+    private static final class CandleSink implements KlineHandler {
+        private final Candle candle;
+        private boolean seen = false;
+
+        CandleSink(Candle candle) {
+            this.candle = candle;
+        }
+
+        @Override
+        public void onKline(long openTime, double open, double high, double low, double close, double volume, long closeTime) {
+            candle.openTime = openTime;
+            candle.open = open;
+            candle.high = high;
+            candle.low = low;
+            candle.close = close;
+            candle.volume = volume;
+            candle.closeTime = closeTime;
+            seen = true;
+        }
+    }
+
+    /**
+     * Reads the free balances of several assets from an /api/v3/account response in one pass.
+     *
+     * @param json The response body ({"balances":[{"asset":"BTC","free":"0.1","locked":"0"},...],...}).
+     * @param assets Asset codes as ASCII bytes (see ascii()).
+     * @param free Receives the free balance of assets[i] at index i (0 if the asset is not listed).
+     */
+    public static void parseFreeBalances(byte[] json, byte[][] assets, double[] free) {
+        java.util.Arrays.fill(free, 0, assets.length, 0);
+        BinanceJsonParser p = new BinanceJsonParser(json, 0, json.length);
+        if (!p.seekKey(BALANCES)) return;
+
+        p.expect('[');
+        if (p.consumeIf(']')) return;
+        do {
+            p.expect('{');
+            int match = -1;
+            double amount = 0;
+            if (!p.consumeIf('}')) {
+                do {
+                    int keyStart = p.readStringStart();
+                    int keyEnd = p.skipStringBody();
+                    p.expect(':');
+                    if (p.rangeEquals(keyStart, keyEnd, ASSET)) {
+                        int valueStart = p.readStringStart();
+                        int valueEnd = p.skipStringBody();
+                        for (int i = 0; i < assets.length; i++) {
+                            if (p.rangeEquals(valueStart, valueEnd, assets[i])) {
+                                match = i;
+                                break;
+                            }
+                        }
+                    } else if (p.rangeEquals(keyStart, keyEnd, FREE)) {
+                        amount = p.readDouble();
+                    } else {
+                        p.skipValue();
+                    }
+                } while (p.consumeIf(','));
+                p.expect('}');
+            }
+            if (match >= 0) free[match] = amount;
+        } while (p.consumeIf(','));
+        p.expect(']');
+    }
+
+    /**
+     * Reads the result of a new order (POST /api/v3/order) or an error response into a fill.
+     *
+     * @param json The response body ({"orderId":1,"status":"FILLED","executedQty":"0.001",
+     *             "cummulativeQuoteQty":"65.2","fills":[{"price":"65200","qty":"0.001",
+     *             "commission":"0.0652","commissionAsset":"USDT"}],...} or {"code":-2010,"msg":"..."}).
+     * @param into Receives orderId, status, executedQty, quoteQty, the fills and error (msg).
+     */
+    public static void parseOrder(byte[] json, OrderFill into) {
+        BinanceJsonParser p = new BinanceJsonParser(json, 0, json.length);
+        p.expect('{');
+        if (p.consumeIf('}')) return;
+        do {
+            int keyStart = p.readStringStart();
+            int keyEnd = p.skipStringBody();
+            p.expect(':');
+            if (p.rangeEquals(keyStart, keyEnd, ORDER_ID)) {
+                into.orderId = p.readLong();
+            } else if (p.rangeEquals(keyStart, keyEnd, STATUS)) {
+                into.status = p.readString();
+            } else if (p.rangeEquals(keyStart, keyEnd, EXECUTED_QTY)) {
+                into.executedQty = p.readDouble();
+            } else if (p.rangeEquals(keyStart, keyEnd, QUOTE_QTY)) {
+                into.quoteQty = p.readDouble();
+            } else if (p.rangeEquals(keyStart, keyEnd, MSG)) {
+                into.error = p.readString();
+            } else if (p.rangeEquals(keyStart, keyEnd, FILLS)) {
+                p.readExecutions(into);
+            } else {
+                p.skipValue();
+            }
+        } while (p.consumeIf(','));
+        p.expect('}');
+    }
+
+    // Reads the fills[] array of a FULL order response
+    private void readExecutions(OrderFill into) {
+        expect('[');
+        if (consumeIf(']')) return;
+        do {
+            expect('{');
+            double price = 0, qty = 0, commission = 0;
+            String commissionAsset = null;
+            if (!consumeIf('}')) {
+                do {
+                    int keyStart = readStringStart();
+                    int keyEnd = skipStringBody();
+                    expect(':');
+                    if (rangeEquals(keyStart, keyEnd, PRICE)) {
+                        price = readDouble();
+                    } else if (rangeEquals(keyStart, keyEnd, QTY)) {
+                        qty = readDouble();
+                    } else if (rangeEquals(keyStart, keyEnd, COMMISSION)) {
+                        commission = readDouble();
+                    } else if (rangeEquals(keyStart, keyEnd, COMMISSION_ASSET)) {
+                        commissionAsset = readString();
+                    } else {
+                        skipValue();
+                    }
+                } while (consumeIf(','));
+                expect('}');
+            }
+            into.executions.add(new OrderFill.Execution(price, qty, commission, commissionAsset));
+        } while (consumeIf(','));
+        expect(']');
+    }
+
+    /**
+     * Reads the LOT_SIZE and NOTIONAL / MIN_NOTIONAL filters of every symbol in an
+     * /api/v3/exchangeInfo response (one request for symbols=[...] lists them all).
+     *
+     * @param json The response body ({"symbols":[{"symbol":"ETHUSDT","filters":[{"filterType":"LOT_SIZE",
+     *             "minQty":"0.00010000","maxQty":"9000.00000000","stepSize":"0.00010000"},
+     *             {"filterType":"NOTIONAL","minNotional":"5.00000000",...},...]},...],...}).
+     * @return The filters by symbol, in response order; empty if none are listed.
+     */
+    public static Map<String, SymbolFilters> parseAllSymbolFilters(byte[] json) {
+        Map<String, SymbolFilters> result = new LinkedHashMap<>();
+        BinanceJsonParser p = new BinanceJsonParser(json, 0, json.length);
+        if (!p.seekKey(SYMBOLS)) return result;
+
+        p.expect('[');
+        if (p.consumeIf(']')) return result;
+        do {
+            // Filters are read before the symbol is known if "filters" comes first
+            SymbolFilters read = new SymbolFilters(null);
+            String symbol = null;
+            p.expect('{');
+            if (!p.consumeIf('}')) {
+                do {
+                    int keyStart = p.readStringStart();
+                    int keyEnd = p.skipStringBody();
+                    p.expect(':');
+                    if (p.rangeEquals(keyStart, keyEnd, SYMBOL)) {
+                        symbol = p.readString();
+                    } else if (p.rangeEquals(keyStart, keyEnd, FILTERS)) {
+                        p.readFilters(read);
+                    } else {
+                        p.skipValue();
+                    }
+                } while (p.consumeIf(','));
+                p.expect('}');
+            }
+            if (symbol != null) {
+                SymbolFilters filters = new SymbolFilters(symbol);
+                filters.stepSize = read.stepSize;
+                filters.minQty = read.minQty;
+                filters.maxQty = read.maxQty;
+                filters.minNotional = read.minNotional;
+                result.put(symbol, filters);
+            }
+        } while (p.consumeIf(','));
+        p.expect(']');
+        return result;
+    }
+
+    // Reads a symbol's filters[] array; only LOT_SIZE and the notional filters are kept
+    private void readFilters(SymbolFilters into) {
+        expect('[');
+        if (consumeIf(']')) return;
+        do {
+            expect('{');
+            String type = null, stepSize = null;
+            double minQty = 0, maxQty = 0, minNotional = 0;
+            if (!consumeIf('}')) {
+                do {
+                    int keyStart = readStringStart();
+                    int keyEnd = skipStringBody();
+                    expect(':');
+                    if (rangeEquals(keyStart, keyEnd, FILTER_TYPE)) {
+                        type = readString();
+                    } else if (rangeEquals(keyStart, keyEnd, STEP_SIZE)) {
+                        stepSize = readString(); // Kept as text: the step must stay exact
+                    } else if (rangeEquals(keyStart, keyEnd, MIN_QTY)) {
+                        minQty = readDouble();
+                    } else if (rangeEquals(keyStart, keyEnd, MAX_QTY)) {
+                        maxQty = readDouble();
+                    } else if (rangeEquals(keyStart, keyEnd, MIN_NOTIONAL)) {
+                        minNotional = readDouble();
+                    } else {
+                        skipValue();
+                    }
+                } while (consumeIf(','));
+                expect('}');
+            }
+            if ("LOT_SIZE".equals(type)) {
+                if (stepSize != null) into.stepSize = new java.math.BigDecimal(stepSize);
+                into.minQty = minQty;
+                if (maxQty > 0) into.maxQty = maxQty;
+            } else if ("NOTIONAL".equals(type) || "MIN_NOTIONAL".equals(type)) {
+                into.minNotional = Math.max(into.minNotional, minNotional);
+            }
+        } while (consumeIf(','));
+        expect(']');
+    }
+
+    /**
+     * @return serverTime of an /api/v3/time response ({"serverTime":1765619555123}), or -1 if absent.
+     */
+    public static long parseServerTime(byte[] json) {
+        BinanceJsonParser p = new BinanceJsonParser(json, 0, json.length);
+        return p.seekKey(SERVER_TIME) ? p.readLong() : -1;
+    }
+
+    /**
+     * @return The ASCII bytes of a key or asset code, for the byte[] based lookups.
+     */
+    public static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // ---- Tokenizer ----
+
+    private void skipWhitespace() {
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') return;
+            pos++;
+        }
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if (pos >= end || buf[pos] != c) throw error("Expected '" + c + "'");
+        pos++;
+    }
+
+    private boolean consumeIf(char c) {
+        skipWhitespace();
+        if (pos < end && buf[pos] == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    // Positions the cursor after "key": in the top-level object
+    private boolean seekKey(byte[] key) {
+        expect('{');
+        if (consumeIf('}')) return false;
+        do {
+            int keyStart = readStringStart();
+            int keyEnd = skipStringBody();
+            expect(':');
+            if (rangeEquals(keyStart, keyEnd, key)) return true;
+            skipValue();
+        } while (consumeIf(','));
+        return false;
+    }
+
+    // Consumes the opening quote and returns the index of the first content byte
+    private int readStringStart() {
+        expect('"');
+        return pos;
+    }
+
+    // Skips to the closing quote; returns the index just past the content
+    private int skipStringBody() {
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b == '"') {
+                return pos++;
+            }
+            pos += (b == '\\') ? 2 : 1;
+        }
+        throw error("Unterminated string");
+    }
+
+    // Reads a short string value (escapes are kept as-is)
+    private String readString() {
+        int start = readStringStart();
+        int stop = skipStringBody();
+        return new String(buf, start, stop - start, StandardCharsets.UTF_8);
+    }
+
+    private boolean rangeEquals(int from, int to, byte[] value) {
+        if (to - from != value.length) return false;
+        for (int i = 0; i < value.length; i++) {
+            if (buf[from + i] != value[i]) return false;
+        }
+        return true;
+    }
+
+    private void skipValue() {
+        skipWhitespace();
+        if (pos >= end) throw error("Expected a value");
+        byte b = buf[pos];
+        if (b == '"') {
+            pos++;
+            skipStringBody();
+        } else if (b == '[' || b == '{') {
+            // Skip the nested structure by depth, stepping over strings
+            int depth = 0;
+            while (pos < end) {
+                b = buf[pos];
+                if (b == '"') {
+                    pos++;
+                    skipStringBody();
+                    continue;
+                }
+                pos++;
+                if (b == '[' || b == '{') {
+                    depth++;
+                } else if (b == ']' || b == '}') {
+                    if (--depth == 0) return;
+                }
+            }
+            throw error("Unterminated structure");
+        } else {
+            // Number or literal (true/false/null)
+            int start = pos;
+            while (pos < end) {
+                b = buf[pos];
+                if (b == ',' || b == ']' || b == '}' || b == ' ' || b == '\n' || b == '\r' || b == '\t') break;
+                pos++;
+            }
+            if (pos == start) throw error("Expected a value");
+        }
+    }
+
+    // Reads an integer, quoted or not
+    private long readLong() {
+        skipWhitespace();
+        boolean quoted = pos < end && buf[pos] == '"';
+        if (quoted) pos++;
+
+        boolean negative = pos < end && buf[pos] == '-';
+        if (negative) pos++;
+
+        int start = pos;
+        long value = 0;
+        while (pos < end) {
+            int digit = buf[pos] - '0';
+            if (digit < 0 || digit > 9) break;
+            value = value * 10 + digit;
+            pos++;
+        }
+        if (pos == start) throw error("Expected an integer");
+        if (quoted) expect('"');
+        return negative ? -value : value;
+    }
+
+    // Reads a decimal number, quoted or not
+    private double readDouble() {
+        skipWhitespace();
+        boolean quoted = pos < end && buf[pos] == '"';
+        if (quoted) pos++;
+
+        int start = pos;
+        boolean negative = pos < end && buf[pos] == '-';
+        if (negative) pos++;
+
+        long mantissa = 0;
+        int digits = 0;   // Significant digits accumulated into the mantissa
+        int scale = 0;    // Power of ten to apply to the mantissa
+        boolean exact = true;
+        boolean any = false;
+
+        while (pos < end) {
+            int digit = buf[pos] - '0';
+            if (digit < 0 || digit > 9) break;
+            any = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0) digits++;
+            } else {
+                scale++;
+                exact = false;
+            }
+            pos++;
+        }
+        if (pos < end && buf[pos] == '.') {
+            pos++;
+            while (pos < end) {
+                int digit = buf[pos] - '0';
+                if (digit < 0 || digit > 9) break;
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) digits++;
+                    scale--;
+                } else if (digit != 0) {
+                    exact = false;
+                }
+                pos++;
+            }
+        }
+        if (!any) throw error("Expected a number");
+
+        if (pos < end && (buf[pos] == 'e' || buf[pos] == 'E')) {
+            pos++;
+            boolean negativeExponent = false;
+            if (pos < end && (buf[pos] == '+' || buf[pos] == '-')) {
+                negativeExponent = buf[pos] == '-';
+                pos++;
+            }
+            int exponent = 0;
+            while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+                if (exponent < 10000) exponent = exponent * 10 + (buf[pos] - '0');
+                pos++;
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        int stop = pos;
+        if (quoted) expect('"');
+
+        double value;
+        if (exact && mantissa <= MAX_EXACT_MANTISSA && scale >= -22 && scale <= 22) {
+            // Both operands are exact doubles, so a single multiply/divide rounds correctly
+            value = scale < 0 ? mantissa / POW10[-scale] : mantissa * POW10[scale];
+            return negative ? -value : value;
+        }
+        // Rare (very long or extreme numbers): fall back to the JDK for correct rounding
+        return Double.parseDouble(new String(buf, start, stop - start, StandardCharsets.US_ASCII));
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + pos);
+    }
+}
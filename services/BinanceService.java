@@ -1,14 +1,16 @@
 package services;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URLEncoder;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 
+import tracing.TickEvents;
+
 public class BinanceService {
 
     // Offset between local time and server time to ensure request timestamps are accurate
@@ -16,6 +18,53 @@ public class BinanceService {
     // Flag to check if time synchronization has been performed
     private static boolean isTimeSynced = false;
 
+    // Binance caps /api/v3/klines at 1000 rows per request
+    public static final int MAX_KLINES_PER_REQUEST = 1000;
+
+    // Assets read from /api/v3/account, in WalletBalance order
+    private static final byte[][] BALANCE_ASSETS = {
+        BinanceJsonParser.ascii("USDT"), BinanceJsonParser.ascii("BTC")
+    };
+
+    // Trading rules per symbol from /api/v3/exchangeInfo, loaded at startup (see loadSymbolFilters)
+    private static final Map<String, models.SymbolFilters> symbolFilters = new ConcurrentHashMap<>();
+
+    // Shared keep-alive transport (connection pool, latency stats)
+    private final BinanceHttpClient http;
+
+    public BinanceService() {
+        this(BinanceHttpClient.getInstance());
+    }
+
+    /**
+     * @param http The transport to use, e.g. one pointed at a local stub server.
+     */
+    public BinanceService(BinanceHttpClient http) {
+        this.http = http;
+    }
+
+    /**
+     * @return The current exchange time in ms (local clock corrected by the last time sync).
+     */
+    public static long serverTime() {
+        return System.currentTimeMillis() + serverTimeOffset;
+    }
+
+    /**
+     * Opens the pooled connection to the API host and syncs the clock with the
+     * server, so the first tick does not pay for the handshake.
+     */
+    public void warmUp() {
+        if (http.warmUp()) syncTime();
+    }
+
+    /**
+     * @return The transport used by this service (exposes per-endpoint latency stats).
+     */
+    public BinanceHttpClient getHttpClient() {
+        return http;
+    }
+
     /**
      * Fetches the latest candle data for a specific symbol and interval.
      * 
@@ -25,35 +74,115 @@ public class BinanceService {
      */
     public models.Candle getCandle(String symbol, String interval) {
         try {
-            String endpoint = BinanceConfig.BASE_URL + "/api/v3/klines?symbol=" + symbol + "&interval=" + interval + "&limit=1";
-            URL url = new URL(endpoint);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("User-Agent", "Mozilla/5.0");
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-
-            int responseCode = conn.getResponseCode();
-            if (responseCode == 200) {
-                BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                String inputLine;
-                StringBuilder content = new StringBuilder();
-                while ((inputLine = in.readLine()) != null) {
-                    content.append(inputLine);
-                }
-                in.close();
-                conn.disconnect();
-
-                return parseCandleFromJson(content.toString());
+            BinanceHttpClient.Response response = http.get(klinesPath(symbol, interval), null);
+            if (response.statusCode == 200) {
+                return parseCandleFromJson(response.body);
             } else {
-                System.out.println("GET request failed. Response Code: " + responseCode);
+                System.out.println("GET request failed. Response Code: " + response.statusCode);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             e.printStackTrace();
         }
         return null;
     }
 
+    private static String klinesPath(String symbol, String interval) {
+        return "/api/v3/klines?symbol=" + symbol + "&interval=" + interval + "&limit=1";
+    }
+
+    /**
+     * Fetches one page of historical klines.
+     * 
+     * @param symbol The trading pair symbol (e.g., BTCUSDT).
+     * @param interval The candle interval (e.g., 15m).
+     * @param startTime First openTime to include, or 0 for none.
+     * @param endTime Last openTime to include, or 0 for none (up to the current bar).
+     * @param limit Maximum rows (at most MAX_KLINES_PER_REQUEST).
+     * @param handler Receives each row, oldest first.
+     * @return Number of rows received, or -1 if the request failed.
+     */
+    public int getCandles(String symbol, String interval, long startTime, long endTime, int limit,
+                          BinanceJsonParser.KlineHandler handler) {
+        StringBuilder path = new StringBuilder("/api/v3/klines?symbol=").append(symbol)
+                .append("&interval=").append(interval)
+                .append("&limit=").append(Math.min(limit, MAX_KLINES_PER_REQUEST));
+        if (startTime > 0) path.append("&startTime=").append(startTime);
+        if (endTime > 0) path.append("&endTime=").append(endTime);
+
+        try {
+            TickEvents.KlineFetch fetch = new TickEvents.KlineFetch();
+            fetch.begin();
+            BinanceHttpClient.Response response = http.get(path.toString(), null);
+            if (fetch.shouldCommit()) {
+                fetch.stamp();
+                fetch.symbol = symbol;
+                fetch.interval = interval;
+                fetch.statusCode = response.statusCode;
+                fetch.bytes = response.body == null ? 0 : response.body.length;
+                fetch.commit();
+            }
+            if (response.statusCode == 200) {
+                TickEvents.KlineParse parse = new TickEvents.KlineParse();
+                parse.begin();
+                int rows = BinanceJsonParser.parseKlines(response.body, handler);
+                if (parse.shouldCommit()) {
+                    parse.stamp();
+                    parse.symbol = symbol;
+                    parse.rows = rows;
+                    parse.commit();
+                }
+                return rows;
+            }
+            System.out.println("Klines request failed. Response Code: " + response.statusCode + " Msg: " + response.bodyAsString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.out.println("Klines request failed: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Fetches up to 'limit' candles opened between startTime and endTime, paging through
+     * the klines endpoint MAX_KLINES_PER_REQUEST rows at a time.
+     * 
+     * @param startTime First openTime to include.
+     * @param endTime Last openTime to include, or 0 for up to the current bar.
+     * @param limit Maximum number of candles.
+     * @return The candles, oldest first (fewer than requested if the range ends or a request fails).
+     */
+    public models.CandleSeries getCandles(String symbol, String interval, long startTime, long endTime, int limit) {
+        models.CandleSeries series = new models.CandleSeries(Math.max(1, limit));
+        long from = startTime;
+        while (series.size() < limit) {
+            int page = Math.min(MAX_KLINES_PER_REQUEST, limit - series.size());
+            int rows = getCandles(symbol, interval, from, endTime, page, series::append);
+            if (rows <= 0) break;
+            from = series.lastOpenTime() + 1;
+            if (rows < page) break; // Reached endTime / the current bar
+        }
+        return series;
+    }
+
+    /**
+     * @param interval A Binance interval code (1m, 15m, 1h, 1d, 1w, 1M, ...).
+     * @return Its length in milliseconds (1M counts as 30 days).
+     */
+    public static long intervalMillis(String interval) {
+        long amount = Long.parseLong(interval.substring(0, interval.length() - 1));
+        switch (interval.charAt(interval.length() - 1)) {
+            case 's': return amount * 1000L;
+            case 'm': return amount * 60_000L;
+            case 'h': return amount * 3_600_000L;
+            case 'd': return amount * 86_400_000L;
+            case 'w': return amount * 7 * 86_400_000L;
+            case 'M': return amount * 30 * 86_400_000L;
+            default: throw new IllegalArgumentException("Unknown interval: " + interval);
+        }
+    }
+
     /**
      * Synchronizes local time with the server time to prevent "timestamp ahead/behind" errors.
      * This is critical for signing requests correctly.
@@ -62,45 +191,24 @@ public class BinanceService {
         try {
             if (isTimeSynced) return;
             
-            String endpoint = BinanceConfig.BASE_URL + "/api/v3/time";
-            URL url = new URL(endpoint);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("User-Agent", "Mozilla/5.0");
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
+            BinanceHttpClient.Response response = http.get("/api/v3/time", null);
             
-            if (conn.getResponseCode() == 200) {
-                 BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                 String inputLine;
-                 StringBuilder content = new StringBuilder();
-                 while ((inputLine = in.readLine()) != null) {
-                     content.append(inputLine);
-                 }
-                 in.close();
-                 
+            if (response.statusCode == 200) {
                  // Payload: {"serverTime":1765619555123}
-                 String json = content.toString();
-                 String search = "\"serverTime\":";
-                 int idx = json.indexOf(search);
-                 if (idx != -1) {
-                     int start = idx + search.length();
-                     int end = json.indexOf("}", start);
-                     if (end != -1) {
-                         long serverTime = Long.parseLong(json.substring(start, end));
-                         // local + offset = server => offset = server - local
-                          // Calculate the time difference (offset) between local machine and server.
-                          // Positive offset means server is ahead, negative means local is ahead.
-                          // requestTimestamp = System.currentTimeMillis() + offset
-                         // requestTimestamp = localTime + offset
-                         // offset = serverTime - localTime
-                         serverTimeOffset = serverTime - System.currentTimeMillis();
-                         isTimeSynced = true;
-                         System.out.println("Time synced. Offset: " + serverTimeOffset + " ms");
-                     }
+                 long serverTime = BinanceJsonParser.parseServerTime(response.body);
+                 if (serverTime != -1) {
+                     // local + offset = server => offset = server - local
+                     // Calculate the time difference (offset) between local machine and server.
+                     // Positive offset means server is ahead, negative means local is ahead.
+                     // requestTimestamp = System.currentTimeMillis() + offset
+                     // requestTimestamp = localTime + offset
+                     // offset = serverTime - localTime
+                     serverTimeOffset = serverTime - System.currentTimeMillis();
+                     isTimeSynced = true;
+                     System.out.println("Time synced. Offset: " + serverTimeOffset + " ms");
                  }
             } else {
-                System.err.println("Failed to sync time. Code: " + conn.getResponseCode());
+                System.err.println("Failed to sync time. Code: " + response.statusCode);
             }
         } catch (Exception e) {
             System.err.println("Time sync error: " + e.getMessage());
@@ -108,75 +216,131 @@ public class BinanceService {
     }
 
     /**
-     * Rounds a quantity to the nearest valid step size defined by the exchange.
-     * 
-     * @param quantity The raw quantity to round.
-     * @param stepSize The smallest valid increment (e.g., 0.00001).
-     * @return The rounded quantity.
+     * Reads the LOT_SIZE and minimum notional filters of all the symbols with a single
+     * /api/v3/exchangeInfo request (weight 20 however many symbols) and keeps them for
+     * order rounding.
+     *
+     * @param symbols The trading pair symbols.
+     * @return The filters by symbol; symbols the exchange does not list are missing,
+     *         and the map is empty if the request failed.
      */
-    private double roundToStepSize(double quantity, double stepSize) {
-        return Math.floor(quantity / stepSize) * stepSize;
+    public Map<String, models.SymbolFilters> loadSymbolFilters(Collection<String> symbols) {
+        StringBuilder list = new StringBuilder("[");
+        for (String symbol : symbols) {
+            if (list.length() > 1) list.append(',');
+            list.append('"').append(symbol).append('"');
+        }
+        list.append(']');
+        try {
+            BinanceHttpClient.Response response = http.get("/api/v3/exchangeInfo?symbols="
+                    + URLEncoder.encode(list.toString(), StandardCharsets.UTF_8), null);
+            if (!response.isSuccess()) {
+                System.err.println("Failed to load exchange info for " + symbols + ". Code: " + response.statusCode);
+                return Map.of();
+            }
+            Map<String, models.SymbolFilters> filters = BinanceJsonParser.parseAllSymbolFilters(response.body);
+            for (String symbol : symbols) {
+                if (!filters.containsKey(symbol)) System.err.println("Exchange info has no filters for " + symbol);
+            }
+            symbolFilters.putAll(filters);
+            System.out.println("Trading rules loaded for " + filters.size() + " symbols");
+            return filters;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of();
+        } catch (Exception e) {
+            System.err.println("Exchange info error for " + symbols + ": " + e.getMessage());
+            return Map.of();
+        }
     }
 
     /**
      * Places a MARKET order for the specified symbol and side.
-     * Automatically handles time synchronization and quantity rounding.
+     * Automatically handles time synchronization and rounds the quantity to the
+     * symbol's LOT_SIZE step (loading the filters first if needed).
+     * Asks for the FULL response, so the fill (quantities, prices, commissions) can be
+     * applied locally without reading the account again.
      * 
      * @param symbol The trading pair symbol.
      * @param side The order side ("BUY" or "SELL").
      * @param quantity The amount of asset to buy or sell.
+     * @return The fill parsed from the response (REJECTED with the exchange's message if refused).
      */
-    public void placeOrder(String symbol, String side, double quantity) {
+    public models.OrderFill placeOrder(String symbol, String side, double quantity) {
+        TickEvents.ExchangeOrder event = new TickEvents.ExchangeOrder();
+        event.begin();
+        models.OrderFill fill = submitOrder(symbol, side, quantity);
+        if (event.shouldCommit()) {
+            event.stamp();
+            event.symbol = symbol;
+            event.side = side;
+            event.quantity = quantity;
+            event.orderId = fill.orderId;
+            event.status = fill.status;
+            event.commit();
+        }
+        return fill;
+    }
+
+    private models.OrderFill submitOrder(String symbol, String side, double quantity) {
+        models.OrderFill fill = new models.OrderFill(symbol, side, quantity);
         if (!BinanceConfig.isConfigured()) {
             System.out.println("SKIPPING ORDER: API Keys not configured in BinanceConfig.java");
-            return;
+            fill.status = "REJECTED";
+            fill.error = "API keys not configured";
+            return fill;
         }
 
         try {
             if (!isTimeSynced) syncTime();
             
-            // Round quantity to Binance's step size (0.00001 for BTCUSDT)
-            quantity = roundToStepSize(quantity, 0.00001);
-            
-            // Format to 5 decimal places to avoid "too much precision" error
-            String quantityStr = String.format(java.util.Locale.US, "%.5f", quantity);
+            models.SymbolFilters filters = symbolFilters.get(symbol);
+            if (filters == null) filters = loadSymbolFilters(List.of(symbol)).get(symbol);
+            if (filters == null) {
+                fill.status = "REJECTED";
+                fill.error = "Trading rules of " + symbol + " unknown";
+                return fill;
+            }
+            String refused = filters.check(quantity, 0);
+            if (refused != null) {
+                fill.status = "REJECTED";
+                fill.error = refused;
+                return fill;
+            }
+
+            // Rounded down to the step and written with the step's decimals, to avoid
+            // the "too much precision" and LOT_SIZE errors
+            String quantityStr = filters.formatQuantity(quantity);
             
             String endpoint = "/api/v3/order";
             long timestamp = System.currentTimeMillis() + serverTimeOffset;
-            String queryParams = "symbol=" + symbol + "&side=" + side + "&type=MARKET&quantity=" + quantityStr + "&timestamp=" + timestamp;
+            String queryParams = "symbol=" + symbol + "&side=" + side + "&type=MARKET&quantity=" + quantityStr
+                    + "&newOrderRespType=FULL&timestamp=" + timestamp;
             
             String signature = hmacSha256(queryParams, BinanceConfig.SECRET_KEY);
             String fullQuery = queryParams + "&signature=" + signature;
             
-            URL url = new URL(BinanceConfig.BASE_URL + endpoint + "?" + fullQuery);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("X-MBX-APIKEY", BinanceConfig.API_KEY);
-            conn.setRequestProperty("User-Agent", "Mozilla/5.0");
-            conn.setDoOutput(true);
-
-            
-            int responseCode = conn.getResponseCode();
-            BufferedReader in;
-            if (responseCode >= 200 && responseCode < 300) {
-                in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                System.out.println("SUCCESS: " + side + " Order Placed!");
+            BinanceHttpClient.Response response = http.post(endpoint + "?" + fullQuery, BinanceConfig.API_KEY);
+            BinanceJsonParser.parseOrder(response.body, fill);
+            if (response.isSuccess()) {
+                System.out.println("SUCCESS: " + side + " Order Placed! " + fill);
             } else {
-                in = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
                 System.out.println("FAILED: Could not place order.");
+                System.out.println("Binance Response: " + response.bodyAsString());
+                fill.status = "REJECTED";
+                if (fill.error == null) fill.error = "HTTP " + response.statusCode;
             }
-            
-            String inputLine;
-            StringBuilder content = new StringBuilder();
-            while ((inputLine = in.readLine()) != null) {
-                content.append(inputLine);
-            }
-            in.close();
-            System.out.println("Binance Response: " + content.toString());
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fill.status = "REJECTED";
+            fill.error = "Interrupted";
         } catch (Exception e) {
             e.printStackTrace();
+            fill.status = "REJECTED";
+            fill.error = e.getMessage();
         }
+        return fill;
     }
 
     /**
@@ -205,45 +369,58 @@ public class BinanceService {
 
     /**
      * Parses the raw JSON response from the klines endpoint into a Candle object.
+     * If the response holds several rows, the newest one is returned.
      * 
-     * @param json The JSON string response from Binance.
-     * @return A Candle object.
+     * @param json The raw response bytes from Binance.
+     * @return A Candle object, or null if the response is empty or malformed.
      */
-    private models.Candle parseCandleFromJson(String json) {
+    private models.Candle parseCandleFromJson(byte[] json) {
         try {
-            json = json.trim();
-            if (json.startsWith("[[") && json.endsWith("]]")) {
-                json = json.substring(2, json.length() - 2);
-            }
-            
-            String[] parts = json.split("\",\"");
-            
-              
-            String[] rawValues = json.split(",");
-            if (rawValues.length < 6) return null;
-
-            long openTime = Long.parseLong(rawValues[0].replaceAll("\"", ""));
-            double open = Double.parseDouble(rawValues[1].replaceAll("\"", ""));
-            double high = Double.parseDouble(rawValues[2].replaceAll("\"", ""));
-            double low = Double.parseDouble(rawValues[3].replaceAll("\"", ""));
-            double close = Double.parseDouble(rawValues[4].replaceAll("\"", ""));
-            double volume = Double.parseDouble(rawValues[5].replaceAll("\"", ""));
-            long closeTime = Long.parseLong(rawValues[6].replaceAll("\"", ""));
-
-            return new models.Candle(openTime, open, high, low, close, volume, closeTime);
-        } catch (Exception e) {
+            models.Candle candle = new models.Candle(0, 0, 0, 0, 0, 0, 0);
+            if (BinanceJsonParser.parseLastKline(json, candle)) return candle;
+        } catch (IllegalArgumentException e) {
             System.out.println("Error parsing Candle JSON: " + e.getMessage());
         }
         return null;
     }
+
     /**
      * Fetches the current wallet balance for USDT and BTC.
      * 
      * @return A WalletBalance object containing free USDT and BTC amounts.
      */
     public models.WalletBalance getWalletBalance() {
+        return getWalletBalance("BTC");
+    }
+
+    /**
+     * Fetches the free USDT balance and the free balance of another asset.
+     * 
+     * @param baseAsset The base asset of the traded pair (e.g. ETH for ETHUSDT).
+     * @return A WalletBalance whose 'btc' field holds the base asset amount.
+     */
+    public models.WalletBalance getWalletBalance(String baseAsset) {
+        byte[][] assets = baseAsset.equals("BTC") ? BALANCE_ASSETS
+                : new byte[][] { BALANCE_ASSETS[0], BinanceJsonParser.ascii(baseAsset) };
+        double[] free = fetchFreeBalances(assets);
+        return free == null ? new models.WalletBalance(0, 0) : new models.WalletBalance(free[0], free[1]);
+    }
+
+    /**
+     * Fetches the free balances of several assets with one /api/v3/account call.
+     *
+     * @param assets Asset codes, e.g. USDT, BTC, ETH.
+     * @return The free balance of assets[i] at index i, or null if the request failed.
+     */
+    public double[] getFreeBalances(String... assets) {
+        byte[][] keys = new byte[assets.length][];
+        for (int i = 0; i < assets.length; i++) keys[i] = BinanceJsonParser.ascii(assets[i]);
+        return fetchFreeBalances(keys);
+    }
+
+    private double[] fetchFreeBalances(byte[][] assets) {
         if (!BinanceConfig.isConfigured()) {
-            return new models.WalletBalance(0, 0);
+            return null;
         }
 
         try {
@@ -255,61 +432,19 @@ public class BinanceService {
             String signature = hmacSha256(queryParams, BinanceConfig.SECRET_KEY);
             String fullQuery = queryParams + "&signature=" + signature;
 
-            URL url = new URL(BinanceConfig.BASE_URL + endpoint + "?" + fullQuery);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setRequestProperty("X-MBX-APIKEY", BinanceConfig.API_KEY);
-            conn.setRequestProperty("User-Agent", "Mozilla/5.0");
-
-            int responseCode = conn.getResponseCode();
-            if (responseCode == 200) {
-                BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                StringBuilder content = new StringBuilder();
-                String inputLine;
-                while ((inputLine = in.readLine()) != null) {
-                    content.append(inputLine);
-                }
-                in.close();
-                String json = content.toString();
-                
-                double usdt = parseAssetBalance(json, "USDT");
-                double btc = parseAssetBalance(json, "BTC");
-                return new models.WalletBalance(usdt, btc);
+            BinanceHttpClient.Response response = http.get(endpoint + "?" + fullQuery, BinanceConfig.API_KEY);
+            if (response.statusCode == 200) {
+                double[] free = new double[assets.length];
+                BinanceJsonParser.parseFreeBalances(response.body, assets, free);
+                return free;
             } else {
-                BufferedReader in = new BufferedReader(new InputStreamReader(conn.getErrorStream()));
-                StringBuilder error = new StringBuilder();
-                String line;
-                while((line = in.readLine()) != null) error.append(line);
-                in.close();
-                System.out.println("Failed to fetch balance. Code: " + responseCode + " Msg: " + error.toString());
+                System.out.println("Failed to fetch balance. Code: " + response.statusCode + " Msg: " + response.bodyAsString());
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             e.printStackTrace();
         }
-        return new models.WalletBalance(0, 0);
-    }
-
-    private double parseAssetBalance(String json, String asset) {
-        try {
-            // Very naive JSON parsing to avoid pulling in external libraries effectively
-            // Looking for "asset":"BTC",..."free":"0.001"
-            String assetSearch = "\"asset\":\"" + asset + "\"";
-            int assetIndex = json.indexOf(assetSearch);
-            if (assetIndex != -1) {
-                // Find "free" after asset
-                String freeSearch = "\"free\":\"";
-                int freeIndex = json.indexOf(freeSearch, assetIndex);
-                if (freeIndex != -1) {
-                    freeIndex += freeSearch.length();
-                    int endIndex = json.indexOf("\"", freeIndex);
-                    if (endIndex != -1) {
-                        return Double.parseDouble(json.substring(freeIndex, endIndex));
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.out.println("Error parsing balance for " + asset);
-        }
-        return 0.0;
+        return null;
     }
 }
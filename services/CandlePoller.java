@@ -0,0 +1,258 @@
+package services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import models.CandleSeries;
+import tracing.Tick;
+import tracing.TickEvents;
+
+/**
+ * Polls klines on a schedule aligned with candle closes instead of a fixed sleep.
+ *
+ * For each subscription the poller knows when the current bar closes (from the
+ * exchange clock, BinanceService.serverTime()). It stays idle (or polls sparsely,
+ * if a mid-bar interval is set) while the bar is forming, then starts a tight burst
+ * of polls right after the expected close until the closed candle arrives.
+ * Each poll asks for the last two klines: the bar that just closed (final values)
+ * and the one that is forming.
+ *
+ * After a failed poll (error response or exception) the next one is delayed
+ * exponentially, from the burst spacing up to one interval, until a poll succeeds.
+ *
+ * Polls of one subscription never overlap, so its listener is called from one
+ * thread at a time. The scheduler only keeps time; polls (HTTP call plus listener)
+ * can run on a separate worker executor, e.g. one virtual thread per poll, so many
+ * symbols closing at the same boundary are handled in parallel.
+ */
+public class CandlePoller {
+
+    /**
+     * Receives the result of every successful poll.
+     */
+    public interface Listener {
+        /**
+         * @param latest The last closed and the forming candle, oldest first.
+         */
+        void onCandles(Subscription subscription, CandleSeries latest);
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor workers;
+    private final BinanceService binance;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    private long closeDelayMillis = 50;   // Wait after the boundary before the first close poll
+    private long fastPollMillis = 250;    // Spacing of the polls in the close burst
+    private int maxFastPolls = 40;        // Give up on a close after this many burst polls
+    private long midBarMillis = 0;        // Mid-bar polling interval, 0 = only poll around closes
+
+    public CandlePoller(ScheduledExecutorService scheduler, BinanceService binance) {
+        this(scheduler, scheduler, binance);
+    }
+
+    /**
+     * @param scheduler Times the polls.
+     * @param workers Runs the polls (e.g. Executors.newVirtualThreadPerTaskExecutor()).
+     */
+    public CandlePoller(ScheduledExecutorService scheduler, Executor workers, BinanceService binance) {
+        this.scheduler = scheduler;
+        this.workers = workers;
+        this.binance = binance;
+    }
+
+    /**
+     * Starts polling a symbol/interval. The first poll runs immediately.
+     *
+     * @return The subscription (exposes request counters and close latency).
+     */
+    public Subscription subscribe(String symbol, String interval, Listener listener) {
+        Subscription subscription = new Subscription(symbol, interval, listener);
+        Subscription previous = subscriptions.put(subscription.key(), subscription);
+        if (previous != null) previous.cancel();
+        workers.execute(subscription);
+        return subscription;
+    }
+
+    public void unsubscribe(String symbol, String interval) {
+        Subscription subscription = subscriptions.remove(symbol + "@" + interval);
+        if (subscription != null) subscription.cancel();
+    }
+
+    public Iterable<Subscription> getSubscriptions() {
+        return subscriptions.values();
+    }
+
+    /**
+     * @param millis Delay after the expected close before the first close poll.
+     */
+    public void setCloseDelayMillis(long millis) {
+        this.closeDelayMillis = millis;
+    }
+
+    /**
+     * @param millis Spacing of the polls while waiting for a closed candle.
+     * @param maxPolls Burst polls before giving up on that close.
+     */
+    public void setFastPoll(long millis, int maxPolls) {
+        this.fastPollMillis = millis;
+        this.maxFastPolls = maxPolls;
+    }
+
+    /**
+     * @param millis Poll every N ms while a bar is forming (e.g. for crash protection),
+     *               or 0 to poll only around closes.
+     */
+    public void setMidBarMillis(long millis) {
+        this.midBarMillis = millis;
+    }
+
+    /**
+     * Polling state of one symbol/interval.
+     */
+    public class Subscription implements Runnable {
+        private final String symbol;
+        private final String interval;
+        private final long intervalMillis;
+        private final Listener listener;
+
+        private long nextClose = -1;  // Exchange time at which the forming bar closes
+        private int fastPolls = 0;    // Burst polls made for the current close
+        private int lastCandles = 0;  // Candles returned by the last poll (for its trace event)
+        private int failureStreak = 0; // Failed polls in a row, for the retry backoff
+        private volatile boolean cancelled = false;
+
+        // Counters
+        private volatile long requests = 0;
+        private volatile long failures = 0;
+        private volatile long closes = 0;
+        private volatile long lastCloseLatencyMillis = -1; // Boundary -> closed candle received
+
+        Subscription(String symbol, String interval, Listener listener) {
+            this.symbol = symbol;
+            this.interval = interval;
+            this.intervalMillis = BinanceService.intervalMillis(interval);
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) return;
+            long delay;
+            try {
+                delay = poll();
+            } catch (RuntimeException e) {
+                System.err.println("Polling " + key() + " failed: " + e.getMessage());
+                failureStreak++;
+                delay = backoffMillis();
+            }
+            if (!cancelled) scheduler.schedule(() -> workers.execute(this), Math.max(0, delay), TimeUnit.MILLISECONDS);
+        }
+
+        // Makes one request and returns the delay until the next one; the poll is one tick
+        private long poll() {
+            TickEvents.Poll event = new TickEvents.Poll();
+            event.begin();
+            Tick.begin(symbol);
+            long closesBefore = closes;
+            try {
+                return request();
+            } finally {
+                if (event.shouldCommit()) {
+                    event.stamp();
+                    event.interval = interval;
+                    event.candles = lastCandles;
+                    event.closed = closes != closesBefore;
+                    event.commit();
+                }
+                Tick.end();
+            }
+        }
+
+        private long request() {
+            long now = BinanceService.serverTime();
+            if (nextClose < 0) nextClose = (now / intervalMillis + 1) * intervalMillis;
+
+            CandleSeries latest = binance.getCandles(symbol, interval, 0, 0, 2);
+            requests++;
+            lastCandles = latest.size();
+            now = BinanceService.serverTime();
+
+            if (latest.isEmpty()) {
+                failures++;
+                failureStreak++;
+            } else {
+                long newestOpenTime = latest.lastOpenTime();
+                if (newestOpenTime >= nextClose) {
+                    // A new bar opened, so the one we waited for has closed
+                    closes++;
+                    lastCloseLatencyMillis = now - nextClose;
+                    nextClose = newestOpenTime + intervalMillis;
+                    fastPolls = 0;
+                }
+                listener.onCandles(this, latest);
+                failureStreak = 0;
+            }
+
+            return Math.max(scheduledDelay(now), backoffMillis());
+        }
+
+        // Delay until the next poll of the schedule: the burst spacing, or until the next close
+        private long scheduledDelay(long now) {
+            if (now >= nextClose) {
+                // Inside the close burst
+                if (++fastPolls < maxFastPolls) return fastPollMillis;
+                // Closed candle did not show up: wait for the next boundary
+                fastPolls = 0;
+                nextClose = (now / intervalMillis + 1) * intervalMillis;
+            }
+
+            long untilClose = nextClose + closeDelayMillis - now;
+            return midBarMillis > 0 ? Math.min(midBarMillis, untilClose) : untilClose;
+        }
+
+        // Retry delay after failed polls: the burst spacing, doubled per failure, at most one interval
+        private long backoffMillis() {
+            if (failureStreak == 0) return 0;
+            return Math.min(fastPollMillis << Math.min(failureStreak - 1, 20), intervalMillis);
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        String key() {
+            return symbol + "@" + interval;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public String getInterval() {
+            return interval;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getCloses() {
+            return closes;
+        }
+
+        /**
+         * @return Time from the last bar boundary until its closed candle was received, or -1 if none yet.
+         */
+        public long getLastCloseLatencyMillis() {
+            return lastCloseLatencyMillis;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fan-out of live bot events to the dashboard's /api/stream (Server-Sent Events).
+ *
+ * Publishers (pipelines, bots, strategy selectors, the API) encode an event once as an SSE
+ * frame and hand the same bytes to every connected client. Each client has its own
+ * bounded buffer; publishing never waits for a socket. When a slow client's buffer
+ * is full, its oldest frame is dropped (and counted), so it falls behind in events,
+ * not in memory, and never slows down trading or the other clients.
+ *
+ * Event types: candle, signal, order, fill, strategy, balance, trade.
+ * The data of every event is a JSON object.
+ */
+public class EventStream {
+    public static final int DEFAULT_CLIENT_BUFFER = 1024; // Frames per client
+
+    private static EventStream instance;
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final int clientBuffer;
+
+    // Counters
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @return The process-wide stream served by ApiService.
+     */
+    public static synchronized EventStream getInstance() {
+        if (instance == null) instance = new EventStream(DEFAULT_CLIENT_BUFFER);
+        return instance;
+    }
+
+    /**
+     * @param clientBuffer Frames buffered per client before the oldest are dropped.
+     */
+    public EventStream(int clientBuffer) {
+        this.clientBuffer = clientBuffer;
+    }
+
+    /**
+     * @return True if anyone is listening; publishers skip building events otherwise.
+     */
+    public boolean hasClients() {
+        return !clients.isEmpty();
+    }
+
+    /**
+     * Sends an event to every connected client. Never blocks.
+     *
+     * @param type The SSE event name, e.g. "candle".
+     * @param json The event data, a JSON object on one line.
+     */
+    public void publish(String type, String json) {
+        if (clients.isEmpty()) return;
+        byte[] frame = ("event: " + type + "\ndata: " + json + "\n\n").getBytes(StandardCharsets.UTF_8);
+        for (Client client : clients) {
+            client.offer(frame);
+        }
+        published.increment();
+    }
+
+    /**
+     * Registers a client; its frames are taken with Client.take().
+     */
+    public Client subscribe() {
+        Client client = new Client(clientBuffer);
+        clients.add(client);
+        return client;
+    }
+
+    public void unsubscribe(Client client) {
+        clients.remove(client);
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * @return Frames dropped for slow clients (summed over clients).
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return The value as a JSON string literal (quoted and escaped), or null.
+     */
+    public static String quote(String value) {
+        if (value == null) return "null";
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * The frames buffered for one connection: a ring that overwrites its oldest frame
+     * when full. Filled by publishers, drained by the connection's writer thread.
+     * A lock rather than synchronized/wait, so a waiting virtual thread does not pin its carrier.
+     */
+    public class Client {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final byte[][] frames;
+        private int head = 0; // Oldest frame
+        private int size = 0;
+        private long dropped = 0;
+
+        Client(int capacity) {
+            this.frames = new byte[capacity][];
+        }
+
+        void offer(byte[] frame) {
+            lock.lock();
+            try {
+                if (size == frames.length) {
+                    head = (head + 1) % frames.length;
+                    size--;
+                    dropped++;
+                    EventStream.this.dropped.increment();
+                }
+                frames[(head + size) % frames.length] = frame;
+                size++;
+                if (size == 1) notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits for frames and takes all buffered ones.
+         *
+         * @param maxWaitMillis How long to wait if none are buffered.
+         * @return The frames, oldest first (empty after the timeout).
+         */
+        public byte[][] take(long maxWaitMillis) throws InterruptedException {
+            lock.lock();
+            try {
+                if (size == 0) notEmpty.await(maxWaitMillis, TimeUnit.MILLISECONDS);
+                byte[][] taken = new byte[size][];
+                for (int i = 0; i < taken.length; i++) {
+                    taken[i] = frames[head];
+                    frames[head] = null;
+                    head = (head + 1) % frames.length;
+                }
+                size = 0;
+                return taken;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return Frames this client lost because it read too slowly.
+         */
+        public long getDropped() {
+            lock.lock();
+            try {
+                return dropped;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package services;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client-side guard for Binance's request-weight limit.
+ *
+ * Binance counts the weight of every request per IP in one-minute windows and
+ * answers 429 (and later 418, an IP ban) once the limit is exceeded. The governor
+ * mirrors that: a token bucket of 'limit' weight refilled at each exchange-minute
+ * boundary. Every request takes its endpoint's weight before it is sent, and waits
+ * for the next window if the bucket is empty.
+ *
+ * - Budget sync: the X-MBX-USED-WEIGHT-1M header of each response updates the used
+ *   weight, so requests from other processes on the same IP are accounted for.
+ * - Priorities: market data may only use the budget up to limit - reserve, account
+ *   reads up to limit - reserve / 2, so orders still go out when the budget is tight.
+ * - Backoff: a 429/418 blocks all requests for Retry-After seconds (or an exponential
+ *   backoff if the header is missing).
+ *
+ * Waits use a ReentrantLock, so blocked virtual threads do not pin their carriers.
+ */
+public class RequestGovernor {
+
+    public enum Priority { ORDER, ACCOUNT, MARKET_DATA }
+
+    public static final int DEFAULT_WEIGHT_LIMIT = 6000; // Binance spot REQUEST_WEIGHT per minute
+    private static final long WINDOW_MILLIS = 60_000;
+    private static final long MAX_BACKOFF_MILLIS = 5 * 60_000;
+
+    private final int limit;
+    private final int reserve; // Weight held back for orders
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private long windowStart = 0;  // Exchange time at which the current minute started
+    private int used = 0;          // Weight used in the current minute
+    private long blockedUntil = 0; // Exchange time until which nothing may be sent (429/418)
+    private int rateLimitStreak = 0;
+
+    // Counters
+    private final LongAdder throttled = new LongAdder();      // Requests that had to wait
+    private final LongAdder rateLimited = new LongAdder();    // 429/418 responses received
+
+    public RequestGovernor() {
+        this(DEFAULT_WEIGHT_LIMIT);
+    }
+
+    /**
+     * @param limit Weight allowed per minute (keep some headroom below the exchange limit).
+     */
+    public RequestGovernor(int limit) {
+        this.limit = limit;
+        this.reserve = Math.max(1, limit / 10);
+    }
+
+    /**
+     * Takes the weight of a request from the budget, waiting if necessary.
+     *
+     * @param weight The endpoint weight (see weightOf).
+     * @param priority Who is asking (see priorityOf).
+     */
+    public void acquire(int weight, Priority priority) throws InterruptedException {
+        int cap = priority == Priority.ORDER ? limit
+                : priority == Priority.ACCOUNT ? limit - reserve / 2
+                : limit - reserve;
+        boolean waited = false;
+
+        lock.lock();
+        try {
+            while (true) {
+                long now = BinanceService.serverTime();
+                roll(now);
+
+                long wait;
+                if (now < blockedUntil) {
+                    wait = blockedUntil - now;
+                } else if (used + weight <= cap || used == 0) {
+                    used += weight;
+                    return;
+                } else {
+                    wait = windowStart + WINDOW_MILLIS - now;
+                }
+
+                if (!waited) {
+                    throttled.increment();
+                    waited = true;
+                }
+                changed.await(Math.max(1, wait), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Updates the budget from a response.
+     *
+     * @param statusCode HTTP status of the response.
+     * @param usedWeight Value of X-MBX-USED-WEIGHT-1M, or -1 if absent.
+     * @param retryAfterSeconds Value of Retry-After, or -1 if absent.
+     */
+    public void onResponse(int statusCode, int usedWeight, long retryAfterSeconds) {
+        lock.lock();
+        try {
+            long now = BinanceService.serverTime();
+            roll(now);
+            // The exchange's count also covers other clients on this IP
+            if (usedWeight > used) used = usedWeight;
+
+            if (statusCode == 429 || statusCode == 418) {
+                rateLimited.increment();
+                rateLimitStreak++;
+                long backoff = retryAfterSeconds > 0
+                        ? retryAfterSeconds * 1000
+                        : Math.min(MAX_BACKOFF_MILLIS, 1000L << Math.min(rateLimitStreak, 16));
+                blockedUntil = Math.max(blockedUntil, now + backoff);
+                System.err.println("Rate limited by Binance (" + statusCode + "), pausing requests for " + backoff + " ms");
+            } else if (statusCode >= 200 && statusCode < 300) {
+                rateLimitStreak = 0;
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Starts a new minute window when the exchange clock passed the boundary
+    private void roll(long now) {
+        long start = now - now % WINDOW_MILLIS;
+        if (start != windowStart) {
+            windowStart = start;
+            used = 0;
+            changed.signalAll();
+        }
+    }
+
+    /**
+     * @return Request weight of an endpoint (Binance spot API documentation; the
+     *         klines weight grows with the limit parameter).
+     */
+    public static int weightOf(String pathAndQuery) {
+        if (pathAndQuery.startsWith("/api/v3/klines")) {
+            int limit = 500;
+            int at = pathAndQuery.indexOf("limit=");
+            if (at != -1) {
+                int end = at + 6;
+                while (end < pathAndQuery.length() && Character.isDigit(pathAndQuery.charAt(end))) end++;
+                if (end > at + 6) limit = Integer.parseInt(pathAndQuery.substring(at + 6, end));
+            }
+            // limit 1-99: 1, 100-499: 2, 500-1000: 5, above 1000: 10
+            if (limit > 1000) return 10;
+            if (limit >= 500) return 5;
+            if (limit >= 100) return 2;
+            return 1;
+        }
+        if (pathAndQuery.startsWith("/api/v3/account")) return 20;
+        if (pathAndQuery.startsWith("/api/v3/exchangeInfo")) return 20;
+        return 1; // ping, time, order
+    }
+
+    public static Priority priorityOf(String pathAndQuery) {
+        if (pathAndQuery.startsWith("/api/v3/order")) return Priority.ORDER;
+        if (pathAndQuery.startsWith("/api/v3/account")) return Priority.ACCOUNT;
+        return Priority.MARKET_DATA;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return Weight used in the current minute (local count, raised by the exchange's count).
+     */
+    public int getUsedWeight() {
+        lock.lock();
+        try {
+            roll(BinanceService.serverTime());
+            return used;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Requests that had to wait for budget or for a backoff to end.
+     */
+    public long getThrottledRequests() {
+        return throttled.sum();
+    }
+
+    /**
+     * @return 429/418 responses received.
+     */
+    public long getRateLimitResponses() {
+        return rateLimited.sum();
+    }
+}
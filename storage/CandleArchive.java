@@ -0,0 +1,365 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import models.Candle;
+import models.CandleSeries;
+
+/**
+ * Binary candle history for one symbol/interval, read and written through a
+ * memory-mapped file (FileChannel.map), so reads come straight from the page cache
+ * without any parsing.
+ *
+ * File layout (little-endian):
+ * <pre>
+ * Header (64 bytes)
+ *   0  int    magic "CNDL"
+ *   4  int    format version
+ *   8  int    record size (56)
+ *  12  int    reserved
+ *  16  long   number of records
+ *  24  byte[16] symbol (ASCII, zero padded)
+ *  40  byte[8]  interval (ASCII, zero padded)
+ *  48  reserved
+ * Records (56 bytes each, ordered by openTime)
+ *   0  long   openTime
+ *   8  double open, high, low, close, volume
+ *  48  long   closeTime
+ * </pre>
+ * The file may be longer than the records it holds (space is reserved in chunks
+ * while appending); the record count in the header is authoritative.
+ *
+ * Not thread-safe: one writer (the live ingest loop) per file.
+ */
+public class CandleArchive implements Closeable {
+    public static final int MAGIC = 0x4C444E43; // "CNDL" read as a little-endian int
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 56;
+
+    private static final int COUNT_OFFSET = 16;
+    private static final int SYMBOL_OFFSET = 24;
+    private static final int SYMBOL_LENGTH = 16;
+    private static final int INTERVAL_OFFSET = 40;
+    private static final int INTERVAL_LENGTH = 8;
+
+    private static final int GROWTH = 1 << 14; // Records reserved per remap when appending
+    // A single MappedByteBuffer is limited to 2 GB
+    private static final int MAX_RECORDS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final boolean writable;
+    private final String symbol;
+    private final String interval;
+
+    private MappedByteBuffer map;
+    private int capacity; // Records the current mapping can hold
+    private int count;
+
+    private CandleArchive(Path path, FileChannel channel, boolean writable) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.writable = writable;
+
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) throw new IOException("Not a candle archive (too short): " + path);
+
+        MappedByteBuffer header = mapRegion(HEADER_SIZE);
+        if (header.getInt(0) != MAGIC) throw new IOException("Not a candle archive (bad magic): " + path);
+        if (header.getInt(4) != VERSION) throw new IOException("Unsupported candle archive version " + header.getInt(4) + ": " + path);
+        if (header.getInt(8) != RECORD_SIZE) throw new IOException("Unexpected record size " + header.getInt(8) + ": " + path);
+
+        long records = header.getLong(COUNT_OFFSET);
+        if (records < 0 || HEADER_SIZE + records * RECORD_SIZE > fileSize) {
+            throw new IOException("Corrupt candle archive (" + records + " records in " + fileSize + " bytes): " + path);
+        }
+        this.count = (int) records;
+        this.symbol = readAscii(header, SYMBOL_OFFSET, SYMBOL_LENGTH);
+        this.interval = readAscii(header, INTERVAL_OFFSET, INTERVAL_LENGTH);
+
+        // Readers map exactly the records present; writers map the whole file (including reserved space)
+        this.capacity = writable ? (int) Math.min(MAX_RECORDS, (fileSize - HEADER_SIZE) / RECORD_SIZE) : count;
+        this.map = mapRegion(HEADER_SIZE + (long) capacity * RECORD_SIZE);
+    }
+
+    /**
+     * Opens an existing archive for reading.
+     *
+     * @param path The archive file.
+     * @return The archive, mapped read-only.
+     */
+    public static CandleArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new CandleArchive(path, channel, false);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an archive for appending, creating it (and its parent directories) if needed.
+     *
+     * @param path The archive file.
+     * @param symbol The trading pair stored in the file (e.g. BTCUSDT).
+     * @param interval The candle interval (e.g. 15m).
+     * @return The archive, mapped read-write.
+     */
+    public static CandleArchive openForAppend(Path path, String symbol, String interval) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            if (channel.size() == 0) writeHeader(channel, symbol, interval);
+
+            CandleArchive archive = new CandleArchive(path, channel, true);
+            if (!archive.symbol.equals(symbol) || !archive.interval.equals(interval)) {
+                throw new IOException("Archive " + path + " holds " + archive.symbol + " " + archive.interval
+                        + ", not " + symbol + " " + interval);
+            }
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, String symbol, String interval) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, RECORD_SIZE);
+        header.putLong(COUNT_OFFSET, 0);
+        writeAscii(header, SYMBOL_OFFSET, SYMBOL_LENGTH, symbol);
+        writeAscii(header, INTERVAL_OFFSET, INTERVAL_LENGTH, interval);
+        header.force();
+    }
+
+    private MappedByteBuffer mapRegion(long size) throws IOException {
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        MappedByteBuffer buffer = channel.map(mode, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Appends a candle.
+     * A candle with the same openTime as the newest record replaces it (the bar is
+     * still forming), an older one is ignored.
+     *
+     * @return False if the candle was older than the newest record.
+     */
+    public boolean append(long openTime, double open, double high, double low, double close, double volume, long closeTime) throws IOException {
+        if (!writable) throw new IllegalStateException("Archive is open read-only: " + path);
+
+        if (count > 0) {
+            long lastOpenTime = openTime(count - 1);
+            if (openTime < lastOpenTime) return false;
+            if (openTime == lastOpenTime) {
+                write(count - 1, openTime, open, high, low, close, volume, closeTime);
+                return true;
+            }
+        }
+
+        if (count == capacity) grow();
+        write(count, openTime, open, high, low, close, volume, closeTime);
+        count++;
+        // Publish the record only after it is fully written
+        map.putLong(COUNT_OFFSET, count);
+        return true;
+    }
+
+    public boolean append(Candle candle) throws IOException {
+        return append(candle.openTime, candle.open, candle.high, candle.low, candle.close, candle.volume, candle.closeTime);
+    }
+
+    /**
+     * Appends every candle of a series, oldest first (see append for overlap rules).
+     *
+     * @return Number of candles written.
+     */
+    public int appendAll(CandleSeries series) throws IOException {
+        int written = 0;
+        Candle candle = new Candle(0, 0, 0, 0, 0, 0, 0);
+        for (int i = 0; i < series.size(); i++) {
+            if (append(series.load(i, candle))) written++;
+        }
+        return written;
+    }
+
+    // Extends the file and the mapping by another chunk of records
+    private void grow() throws IOException {
+        if (capacity == MAX_RECORDS) throw new IOException("Candle archive is full (" + MAX_RECORDS + " records): " + path);
+        int newCapacity = (int) Math.min(MAX_RECORDS, (long) capacity + GROWTH);
+        // Mapping past the end of the file extends it
+        map = mapRegion(HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+        capacity = newCapacity;
+    }
+
+    private void write(int index, long openTime, double open, double high, double low, double close, double volume, long closeTime) {
+        int offset = offset(index);
+        map.putLong(offset, openTime);
+        map.putDouble(offset + 8, open);
+        map.putDouble(offset + 16, high);
+        map.putDouble(offset + 24, low);
+        map.putDouble(offset + 32, close);
+        map.putDouble(offset + 40, volume);
+        map.putLong(offset + 48, closeTime);
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private int checked(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        return offset(index);
+    }
+
+    public long openTime(int index) { return map.getLong(checked(index)); }
+    public double open(int index) { return map.getDouble(checked(index) + 8); }
+    public double high(int index) { return map.getDouble(checked(index) + 16); }
+    public double low(int index) { return map.getDouble(checked(index) + 24); }
+    public double close(int index) { return map.getDouble(checked(index) + 32); }
+    public double volume(int index) { return map.getDouble(checked(index) + 40); }
+    public long closeTime(int index) { return map.getLong(checked(index) + 48); }
+
+    /**
+     * Copies a record into an existing object (no allocation).
+     *
+     * @param index Record index, 0 = oldest.
+     * @param into The candle to overwrite.
+     * @return 'into', for chaining.
+     */
+    public Candle load(int index, Candle into) {
+        int offset = checked(index);
+        into.openTime = map.getLong(offset);
+        into.open = map.getDouble(offset + 8);
+        into.high = map.getDouble(offset + 16);
+        into.low = map.getDouble(offset + 24);
+        into.close = map.getDouble(offset + 32);
+        into.volume = map.getDouble(offset + 40);
+        into.closeTime = map.getLong(offset + 48);
+        return into;
+    }
+
+    /**
+     * @return A new Candle object holding the record at that index.
+     */
+    public Candle get(int index) {
+        return load(index, new Candle(0, 0, 0, 0, 0, 0, 0));
+    }
+
+    /**
+     * Binary search by openTime.
+     *
+     * @param openTime The time to look for.
+     * @return Index of the first record whose openTime is >= the given time
+     *         (size() if every record is older).
+     */
+    public int indexOf(long openTime) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (map.getLong(offset(mid)) < openTime) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Appends the records [from, to) to a series, e.g. to warm up a bot window.
+     */
+    public void copyTo(CandleSeries series, int from, int to) {
+        if (from < 0 || to > count || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + count);
+        }
+        for (int i = from; i < to; i++) {
+            int offset = offset(i);
+            series.append(map.getLong(offset), map.getDouble(offset + 8), map.getDouble(offset + 16),
+                    map.getDouble(offset + 24), map.getDouble(offset + 32), map.getDouble(offset + 40),
+                    map.getLong(offset + 48));
+        }
+    }
+
+    /**
+     * Appends the newest records to a series, as many as it can hold.
+     */
+    public void copyLatestTo(CandleSeries series) {
+        copyTo(series, Math.max(0, count - series.capacity()), count);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public String interval() {
+        return interval;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Forces written records to disk. The OS writes dirty pages back on its own, so
+     * this is only needed for durability against a machine crash.
+     */
+    public void flush() {
+        if (writable) map.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private static String readAscii(MappedByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        int end = 0;
+        while (end < length && bytes[end] != 0) end++;
+        return new String(bytes, 0, end, StandardCharsets.US_ASCII);
+    }
+
+    private static void writeAscii(MappedByteBuffer buffer, int offset, int length, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > length) throw new IllegalArgumentException("'" + value + "' is longer than " + length + " bytes");
+        buffer.put(offset, bytes);
+        for (int i = bytes.length; i < length; i++) buffer.put(offset + i, (byte) 0);
+    }
+
+    /**
+     * @return The conventional file name of an archive, e.g. data/BTCUSDT-15m.candles.
+     */
+    public static Path defaultPath(String symbol, String interval) {
+        return Path.of("data", symbol + "-" + interval + ".candles");
+    }
+}
@@ -0,0 +1,360 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import services.LockService;
+
+/**
+ * Asynchronous trades.csv journal.
+ *
+ * Trading threads only copy the row's fields into a preallocated slot of a
+ * lock-free ring buffer (multi-producer, one consumer) and return; they never
+ * format, lock or touch the file. A background thread drains the ring every few
+ * milliseconds, formats the rows and writes each batch with one call to a file
+ * channel that stays open (group commit). If the ring is full, rows are dropped
+ * and counted rather than blocking the caller.
+ *
+ * - fsync policy: never (leave it to the OS), after every batch, or periodically.
+ * - Rotation: the file is renamed to trades-<yyyyMMdd-HHmmss-SSS>.csv once it exceeds a
+ *   size or an age, and a new one is started.
+ * - HOLD rows can be suppressed.
+ *
+ * The row format is the one TradeJournalIndex reads:
+ * timestamp,symbol,side,quantity,price,usdt,btc
+ */
+public class TradeJournal implements AutoCloseable {
+
+    public enum FsyncPolicy { NEVER, EVERY_BATCH, PERIODIC }
+
+    public static final Path DEFAULT_PATH = Path.of("trades.csv");
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final long DRAIN_NANOS = 20_000_000; // Writer wakes up every 20 ms
+    private static final int MAX_BATCH = 4096;          // Rows per write
+    private static final DateTimeFormatter ROTATED_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static TradeJournal instance;
+
+    // One row; sequence tells producers and the writer who owns the slot
+    private static final class Slot {
+        volatile long sequence;
+        long time;
+        String symbol;
+        String side;
+        double quantity;
+        double price;
+        double usdt;
+        double btc;
+    }
+
+    private final Path path;
+    private final Slot[] ring;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // Next slot to claim (producers)
+    private long head = 0;                            // Next slot to write (writer only)
+
+    private volatile FsyncPolicy fsyncPolicy = FsyncPolicy.PERIODIC;
+    private volatile long fsyncIntervalMillis = 1000;
+    private volatile long maxBytes = 64L << 20;            // Rotate above 64 MB
+    private volatile long maxAgeMillis = 24 * 3600_000L;   // ... or after a day
+    private volatile boolean skipHold = false;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Writer state
+    private FileChannel channel;
+    private long fileBytes;
+    private long fileOpenedAt;
+    private long lastFsyncAt;
+    private boolean unsynced = false; // Bytes written since the last fsync
+    private final StringBuilder batch = new StringBuilder(8192);
+
+    // Counters
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long written = 0;
+    private volatile long lost = 0;     // Rows of batches that failed to write (also in dropped)
+    private volatile long batches = 0;
+    private volatile long rotations = 0;
+
+    /**
+     * @return The process-wide journal writing trades.csv (started on first use, closed on exit).
+     */
+    public static synchronized TradeJournal getInstance() {
+        if (instance == null) {
+            instance = new TradeJournal(DEFAULT_PATH, DEFAULT_CAPACITY);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "trade-journal-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * @param path The journal file (appended to if it exists).
+     * @param capacity Rows the ring buffer holds (rounded up to a power of two).
+     */
+    public TradeJournal(Path path, int capacity) {
+        this.path = path;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Slot();
+            ring[i].sequence = i;
+        }
+        this.writer = new Thread(this::drainLoop, "trade-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @param policy When written batches are forced to disk.
+     * @param intervalMillis Period for PERIODIC.
+     */
+    public void setFsyncPolicy(FsyncPolicy policy, long intervalMillis) {
+        this.fsyncPolicy = policy;
+        this.fsyncIntervalMillis = intervalMillis;
+    }
+
+    /**
+     * @param maxBytes Rotate once the file is larger (0 = no size limit).
+     * @param maxAgeMillis Rotate once the file is older (0 = no age limit).
+     */
+    public void setRotation(long maxBytes, long maxAgeMillis) {
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @param skipHold True to leave HOLD rows out of the journal.
+     */
+    public void setSkipHold(boolean skipHold) {
+        this.skipHold = skipHold;
+    }
+
+    /**
+     * Queues a row. Never blocks and never does I/O.
+     *
+     * @return False if the row was dropped (ring full, journal closed) or suppressed.
+     */
+    public boolean record(String symbol, String side, double quantity, double price, double usdt, double btc) {
+        if (!running || (skipHold && "HOLD".equals(side))) return false;
+
+        long position = tail.get();
+        Slot slot;
+        while (true) {
+            slot = ring[(int) (position & mask)];
+            long difference = slot.sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) break;
+                position = tail.get();
+            } else if (difference < 0) {
+                // The writer has not freed this slot yet: the ring is full
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        slot.time = System.currentTimeMillis();
+        slot.symbol = symbol;
+        slot.side = side;
+        slot.quantity = quantity;
+        slot.price = price;
+        slot.usdt = usdt;
+        slot.btc = btc;
+        slot.sequence = position + 1; // Publish
+        recorded.increment();
+        return true;
+    }
+
+    private void drainLoop() {
+        while (running) {
+            // A full batch means more rows are waiting: write again without sleeping
+            if (drain() < MAX_BATCH) LockSupport.parkNanos(DRAIN_NANOS);
+        }
+        while (drain() > 0) { }
+    }
+
+    // Formats the published rows (up to MAX_BATCH) and writes them as one batch
+    private int drain() {
+        int rows = 0;
+        while (rows < MAX_BATCH) {
+            Slot slot = ring[(int) (head & mask)];
+            if (slot.sequence != head + 1) break;
+            format(slot);
+            slot.symbol = null;
+            slot.side = null;
+            slot.sequence = head + ring.length; // Free for the producer one lap ahead
+            head++;
+            rows++;
+        }
+
+        try {
+            if (rows > 0) {
+                try {
+                    write();
+                } catch (IOException e) {
+                    // The batch is gone: count its rows as dropped, so they leave the queue depth
+                    dropped.add(rows);
+                    lost += rows;
+                    throw e;
+                }
+                written += rows;
+                batches++;
+            }
+            long now = System.currentTimeMillis();
+            if (unsynced && fsyncPolicy == FsyncPolicy.PERIODIC && now - lastFsyncAt >= fsyncIntervalMillis) {
+                sync();
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing trade journal: " + e.getMessage());
+            closeChannel();
+        }
+        batch.setLength(0);
+        return rows;
+    }
+
+    private void format(Slot slot) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(slot.time), ZoneId.systemDefault());
+        batch.append(time).append(',')
+             .append(slot.symbol).append(',')
+             .append(slot.side).append(',')
+             .append(slot.quantity).append(',');
+        appendFixed(slot.price, 2);
+        batch.append(',');
+        appendFixed(slot.usdt, 2);
+        batch.append(',');
+        appendFixed(slot.btc, 6);
+        batch.append(System.lineSeparator());
+    }
+
+    // Fixed-point like String.format("%.2f"), without a Formatter per number
+    private void appendFixed(double value, int decimals) {
+        long scale = decimals == 2 ? 100 : 1_000_000;
+        if (Double.isNaN(value) || Math.abs(value) >= 9e12) {
+            batch.append(String.format(Locale.US, "%." + decimals + "f", value));
+            return;
+        }
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) batch.append('-');
+        batch.append(scaled / scale).append('.');
+        String fraction = Long.toString(scaled % scale);
+        for (int i = fraction.length(); i < decimals; i++) batch.append('0');
+        batch.append(fraction);
+    }
+
+    private void write() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        // Other writers of trades.csv take the same lock (readers index complete lines only)
+        synchronized (LockService.fileLock) {
+            if (channel == null || needsRotation()) openOrRotate();
+            while (bytes.hasRemaining()) channel.write(bytes);
+        }
+        fileBytes += bytes.limit();
+        unsynced = true;
+        if (fsyncPolicy == FsyncPolicy.EVERY_BATCH) sync();
+    }
+
+    private void sync() throws IOException {
+        channel.force(false);
+        lastFsyncAt = System.currentTimeMillis();
+        unsynced = false;
+    }
+
+    private boolean needsRotation() {
+        return (maxBytes > 0 && fileBytes >= maxBytes)
+            || (maxAgeMillis > 0 && System.currentTimeMillis() - fileOpenedAt >= maxAgeMillis && fileBytes > 0);
+    }
+
+    private void openOrRotate() throws IOException {
+        if (channel != null) {
+            closeChannel();
+            String name = "trades-" + LocalDateTime.now().format(ROTATED_NAME) + ".csv";
+            Path target = path.resolveSibling(name);
+            Files.move(path, target);
+            rotations++;
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        fileOpenedAt = System.currentTimeMillis();
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            if (fsyncPolicy != FsyncPolicy.NEVER) channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing trade journal: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * Stops accepting rows, writes the queued ones and closes the file.
+     */
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeChannel();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return Rows waiting to be written.
+     */
+    public long getQueueDepth() {
+        return Math.max(0, tail.get() - written - lost);
+    }
+
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    /**
+     * @return Rows lost because the ring buffer was full or their batch could not be written.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * @return Group commits (writes) so far; written / batches is the average batch size.
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getRotations() {
+        return rotations;
+    }
+}
@@ -0,0 +1,376 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import services.LockService;
+
+/**
+ * In-memory offset index over the trades.csv journal, for paged reads.
+ *
+ * For every complete row the index keeps its byte offset, its time (epoch ms), its
+ * symbol (as a small id) and its side. refresh() only reads the bytes appended since the last call, so the
+ * file is scanned once, not on every request. A query finds its first row by
+ * binary search on time, or on offset for a cursor, then reads just the selected
+ * rows from their offsets. Every query returns a cursor (file identity and byte
+ * offset) that continues exactly after the rows it read.
+ *
+ * A partially written last row (no newline yet) is indexed once it is complete.
+ * If the file was rotated or truncated, the index is rebuilt from the new file.
+ *
+ * The journal only appends, so rows are read without holding the writer's lock. The
+ * file is opened and identified under LockService.fileLock, the lock TradeJournal
+ * rotates under, so the open channel and its fileKey always belong to the same file.
+ * A query that finds a different file than the indexed one re-indexes and retries.
+ */
+public class TradeJournalIndex {
+    public static final byte SIDE_HOLD = 0, SIDE_BUY = 1, SIDE_SELL = 2, SIDE_OTHER = 3;
+    private static final int MAX_QUERY_ATTEMPTS = 3; // Rotations a query catches up with before giving up
+
+    private final Path path;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private long[] offsets = new long[4096];
+    private long[] times = new long[4096];
+    private byte[] sides = new byte[4096];
+    private short[] symbols = new short[4096];
+    private final Map<String, Short> symbolIds = new HashMap<>(); // Symbol -> id, kept across rebuilds
+    private int rows = 0;
+    private long indexedBytes = 0; // End of the last complete row
+    private Object fileKey;        // Identity of the indexed file, to notice rotation
+    private Object openedKey;      // Identity of the file open() returned last
+
+    public TradeJournalIndex(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Indexes the rows appended since the last call.
+     *
+     * @return Number of indexed rows.
+     */
+    public synchronized int refresh() throws IOException {
+        FileChannel channel = open();
+        if (channel == null) {
+            reset(null);
+            return 0;
+        }
+        try (channel) {
+            Object key = openedKey;
+            long size = channel.size();
+            if (size < indexedBytes || (key != null && !key.equals(fileKey))) reset(key);
+
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long position = indexedBytes;
+            byte[] line = new byte[256];
+            int lineLength = 0;
+            while (position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) break;
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer.get(i);
+                    if (b == '\n') {
+                        add(indexedBytes, line, lineLength);
+                        indexedBytes = position + i + 1;
+                        lineLength = 0;
+                    } else {
+                        if (lineLength == line.length) line = Arrays.copyOf(line, line.length * 2);
+                        line[lineLength++] = b;
+                    }
+                }
+                position += read;
+            }
+        }
+        return rows;
+    }
+
+    // Opens the journal and reads its fileKey into openedKey; null if there is no journal
+    private FileChannel open() throws IOException {
+        // The writer renames the file under this lock: the key read here is the channel's
+        synchronized (LockService.fileLock) {
+            if (!Files.exists(path)) return null;
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                openedKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return channel;
+        }
+    }
+
+    private void reset(Object key) {
+        rows = 0;
+        indexedBytes = 0;
+        fileKey = key;
+    }
+
+    // Indexes one row: time from the first column, symbol from the second, side from the third
+    private void add(long offset, byte[] line, int length) {
+        if (length > 0 && line[length - 1] == '\r') length--;
+        if (length == 0) return;
+
+        int firstComma = indexOf(line, length, 0);
+        int secondComma = firstComma < 0 ? -1 : indexOf(line, length, firstComma + 1);
+        int thirdComma = secondComma < 0 ? -1 : indexOf(line, length, secondComma + 1);
+        if (thirdComma < 0) return; // Not a journal row
+
+        long time;
+        try {
+            time = LocalDateTime.parse(new String(line, 0, firstComma, StandardCharsets.US_ASCII))
+                    .atZone(zone).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return;
+        }
+
+        if (rows == offsets.length) {
+            offsets = Arrays.copyOf(offsets, rows * 2);
+            times = Arrays.copyOf(times, rows * 2);
+            sides = Arrays.copyOf(sides, rows * 2);
+            symbols = Arrays.copyOf(symbols, rows * 2);
+        }
+        offsets[rows] = offset;
+        times[rows] = time;
+        sides[rows] = side(line, secondComma + 1, thirdComma);
+        symbols[rows] = symbolId(new String(line, firstComma + 1, secondComma - firstComma - 1, StandardCharsets.US_ASCII).trim());
+        rows++;
+    }
+
+    private static int indexOf(byte[] line, int length, int from) {
+        for (int i = from; i < length; i++) {
+            if (line[i] == ',') return i;
+        }
+        return -1;
+    }
+
+    private short symbolId(String symbol) {
+        Short id = symbolIds.get(symbol);
+        if (id == null) {
+            id = (short) symbolIds.size();
+            symbolIds.put(symbol, id);
+        }
+        return id;
+    }
+
+    private static byte side(byte[] line, int from, int to) {
+        String side = new String(line, from, to - from, StandardCharsets.US_ASCII).trim();
+        return sideCode(side);
+    }
+
+    /**
+     * @return SIDE_HOLD, SIDE_BUY, SIDE_SELL or SIDE_OTHER.
+     */
+    public static byte sideCode(String side) {
+        switch (side) {
+            case "HOLD": return SIDE_HOLD;
+            case "BUY": return SIDE_BUY;
+            case "SELL": return SIDE_SELL;
+            default: return SIDE_OTHER;
+        }
+    }
+
+    /**
+     * Reads matching rows, oldest first, among the rows indexed by the last refresh().
+     * If the journal was rotated or truncated since, the index is refreshed first.
+     *
+     * Rows that share a millisecond cannot be told apart by time, so a reader that
+     * pages with 'since' may miss some; page with queryAfter() and the returned cursor.
+     *
+     * @param since Only rows newer than this (epoch ms), or -1 for the newest rows.
+     * @param limit Maximum number of rows.
+     * @param sideMask Bit (1 << side code) per accepted side, or -1 for all.
+     * @param symbol Only rows of this symbol, or null for all.
+     * @param consumer Receives each row (without the line break).
+     * @return Cursor to pass to queryAfter() for the rows after the ones read.
+     */
+    public synchronized String query(long since, int limit, int sideMask, String symbol, RowConsumer consumer)
+            throws IOException {
+        return query(since, null, limit, sideMask, symbol, consumer);
+    }
+
+    /**
+     * Reads matching rows, oldest first, that follow a cursor returned by a previous
+     * query. A cursor of another file (the journal was rotated) reads from the start
+     * of the current one.
+     *
+     * @param after Cursor from query() or queryAfter().
+     * @return Cursor for the rows after the ones read.
+     * @throws IllegalArgumentException If 'after' is not a cursor.
+     */
+    public synchronized String queryAfter(String after, int limit, int sideMask, String symbol, RowConsumer consumer)
+            throws IOException {
+        if (!isCursor(after)) throw new IllegalArgumentException("Not a cursor: " + after);
+        return query(-1, after, limit, sideMask, symbol, consumer);
+    }
+
+    private String query(long since, String after, int limit, int sideMask, String symbol, RowConsumer consumer)
+            throws IOException {
+        for (int attempt = 0; attempt < MAX_QUERY_ATTEMPTS; attempt++) {
+            if (rows == 0 || limit <= 0) return cursor(indexedBytes);
+            FileChannel channel = open();
+            if (channel == null) {
+                reset(null);
+                return cursor(0);
+            }
+            try (channel) {
+                // The offsets belong to the indexed file: index the new one and select again
+                if ((openedKey != null && !openedKey.equals(fileKey)) || channel.size() < indexedBytes) {
+                    refresh();
+                    continue;
+                }
+                int first = after != null ? firstAfter(after) : since >= 0 ? upperBound(since) : -1;
+                // -1 matches every symbol; a symbol not in the journal matches no row
+                int symbolId = symbol == null ? -1 : symbolIds.getOrDefault(symbol, (short) -2);
+                return read(channel, first, limit, sideMask, symbolId, consumer);
+            }
+        }
+        throw new IOException("Trade journal " + path + " kept changing while it was read");
+    }
+
+    // Reads from row 'first' forward, or the newest rows if first is -1; returns the next cursor
+    private String read(FileChannel channel, int first, int limit, int sideMask, int symbolId, RowConsumer consumer)
+            throws IOException {
+        int[] selected = new int[Math.min(limit, rows)];
+        int count = 0;
+        if (first >= 0) {
+            for (int i = first; i < rows && count < selected.length; i++) {
+                if (matches(i, sideMask, symbolId)) selected[count++] = i;
+            }
+        } else {
+            for (int i = rows - 1; i >= 0 && count < selected.length; i--) {
+                if (matches(i, sideMask, symbolId)) selected[count++] = i;
+            }
+            reverse(selected, count);
+        }
+
+        // Contiguous rows are read with one call; scattered ones row by row
+        int runStart = 0;
+        while (runStart < count) {
+            int runEnd = runStart;
+            while (runEnd + 1 < count && selected[runEnd + 1] == selected[runEnd] + 1) runEnd++;
+
+            long from = offsets[selected[runStart]];
+            long to = end(selected[runEnd]);
+            ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+            while (buffer.hasRemaining() && channel.read(buffer, from + buffer.position()) > 0) { }
+
+            String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+            int start = 0;
+            while (start < text.length()) {
+                int end = text.indexOf('\n', start);
+                if (end == -1) end = text.length();
+                String row = text.substring(start, end > start && text.charAt(end - 1) == '\r' ? end - 1 : end);
+                if (!row.isBlank()) consumer.accept(row);
+                start = end + 1;
+            }
+            runStart = runEnd + 1;
+        }
+        // A full page may be followed by more rows; otherwise every indexed row was scanned
+        boolean full = first >= 0 && count == limit;
+        return cursor(full ? end(selected[count - 1]) : indexedBytes);
+    }
+
+    // Byte offset just past the row
+    private long end(int row) {
+        return row + 1 < rows ? offsets[row + 1] : indexedBytes;
+    }
+
+    // Cursor: the indexed file's identity and a byte offset in it
+    private String cursor(long offset) {
+        return fileTag() + "-" + Long.toHexString(offset);
+    }
+
+    private String fileTag() {
+        return Integer.toHexString(Objects.hashCode(fileKey));
+    }
+
+    /**
+     * @return True if the value has the form of a cursor returned by query().
+     */
+    public static boolean isCursor(String value) {
+        return value != null && value.matches("[0-9a-f]{1,8}-[0-9a-f]{1,16}");
+    }
+
+    // First row at or after the cursor's offset; 0 if the cursor is of another file
+    private int firstAfter(String after) {
+        int dash = after.indexOf('-');
+        long offset = Long.parseUnsignedLong(after.substring(dash + 1), 16);
+        if (!after.substring(0, dash).equals(fileTag()) || offset > indexedBytes) return 0;
+        int low = 0, high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[mid] < offset) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private boolean matches(int row, int sideMask, int symbolId) {
+        return (sideMask == -1 || (sideMask & (1 << sides[row])) != 0)
+                && (symbolId == -1 || symbols[row] == symbolId);
+    }
+
+    // First row with time > since (times are in append order)
+    private int upperBound(long since) {
+        int low = 0, high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= since) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static void reverse(int[] values, int count) {
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int t = values[i];
+            values[i] = values[j];
+            values[j] = t;
+        }
+    }
+
+    /**
+     * @return Parses a 'since' value: epoch ms or an ISO local date-time as written in the journal.
+     */
+    public long parseTime(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return LocalDateTime.parse(value).atZone(zone).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * @return Identity of the indexed content: the file and its indexed length. Changes
+     *         whenever rows are added or the file is replaced.
+     */
+    public synchronized String version() {
+        return cursor(indexedBytes);
+    }
+
+    public synchronized int size() {
+        return rows;
+    }
+
+    /**
+     * Receives one journal row.
+     */
+    public interface RowConsumer {
+        void accept(String row);
+    }
+}
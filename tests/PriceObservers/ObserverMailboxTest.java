@@ -0,0 +1,188 @@
+package PriceObservers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import interfaces.Observer;
+import models.BarEvent;
+import models.Candle;
+
+/**
+ * ObserverMailbox under a producer faster than its observer: ordering and the
+ * accounting of each overflow policy, for every wait strategy, and a consumer
+ * that survives a failing observer.
+ */
+class ObserverMailboxTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int BARS = 500;
+    private static final int UPDATES_PER_BAR = 20;
+
+    // Checks that candles arrive in order and closes once per bar; optionally slow
+    private static final class Checker implements Observer {
+        final long slowNanos;
+        volatile long count = 0;
+        volatile long closes = 0;
+        volatile String error = null;
+        long lastOpenTime = -1;
+        long lastClosedOpenTime = -1;
+
+        Checker(long slowNanos) {
+            this.slowNanos = slowNanos;
+        }
+
+        @Override
+        public void priceUpdated(Candle candle, BarEvent event) {
+            if (candle.openTime < lastOpenTime) error = "Candle " + candle.openTime + " after " + lastOpenTime;
+            if (event == BarEvent.BAR_CLOSE) {
+                if (candle.openTime <= lastClosedOpenTime) error = "Bar " + candle.openTime + " closed twice";
+                lastClosedOpenTime = candle.openTime;
+                closes++;
+            }
+            lastOpenTime = candle.openTime;
+            count++;
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < slowNanos) Thread.onSpinWait();
+        }
+    }
+
+    static List<Arguments> policies() {
+        List<Arguments> policies = new ArrayList<>();
+        for (ObserverMailbox.WaitStrategy waitStrategy : ObserverMailbox.WaitStrategy.values()) {
+            for (ObserverMailbox.Overflow overflow : ObserverMailbox.Overflow.values()) {
+                policies.add(Arguments.of(waitStrategy, overflow));
+            }
+        }
+        return policies;
+    }
+
+    @ParameterizedTest
+    @MethodSource("policies")
+    void deliversInOrderAndAccountsForEveryNotification(ObserverMailbox.WaitStrategy waitStrategy,
+                                                        ObserverMailbox.Overflow overflow) {
+        Checker checker = new Checker(200);
+        ObserverMailbox mailbox = new ObserverMailbox(checker, "test", 64, waitStrategy, overflow);
+        long sent = assertTimeoutPreemptively(TIMEOUT, () -> {
+            long notifications = publishBars(mailbox);
+            mailbox.awaitIdle();
+            return notifications;
+        });
+        mailbox.close();
+
+        assertNull(checker.error);
+        switch (overflow) {
+            case BLOCK:
+                assertEquals(sent, checker.count);
+                break;
+            case DROP:
+                assertEquals(sent, checker.count + mailbox.getDropped());
+                break;
+            case CONFLATE:
+                assertEquals(BARS, checker.closes, "closes are never conflated");
+                assertEquals(sent, checker.count + mailbox.getConflated());
+                break;
+        }
+    }
+
+    @Test
+    void consumerSurvivesAnObserverThrowingAnError() {
+        AtomicBoolean failed = new AtomicBoolean();
+        Checker checker = new Checker(0);
+        Observer failing = (candle, event) -> {
+            if (failed.compareAndSet(false, true)) throw new StackOverflowError("test");
+            checker.priceUpdated(candle, event);
+        };
+        ObserverMailbox mailbox = new ObserverMailbox(failing, "failing", 8,
+                ObserverMailbox.WaitStrategy.BLOCKING, ObserverMailbox.Overflow.BLOCK);
+
+        long sent = assertTimeoutPreemptively(TIMEOUT, () -> {
+            long notifications = publishBars(mailbox);
+            mailbox.awaitIdle();
+            return notifications;
+        });
+        mailbox.close();
+
+        assertTrue(failed.get());
+        assertEquals(sent - 1, checker.count);
+    }
+
+    @Test
+    void blockedProducerReturnsWhenTheMailboxCloses() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Observer stuck = (candle, event) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ObserverMailbox mailbox = new ObserverMailbox(stuck, "stuck", 2,
+                ObserverMailbox.WaitStrategy.BLOCKING, ObserverMailbox.Overflow.BLOCK);
+        Thread producer = Thread.ofPlatform().start(() -> publishBars(mailbox));
+
+        producer.join(200);
+        assertTrue(producer.isAlive(), "the producer waits for space in the full ring");
+        mailbox.close();
+        producer.join(TIMEOUT.toMillis());
+        assertFalse(producer.isAlive());
+        release.countDown();
+    }
+
+    @Test
+    void subjectToleratesRegistrationsWhileNotifying() throws InterruptedException {
+        PriceSubject subject = new PriceSubject();
+        subject.setClock(() -> 0);
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread churn = Thread.ofPlatform().start(() -> {
+            while (!stop.get()) {
+                Checker checker = new Checker(0);
+                subject.register(checker);
+                subject.remove(checker);
+                subject.registerAsync(checker, "churn", 8,
+                        ObserverMailbox.WaitStrategy.SLEEPING, ObserverMailbox.Overflow.DROP);
+                subject.remove(checker);
+            }
+        });
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        try {
+            for (int i = 0; i < 20_000; i++) subject.publish(new Candle(i, 1, 1, 1, 1, 1, i + 1_000_000));
+        } catch (RuntimeException e) {
+            error.set(e);
+        } finally {
+            stop.set(true);
+            churn.join();
+        }
+        assertNull(error.get());
+    }
+
+    // Every bar as a run of updates and a close; returns the notifications sent
+    private static long publishBars(ObserverMailbox mailbox) {
+        Candle candle = new Candle(0, 1, 1, 1, 1, 1, 0);
+        long sent = 0;
+        for (int bar = 0; bar < BARS; bar++) {
+            candle.openTime = bar;
+            for (int update = 0; update < UPDATES_PER_BAR; update++) {
+                mailbox.priceUpdated(candle, BarEvent.BAR_UPDATE);
+                sent++;
+            }
+            mailbox.priceUpdated(candle, BarEvent.BAR_CLOSE);
+            sent++;
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,98 @@
+package mock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import models.CandleSeries;
+import models.OrderFill;
+import models.WalletBalance;
+import services.BinanceConfig;
+import services.BinanceHttpClient;
+import services.BinanceService;
+
+/**
+ * BinanceService against the mock exchange on an ephemeral port: klines, a signed
+ * MARKET order, the account read that follows, and a request with a bad signature.
+ */
+class MockExchangeTest {
+    private static final String API_KEY = "test-key";
+    private static final String SECRET_KEY = "test-secret";
+    private static final double USDT = 10_000;
+
+    private static MockExchange exchange;
+    private static BinanceHttpClient http;
+    private static BinanceService binance;
+    private static String baseUrl, apiKey, secretKey;
+
+    @BeforeAll
+    static void start() throws Exception {
+        exchange = new MockExchange(new MockMarket(42), new MockAccount(USDT), API_KEY, SECRET_KEY);
+        exchange.start(0);
+
+        baseUrl = BinanceConfig.BASE_URL;
+        apiKey = BinanceConfig.API_KEY;
+        secretKey = BinanceConfig.SECRET_KEY;
+        BinanceConfig.BASE_URL = "http://127.0.0.1:" + exchange.getPort();
+        BinanceConfig.API_KEY = API_KEY;
+        BinanceConfig.SECRET_KEY = SECRET_KEY;
+        http = new BinanceHttpClient(BinanceConfig.BASE_URL);
+        binance = new BinanceService(http);
+    }
+
+    @AfterAll
+    static void stop() {
+        BinanceConfig.BASE_URL = baseUrl;
+        BinanceConfig.API_KEY = apiKey;
+        BinanceConfig.SECRET_KEY = secretKey;
+        exchange.stop();
+    }
+
+    @Test
+    void servesKlines() {
+        CandleSeries candles = binance.getCandles("BTCUSDT", "1m", 0, 0, 100);
+        assertEquals(100, candles.size());
+        for (int i = 1; i < candles.size(); i++) {
+            assertEquals(60_000, candles.openTime(i) - candles.openTime(i - 1));
+            assertTrue(candles.close(i) > 0);
+        }
+    }
+
+    @Test
+    void fillsASignedMarketOrderAndBooksItInTheAccount() {
+        WalletBalance before = binance.getWalletBalance("ETH");
+
+        OrderFill fill = binance.placeOrder("ETHUSDT", "BUY", 0.05);
+        assertEquals("FILLED", fill.status, fill.error);
+        assertTrue(fill.orderId >= 0);
+        assertEquals(0.05, fill.executedQty, 1e-9);
+        assertTrue(fill.quoteQty > 0);
+
+        WalletBalance after = binance.getWalletBalance("ETH");
+        assertEquals(before.usdt - fill.quoteQty, after.usdt, 1e-6);
+        assertEquals(before.btc + fill.executedQty - fill.commission("ETH"), after.btc, 1e-9);
+    }
+
+    @Test
+    void refusesABadSignatureWith1022() throws Exception {
+        BinanceHttpClient.Response response = http.post("/api/v3/order?symbol=BTCUSDT&side=BUY&type=MARKET"
+                + "&quantity=0.001&timestamp=" + System.currentTimeMillis() + "&signature=00", API_KEY);
+        assertEquals(400, response.statusCode);
+        assertTrue(response.bodyAsString().contains("\"code\":-1022"), response.bodyAsString());
+
+        // The service signs with the configured secret: a wrong one is refused the same way
+        BinanceConfig.SECRET_KEY = "wrong-secret";
+        try {
+            OrderFill fill = binance.placeOrder("BTCUSDT", "BUY", 0.001);
+            assertEquals("REJECTED", fill.status);
+            assertNotNull(fill.error);
+            assertTrue(fill.error.contains("Signature"), fill.error);
+        } finally {
+            BinanceConfig.SECRET_KEY = SECRET_KEY;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tracing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The tick the current thread is working on: one candle poll and everything it
+ * triggers (dispatch to the observers, strategy evaluation, balance refresh, orders).
+ *
+ * CandlePoller starts a tick per poll; the JFR events of TickEvents read the id and
+ * symbol from here, so a recording can be grouped by tick. Work handed to another
+ * thread carries the id along and resumes it there (see OrderExecutor).
+ * Outside a tick (backfills, backtests) the id is 0.
+ */
+public final class Tick {
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+    private static final ThreadLocal<Tick> CURRENT = new ThreadLocal<>();
+
+    private final long id;
+    private final String symbol;
+
+    private Tick(long id, String symbol) {
+        this.id = id;
+        this.symbol = symbol;
+    }
+
+    /**
+     * Starts a new tick on this thread.
+     *
+     * @return Its id (unique in this process, increasing).
+     */
+    public static long begin(String symbol) {
+        long id = NEXT_ID.incrementAndGet();
+        CURRENT.set(new Tick(id, symbol));
+        return id;
+    }
+
+    /**
+     * Continues a tick begun on another thread.
+     *
+     * @param id The tick id, or 0 for none.
+     */
+    public static void resume(long id, String symbol) {
+        if (id == 0) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(new Tick(id, symbol));
+        }
+    }
+
+    /**
+     * Leaves the current tick.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return The current tick id, or 0 outside a tick.
+     */
+    public static long id() {
+        Tick tick = CURRENT.get();
+        return tick == null ? 0 : tick.id;
+    }
+
+    /**
+     * @return The symbol of the current tick, or null outside a tick.
+     */
+    public static String symbol() {
+        Tick tick = CURRENT.get();
+        return tick == null ? null : tick.symbol;
+    }
+}
@@ -0,0 +1,189 @@
+package tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events for the stages of a tick, from the kline request to the
+ * exchange's answer to an order. Every event carries the tick id and symbol (see Tick),
+ * so the stages of one tick can be put side by side (TickReport).
+ *
+ * The events are disabled unless a recording uses tracing/tick-trace.jfc. While they
+ * are disabled, begin()/shouldCommit() cost a few nanoseconds and the event object is
+ * not allocated (escape analysis); fields are only filled in for events that are
+ * committed. Stages nest: Poll contains the fetch, parse and dispatch of that poll,
+ * ObserverDispatch contains the strategy evaluation of synchronous observers, and so on.
+ * An observer with a mailbox evaluates on the mailbox's thread, under the same tick id.
+ *
+ * Usage:
+ *   TickEvents.KlineFetch event = new TickEvents.KlineFetch();
+ *   event.begin();
+ *   ... the stage ...
+ *   if (event.shouldCommit()) {
+ *       event.stamp();
+ *       event.statusCode = response.statusCode;
+ *       event.commit();
+ *   }
+ */
+public final class TickEvents {
+
+    private TickEvents() {
+    }
+
+    /**
+     * Fields shared by all tick events.
+     */
+    @Category({"Trading Bot", "Tick"})
+    @StackTrace(false)
+    @Enabled(false)
+    public abstract static class Stage extends Event {
+        @Label("Tick Id")
+        @Description("Poll this stage belongs to (0 outside a poll, e.g. backfills)")
+        public long tickId;
+
+        @Label("Symbol")
+        public String symbol;
+
+        /**
+         * Copies the id and symbol of the current tick into the event.
+         */
+        public void stamp() {
+            tickId = Tick.id();
+            symbol = Tick.symbol();
+        }
+    }
+
+    @Name("tradebot.Poll")
+    @Label("Poll")
+    @Description("One kline poll of a symbol and everything it triggered on the polling thread")
+    public static final class Poll extends Stage {
+        @Label("Interval")
+        public String interval;
+
+        @Label("Candles")
+        public int candles;
+
+        @Label("Bar Closed")
+        @Description("The poll found the bar it was waiting for closed")
+        public boolean closed;
+    }
+
+    @Name("tradebot.KlineFetch")
+    @Label("Kline Fetch")
+    @Description("HTTP request for klines, until the whole body was read")
+    public static final class KlineFetch extends Stage {
+        @Label("Interval")
+        public String interval;
+
+        @Label("Status Code")
+        public int statusCode;
+
+        @Label("Body Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("tradebot.KlineParse")
+    @Label("Kline Parse")
+    @Description("Parsing a klines response into candles")
+    public static final class KlineParse extends Stage {
+        @Label("Rows")
+        public int rows;
+    }
+
+    @Name("tradebot.ObserverDispatch")
+    @Label("Observer Dispatch")
+    @Description("PriceSubject notifying its observers of one candle")
+    public static final class ObserverDispatch extends Stage {
+        @Label("Bar Event")
+        public String barEvent;
+
+        @Label("Observers")
+        public int observers;
+    }
+
+    @Name("tradebot.StrategyEvaluation")
+    @Label("Strategy Evaluation")
+    @Description("Bot.evaluateData: indicators, strategy selection and the signal")
+    public static final class StrategyEvaluation extends Stage {
+        @Label("Strategy")
+        public String strategy;
+
+        @Label("Signal")
+        public String signal;
+    }
+
+    @Name("tradebot.StrategySelection")
+    @Label("Strategy Selection")
+    @Description("StrategySelector.determineStrategy")
+    public static final class StrategySelection extends Stage {
+        @Label("Strategy")
+        public String strategy;
+
+        @Label("Switched")
+        public boolean switched;
+    }
+
+    @Name("tradebot.BalanceRefresh")
+    @Label("Balance Refresh")
+    @Description("Bot reading the balances it sizes orders with")
+    public static final class BalanceRefresh extends Stage {
+        @Label("Source")
+        @Description("wallet, ledger, exchange or simulation")
+        public String source;
+    }
+
+    @Name("tradebot.OrderExecution")
+    @Label("Order Execution")
+    @Description("An order command run by an OrderExecutor worker")
+    public static final class OrderExecution extends Stage {
+        @Label("Queue Wait")
+        @Description("Time the command waited in the executor's queue")
+        @Timespan
+        public long queueWait;
+
+        @Label("Status")
+        public String status;
+    }
+
+    @Name("tradebot.OrderSubmit")
+    @Label("Order Submit")
+    @Description("OrderReceiver placing a BUY or SELL (simulated or on the exchange)")
+    public static final class OrderSubmit extends Stage {
+        @Label("Side")
+        public String side;
+
+        @Label("Quantity")
+        public double quantity;
+
+        @Label("Simulated")
+        public boolean simulated;
+
+        @Label("Status")
+        public String status;
+    }
+
+    @Name("tradebot.ExchangeOrder")
+    @Label("Exchange Order")
+    @Description("BinanceService.placeOrder: signing, the HTTP request and parsing the fill")
+    public static final class ExchangeOrder extends Stage {
+        @Label("Side")
+        public String side;
+
+        @Label("Quantity")
+        public double quantity;
+
+        @Label("Order Id")
+        public long orderId;
+
+        @Label("Status")
+        public String status;
+    }
+}
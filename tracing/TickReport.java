@@ -0,0 +1,149 @@
+package tracing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Latency breakdown of a JFR recording made with tracing/tick-trace.jfc.
+ *
+ * Prints the duration percentiles of every stage, then the slowest ticks with their
+ * stages in order: offset from the start of the tick, duration and the event's fields.
+ * A tick's span runs from its first stage to the end of its last one, so for a tick
+ * that traded it includes the order's queue wait and the exchange's answer.
+ *
+ * Usage: java tracing.TickReport <recording.jfr> [ticks] [--orders]
+ *   ticks     Number of slowest ticks to list (default 10).
+ *   --orders  Only list ticks that submitted an order.
+ */
+public class TickReport {
+    private static final String PREFIX = "tradebot.";
+
+    // The events of one tick
+    private static final class TickTrace {
+        final long id;
+        final List<RecordedEvent> events = new ArrayList<>();
+        Instant start = Instant.MAX;
+        Instant end = Instant.MIN;
+        boolean ordered = false;
+
+        TickTrace(long id) {
+            this.id = id;
+        }
+
+        void add(RecordedEvent event) {
+            events.add(event);
+            if (event.getStartTime().isBefore(start)) start = event.getStartTime();
+            if (event.getEndTime().isAfter(end)) end = event.getEndTime();
+            if (event.getEventType().getName().equals(PREFIX + "OrderSubmit")) ordered = true;
+        }
+
+        Duration span() {
+            return Duration.between(start, end);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java tracing.TickReport <recording.jfr> [ticks] [--orders]");
+            return;
+        }
+        int top = 10;
+        boolean ordersOnly = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--orders")) ordersOnly = true;
+            else top = Integer.parseInt(args[i]);
+        }
+
+        Map<String, List<Long>> stageNanos = new LinkedHashMap<>();
+        Map<Long, TickTrace> ticks = new LinkedHashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(Path.of(args[0]))) {
+            String name = event.getEventType().getName();
+            if (!name.startsWith(PREFIX)) continue;
+            stageNanos.computeIfAbsent(name.substring(PREFIX.length()), key -> new ArrayList<>())
+                    .add(event.getDuration().toNanos());
+            long tickId = event.getLong("tickId");
+            if (tickId != 0) ticks.computeIfAbsent(tickId, TickTrace::new).add(event);
+        }
+        if (stageNanos.isEmpty()) {
+            System.out.println("No tick events in " + args[0] + " (was the recording made with tracing/tick-trace.jfc?)");
+            return;
+        }
+
+        printStages(stageNanos);
+
+        List<TickTrace> slowest = new ArrayList<>();
+        for (TickTrace tick : ticks.values()) {
+            if (!ordersOnly || tick.ordered) slowest.add(tick);
+        }
+        slowest.sort(Comparator.comparing(TickTrace::span).reversed());
+        System.out.println();
+        System.out.println("Slowest " + Math.min(top, slowest.size()) + " of " + slowest.size()
+                + (ordersOnly ? " ticks with orders" : " ticks") + ":");
+        for (int i = 0; i < Math.min(top, slowest.size()); i++) {
+            printTick(slowest.get(i));
+        }
+    }
+
+    private static void printStages(Map<String, List<Long>> stageNanos) {
+        System.out.println(String.format(Locale.US, "%-20s %8s %10s %10s %10s %10s",
+                "Stage", "Count", "p50 ms", "p99 ms", "Max ms", "Total ms"));
+        for (Map.Entry<String, List<Long>> stage : stageNanos.entrySet()) {
+            List<Long> nanos = stage.getValue();
+            nanos.sort(null);
+            long total = 0;
+            for (long value : nanos) total += value;
+            System.out.println(String.format(Locale.US, "%-20s %8d %10.3f %10.3f %10.3f %10.1f",
+                    stage.getKey(), nanos.size(), percentile(nanos, 0.5) / 1e6, percentile(nanos, 0.99) / 1e6,
+                    nanos.get(nanos.size() - 1) / 1e6, total / 1e6));
+        }
+    }
+
+    // Nearest-rank percentile of sorted values
+    private static long percentile(List<Long> sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    private static void printTick(TickTrace tick) {
+        RecordedEvent first = tick.events.get(0);
+        System.out.println();
+        System.out.println(String.format(Locale.US, "Tick %d %s at %s: %.3f ms%s", tick.id,
+                first.getString("symbol"), tick.start, tick.span().toNanos() / 1e6, tick.ordered ? " (order)" : ""));
+        tick.events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        for (RecordedEvent event : tick.events) {
+            System.out.println(String.format(Locale.US, "  +%9.3f ms %9.3f ms  %-20s %s",
+                    Duration.between(tick.start, event.getStartTime()).toNanos() / 1e6,
+                    event.getDuration().toNanos() / 1e6,
+                    event.getEventType().getName().substring(PREFIX.length()), fields(event)));
+        }
+    }
+
+    // The event's own fields (not the tick id and symbol)
+    private static String fields(RecordedEvent event) {
+        StringBuilder text = new StringBuilder();
+        for (ValueDescriptor field : event.getFields()) {
+            String name = field.getName();
+            if (name.equals("startTime") || name.equals("duration") || name.equals("eventThread")
+                    || name.equals("stackTrace") || name.equals("tickId") || name.equals("symbol")) continue;
+            if (text.length() > 0) text.append(' ');
+            Object value = event.getValue(name);
+            if ("jdk.jfr.Timespan".equals(field.getContentType())) {
+                value = String.format(Locale.US, "%.3fms", event.getDuration(name).toNanos() / 1e6);
+            }
+            text.append(name).append('=').append(value);
+        }
+        return text.toString();
+    }
+}